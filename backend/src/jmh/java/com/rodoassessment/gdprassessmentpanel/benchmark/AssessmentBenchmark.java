@@ -0,0 +1,78 @@
+package com.rodoassessment.gdprassessmentpanel.benchmark;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentLoader;
+import com.rodoassessment.gdprassessmentpanel.service.TemplateRenderer;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Building assessment trees from the in-memory catalog: what {@code AssessmentController.convertToDto}
+ * does for {@code GET /api/assessments/{id}}, and what {@code GET /api/assessments/template} does
+ * on a cold and on a warm cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssessmentBenchmark {
+
+    // Answer storage layout behind convertToDto, see app.storage.mode
+    @Param({"rows", "document"})
+    private String storage;
+
+    private AssessmentLoader assessmentLoader;
+
+    private TemplateRenderer templateRenderer;
+
+    private Assessment assessment;
+
+    // Two versions of the same catalog; switching between them invalidates the rendered template
+    private final QuestionnaireCatalog[] catalogs = new QuestionnaireCatalog[2];
+
+    private AtomicReference<QuestionnaireCatalog> currentCatalog;
+
+    private int renders;
+
+    @Setup
+    public void setUp() {
+        catalogs[0] = BenchmarkFixtures.seededCatalog(1);
+        catalogs[1] = BenchmarkFixtures.seededCatalog(2);
+        CatalogService catalogService = BenchmarkFixtures.catalogService(catalogs[0]);
+        currentCatalog = BenchmarkFixtures.currentCatalog(catalogService);
+        assessmentLoader = BenchmarkFixtures.assessmentLoader(catalogService, storage);
+        templateRenderer = BenchmarkFixtures.templateRenderer(catalogService, assessmentLoader);
+        assessment = BenchmarkFixtures.assessment();
+        templateRenderer.getTemplate();
+    }
+
+    @Benchmark
+    public AssessmentDto convertToDto() {
+        return assessmentLoader.load(assessment);
+    }
+
+    @Benchmark
+    public AssessmentDto buildTemplate() {
+        return assessmentLoader.loadTemplate();
+    }
+
+    @Benchmark
+    public TemplateRenderer.RenderedTemplate renderTemplate() {
+        // Serialization, gzip and ETag, as on the first request after a catalog change
+        currentCatalog.set(catalogs[++renders & 1]);
+        return templateRenderer.getTemplate();
+    }
+
+    @Benchmark
+    public TemplateRenderer.RenderedTemplate cachedTemplate() {
+        currentCatalog.set(catalogs[0]);
+        return templateRenderer.getTemplate();
+    }
+}
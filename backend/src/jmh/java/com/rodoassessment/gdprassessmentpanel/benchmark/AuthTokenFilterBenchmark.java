@@ -0,0 +1,58 @@
+package com.rodoassessment.gdprassessmentpanel.benchmark;
+
+import com.rodoassessment.gdprassessmentpanel.security.jwt.AuthTokenFilter;
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link AuthTokenFilter}: header parsing, token verification,
+ * principal construction from claims and security context population.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthTokenFilterBenchmark {
+
+    private AuthTokenFilter filter;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils(10000);
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "admin", "admin@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authorization = "Bearer " + jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assessments/1");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
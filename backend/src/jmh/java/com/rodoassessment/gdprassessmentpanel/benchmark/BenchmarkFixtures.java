@@ -0,0 +1,244 @@
+package com.rodoassessment.gdprassessmentpanel.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerDocumentRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaScoreRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ResponseRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.AreaScoreView;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.ResponseView;
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentLoader;
+import com.rodoassessment.gdprassessmentpanel.service.TemplateRenderer;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import com.rodoassessment.gdprassessmentpanel.service.store.AnswerDocument;
+import com.rodoassessment.gdprassessmentpanel.service.store.AnswerStore;
+import com.rodoassessment.gdprassessmentpanel.service.store.DocumentAnswerStore;
+import com.rodoassessment.gdprassessmentpanel.service.store.RowAnswerStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Wires the services under benchmark by hand, without a Spring context or a database. The catalog
+ * has the shape of the seeded RODO questionnaire (6 chapters, 34 areas, 101 requirements) and the
+ * repositories return a fully answered assessment, as rows or as one answers document.
+ */
+final class BenchmarkFixtures {
+
+    static final int CHAPTERS = 6;
+
+    static final int AREAS = 34;
+
+    static final int REQUIREMENTS = 101;
+
+    static final String JWT_SECRET =
+            "gdprAssessmentSecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private static final String[] VALUES = {"TAK", "NIE", "W REALIZACJI", "NIE DOTYCZY"};
+
+    private static final String[] SCORES = {"POZYTYWNA", "ZASTRZEŻENIA", "NEGATYWNA", "W REALIZACJI"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static QuestionnaireCatalog seededCatalog() {
+        return seededCatalog(1);
+    }
+
+    static QuestionnaireCatalog seededCatalog(long version) {
+        List<Chapter> chapters = new ArrayList<>();
+        for (int c = 0; c < CHAPTERS; c++) {
+            Chapter chapter = new Chapter();
+            chapter.setId((long) c + 1);
+            chapter.setName("Rozdział " + (c + 1));
+            chapter.setDescription("Ocena zgodności z wymogami rozdziału " + (c + 1) + " RODO");
+            chapter.setOrderNumber(c + 1);
+            chapters.add(chapter);
+        }
+
+        List<Area> areas = new ArrayList<>();
+        for (int a = 0; a < AREAS; a++) {
+            Area area = new Area();
+            area.setId((long) a + 1);
+            area.setName("Obszar " + (a + 1));
+            area.setDescription("Ocena zgodności z zasadą opisaną w obszarze " + (a + 1));
+            area.setChapter(chapters.get(a * CHAPTERS / AREAS));
+            area.setOrderNumber(a + 1);
+            areas.add(area);
+        }
+
+        List<Requirement> requirements = new ArrayList<>();
+        for (int r = 0; r < REQUIREMENTS; r++) {
+            Requirement requirement = new Requirement();
+            requirement.setId((long) r + 1);
+            requirement.setText("Czy przetwarzanie danych osobowych odbywa się zgodnie z wymogiem " + (r + 1)
+                    + " określonym w przepisach RODO oraz w przyjętej polityce ochrony danych?");
+            requirement.setArea(areas.get(r * AREAS / REQUIREMENTS));
+            requirement.setOrderNumber(r + 1);
+            requirements.add(requirement);
+        }
+
+        return QuestionnaireCatalog.of(version, chapters, areas, requirements);
+    }
+
+    static CatalogService catalogService(QuestionnaireCatalog catalog) {
+        CatalogService catalogService = new CatalogService(Mockito.mock(PlatformTransactionManager.class));
+        currentCatalog(catalogService).set(catalog);
+        return catalogService;
+    }
+
+    // The snapshot the service hands out, for benchmarks that swap catalogs as a reload would
+    @SuppressWarnings("unchecked")
+    static AtomicReference<QuestionnaireCatalog> currentCatalog(CatalogService catalogService) {
+        return (AtomicReference<QuestionnaireCatalog>) ReflectionTestUtils.getField(catalogService, "current");
+    }
+
+    static AssessmentLoader assessmentLoader(CatalogService catalogService, String storage) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+
+        List<ResponseView> responses = new ArrayList<>();
+        AnswerDocument document = new AnswerDocument();
+        for (int r = 0; r < catalog.requirementCount(); r++) {
+            String value = VALUES[r % VALUES.length];
+            String comment = r % 3 == 0 ? "Uwagi audytora do wymagania " + (r + 1) : "";
+            responses.add(responseView(catalog.requirementId(r), value, comment));
+            document.getR().put(catalog.requirementId(r), new AnswerDocument.Entry(value, comment, 1L));
+        }
+        List<AreaScoreView> areaScores = new ArrayList<>();
+        for (int a = 0; a < catalog.areaCount(); a++) {
+            String score = SCORES[a % SCORES.length];
+            String comment = "Podsumowanie obszaru " + (a + 1);
+            areaScores.add(areaScoreView(catalog.areaId(a), score, comment));
+            document.getA().put(catalog.areaId(a), new AnswerDocument.Entry(score, comment, 1L));
+        }
+
+        ResponseRepository responseRepository = Mockito.mock(ResponseRepository.class);
+        Mockito.when(responseRepository.findViewsByAssessmentId(Mockito.anyLong())).thenReturn(responses);
+        AreaScoreRepository areaScoreRepository = Mockito.mock(AreaScoreRepository.class);
+        Mockito.when(areaScoreRepository.findViewsByAssessmentId(Mockito.anyLong())).thenReturn(areaScores);
+
+        AnswerStore answerStore;
+        if (AnswerTables.MODE_DOCUMENT.equals(storage)) {
+            String json;
+            try {
+                json = objectMapper().writeValueAsString(document);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            AnswerDocumentRepository answerDocumentRepository = Mockito.mock(AnswerDocumentRepository.class);
+            Mockito.when(answerDocumentRepository.find(Mockito.anyLong()))
+                    .thenReturn(new AnswerDocumentRepository.StoredDocument(json, 1L));
+            answerStore = new DocumentAnswerStore();
+            ReflectionTestUtils.setField(answerStore, "answerDocumentRepository", answerDocumentRepository);
+            ReflectionTestUtils.setField(answerStore, "objectMapper", objectMapper());
+        } else {
+            answerStore = new RowAnswerStore();
+            ReflectionTestUtils.setField(answerStore, "responseRepository", responseRepository);
+            ReflectionTestUtils.setField(answerStore, "areaScoreRepository", areaScoreRepository);
+        }
+        ReflectionTestUtils.setField(answerStore, "catalogService", catalogService);
+
+        AssessmentLoader assessmentLoader = new AssessmentLoader();
+        ReflectionTestUtils.setField(assessmentLoader, "catalogService", catalogService);
+        ReflectionTestUtils.setField(assessmentLoader, "answerStore", answerStore);
+        return assessmentLoader;
+    }
+
+    static TemplateRenderer templateRenderer(CatalogService catalogService, AssessmentLoader assessmentLoader) {
+        TemplateRenderer templateRenderer = new TemplateRenderer();
+        ReflectionTestUtils.setField(templateRenderer, "catalogService", catalogService);
+        ReflectionTestUtils.setField(templateRenderer, "assessmentLoader", assessmentLoader);
+        ReflectionTestUtils.setField(templateRenderer, "objectMapper", objectMapper());
+        return templateRenderer;
+    }
+
+    static Assessment assessment() {
+        Assessment assessment = new Assessment();
+        assessment.setId(1L);
+        assessment.setName("Ocena zgodności RODO 2024");
+        assessment.setDescription("Coroczna ocena zgodności działu kadr");
+        assessment.setStatus("IN_PROGRESS");
+        assessment.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        assessment.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 14, 5));
+        return assessment;
+    }
+
+    /** Configured like the ObjectMapper Spring Boot auto-configures for the application. */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static JwtUtils jwtUtils(long cacheMaximumSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaximumSize", cacheMaximumSize);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry",
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static ResponseView responseView(Long requirementId, String value, String comment) {
+        return new ResponseView() {
+            @Override
+            public Long getRequirementId() {
+                return requirementId;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+
+            @Override
+            public String getComment() {
+                return comment;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 1L;
+            }
+        };
+    }
+
+    private static AreaScoreView areaScoreView(Long areaId, String score, String comment) {
+        return new AreaScoreView() {
+            @Override
+            public Long getAreaId() {
+                return areaId;
+            }
+
+            @Override
+            public String getScore() {
+                return score;
+            }
+
+            @Override
+            public String getComment() {
+                return comment;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 1L;
+            }
+        };
+    }
+}
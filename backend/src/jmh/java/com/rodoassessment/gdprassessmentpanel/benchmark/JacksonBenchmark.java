@@ -0,0 +1,50 @@
+package com.rodoassessment.gdprassessmentpanel.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentLoader;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a fully answered {@link AssessmentDto}, the body of {@code GET /api/assessments/{id}},
+ * and of the same assessment in its compact form ({@link CompactAssessmentDto}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private AssessmentDto assessmentDto;
+
+    private CompactAssessmentDto compactDto;
+
+    @Setup
+    public void setUp() {
+        CatalogService catalogService = BenchmarkFixtures.catalogService(BenchmarkFixtures.seededCatalog());
+        objectMapper = BenchmarkFixtures.objectMapper();
+        AssessmentLoader assessmentLoader = BenchmarkFixtures.assessmentLoader(catalogService, AnswerTables.MODE_ROWS);
+        assessmentDto = assessmentLoader.load(BenchmarkFixtures.assessment());
+        compactDto = assessmentLoader.loadCompact(BenchmarkFixtures.assessment());
+    }
+
+    @Benchmark
+    public byte[] serializeAssessment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(assessmentDto);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactAssessment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compactDto);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rodoassessment.gdprassessmentpanel.benchmark;
+
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. The uncached variants cycle through more distinct tokens than the
+ * verification cache holds, so every call pays for the signature check and claims parsing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final int TOKENS = 4096;
+
+    private JwtUtils cachingJwtUtils;
+
+    private JwtUtils uncachedJwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    private String[] tokens;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtils = BenchmarkFixtures.jwtUtils(10000);
+        uncachedJwtUtils = BenchmarkFixtures.jwtUtils(1);
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "admin", "admin@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        token = cachingJwtUtils.generateJwtToken(authentication);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            // Distinct subjects, since tokens issued within the same second would otherwise be identical
+            UserDetailsImpl user = new UserDetailsImpl((long) i, "user" + i, "user" + i + "@example.com", null,
+                    principal.getAuthorities());
+            tokens[i] = uncachedJwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachingJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachingJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtUtils.validateJwtToken(nextToken());
+    }
+
+    @Benchmark
+    public String parseUsernameCached() {
+        return cachingJwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public UserDetailsImpl parsePrincipalUncached() {
+        Claims claims = uncachedJwtUtils.verifyJwtToken(nextToken());
+        return uncachedJwtUtils.getPrincipalFromClaims(claims);
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (TOKENS - 1);
+        return tokens[next];
+    }
+}
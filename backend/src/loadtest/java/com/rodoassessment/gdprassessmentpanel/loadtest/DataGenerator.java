@@ -0,0 +1,121 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Seeds N users with M fully answered assessments each, using set-based SQL so that large data sets
+ * take seconds. Users are named {@code loadtest_1..N} with the password {@value #PASSWORD}; running
+ * the generator again only adds what is missing.
+ */
+public class DataGenerator {
+
+    static final String USERNAME_PREFIX = "loadtest_";
+
+    static final String PASSWORD = "loadtest";
+
+    private static final String INSERT_USERS =
+            "INSERT INTO users (username, email, password, first_name, last_name, organization, position) " +
+            "SELECT 'loadtest_' || g, 'loadtest_' || g || '@example.com', ?, 'Load', 'Test ' || g, " +
+            "'Organizacja testowa', 'Inspektor ochrony danych' " +
+            "FROM generate_series(1, ?) g ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_USER_ROLES =
+            "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'ROLE_USER' " +
+            "WHERE u.username LIKE 'loadtest\\_%' ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_ASSESSMENTS =
+            "INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+            "SELECT 'Ocena testowa ' || g, 'Dane wygenerowane do testów obciążeniowych', " +
+            "(ARRAY['DRAFT', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3], u.id, " +
+            "now() - make_interval(hours => g), now() - make_interval(hours => g) " +
+            "FROM users u CROSS JOIN generate_series(1, ?) g " +
+            "WHERE u.username LIKE 'loadtest\\_%' " +
+            "AND (SELECT count(*) FROM assessments x WHERE x.user_id = u.id) < g";
+
+    private static final String INSERT_RESPONSES =
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+            "SELECT a.id, q.id, (ARRAY['TAK', 'NIE', 'W REALIZACJI', 'NIE DOTYCZY'])[1 + (a.id + q.id) % 4], " +
+            "CASE WHEN (a.id + q.id) % 5 = 0 THEN 'Uwagi audytora do wymagania ' || q.id ELSE '' END " +
+            "FROM assessments a JOIN users u ON u.id = a.user_id CROSS JOIN requirements q " +
+            "WHERE u.username LIKE 'loadtest\\_%' ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_AREA_SCORES =
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+            "SELECT a.id, r.id, (ARRAY['POZYTYWNA', 'ZASTRZEŻENIA', 'NEGATYWNA', 'W REALIZACJI'])[1 + (a.id + r.id) % 4], " +
+            "'Podsumowanie obszaru ' || r.id " +
+            "FROM assessments a JOIN users u ON u.id = a.user_id CROSS JOIN areas r " +
+            "WHERE u.username LIKE 'loadtest\\_%' ON CONFLICT DO NOTHING";
+
+    // Same aggregation the application runs for assessments without summary counts
+    private static final String INSERT_SUMMARY_COUNTS =
+            "INSERT INTO assessment_summary_counts (assessment_id, kind, chapter_id, value, count) " +
+            "SELECT r.assessment_id, 'RESPONSE', a.chapter_id, r.value, count(*) " +
+            "FROM responses r JOIN requirements q ON q.id = r.requirement_id JOIN areas a ON a.id = q.area_id " +
+            "WHERE r.value <> '' AND NOT EXISTS (SELECT 1 FROM assessment_summary_counts c WHERE c.assessment_id = r.assessment_id) " +
+            "GROUP BY r.assessment_id, a.chapter_id, r.value " +
+            "UNION ALL " +
+            "SELECT s.assessment_id, 'AREA', a.chapter_id, s.score, count(*) " +
+            "FROM area_scores s JOIN areas a ON a.id = s.area_id " +
+            "WHERE s.score <> '' AND NOT EXISTS (SELECT 1 FROM assessment_summary_counts c WHERE c.assessment_id = s.assessment_id) " +
+            "GROUP BY s.assessment_id, a.chapter_id, s.score";
+
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int assessments;
+
+    public DataGenerator(Map<String, String> options) {
+        this.jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/gdpr_assessment");
+        this.dbUser = options.getOrDefault("db-user", "postgres");
+        this.dbPassword = options.getOrDefault("db-password", "postgres");
+        this.users = Integer.parseInt(options.getOrDefault("users", "100"));
+        this.assessments = Integer.parseInt(options.getOrDefault("assessments", "20"));
+    }
+
+    public void generate() throws SQLException {
+        long start = System.nanoTime();
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            connection.setAutoCommit(false);
+
+            int insertedUsers;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_USERS)) {
+                statement.setString(1, passwordHash);
+                statement.setInt(2, users);
+                insertedUsers = statement.executeUpdate();
+            }
+            int insertedRoles = update(connection, INSERT_USER_ROLES);
+
+            int insertedAssessments;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ASSESSMENTS)) {
+                statement.setInt(1, assessments);
+                insertedAssessments = statement.executeUpdate();
+            }
+
+            int insertedResponses = update(connection, INSERT_RESPONSES);
+            int insertedAreaScores = update(connection, INSERT_AREA_SCORES);
+            int insertedCounts = update(connection, INSERT_SUMMARY_COUNTS);
+            connection.commit();
+
+            System.out.printf("Inserted %d users, %d roles, %d assessments, %d responses, %d area scores, "
+                            + "%d summary counts in %d ms%n",
+                    insertedUsers, insertedRoles, insertedAssessments, insertedResponses, insertedAreaScores,
+                    insertedCounts, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private int update(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Raw latencies of one endpoint. Samples are kept in full and sorted once at the end, which is exact
+ * and cheap next to the HTTP calls being measured.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized Map<String, Object> summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / elapsedSeconds));
+        summary.put("meanMs", round(count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6));
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", count == 0 ? 0 : round(sorted[count - 1] / 1e6));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entry point of the load-test suite (profile {@code loadtest}).
+ *
+ * <pre>
+ * generate --jdbc-url URL [--db-user U] [--db-password P] [--users N] [--assessments M]
+ * run [--base-url URL] [--users N] [--concurrency C] [--duration-seconds S] [--output FILE] [--label L]
+ * </pre>
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Error: Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        switch (args[0]) {
+            case "generate" -> new DataGenerator(options).generate();
+            case "run" -> new SessionDriver(options).run();
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("Usage: generate --jdbc-url URL [--db-user U] [--db-password P] [--users N] [--assessments M]");
+        System.out.println("       run [--base-url URL] [--users N] [--concurrency C] [--duration-seconds S] "
+                + "[--output FILE] [--label L]");
+    }
+}
@@ -0,0 +1,228 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays scripted user sessions against a running backend: sign in, open the template, list own
+ * assessments, open one, autosave it a few times and view its results. Each of {@code concurrency}
+ * threads runs sessions back to back, rotating through the generated users. Latencies are recorded
+ * per step after the warm-up and written as a JSON report.
+ */
+public class SessionDriver {
+
+    private static final String[] VALUES = {"TAK", "NIE", "W REALIZACJI", "NIE DOTYCZY"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+    private final int users;
+    private final int concurrency;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int autosaves;
+    private final Path output;
+    private final String label;
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    private final AtomicLong sessions = new AtomicLong();
+
+    private volatile boolean recording;
+
+    public SessionDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        this.users = Integer.parseInt(options.getOrDefault("users", "100"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration-seconds", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "10"));
+        this.autosaves = Integer.parseInt(options.getOrDefault("autosaves", "3"));
+        this.output = Path.of(options.getOrDefault("output", "target/loadtest-report.json"));
+        this.label = options.getOrDefault("label", "");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public void run() throws Exception {
+        Instant startedAt = Instant.now();
+        long warmupEnd = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + durationSeconds * 1_000_000_000L;
+
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int t = 0; t < concurrency; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> {
+                int user = first;
+                while (System.nanoTime() < end) {
+                    session(DataGenerator.USERNAME_PREFIX + (user % users + 1));
+                    user += concurrency;
+                }
+            }, "session-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(Math.max(0, (warmupEnd - System.nanoTime()) / 1_000_000));
+        recording = true;
+        long measuredFrom = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+        writeReport(startedAt, elapsedSeconds);
+    }
+
+    private void session(String username) {
+        try {
+            ObjectNode credentials = objectMapper.createObjectNode()
+                    .put("username", username)
+                    .put("password", DataGenerator.PASSWORD);
+            JsonNode signIn = call("signin", "POST", "/api/auth/signin", null, credentials);
+            if (signIn == null) {
+                return;
+            }
+            String token = signIn.path("token").asText();
+
+            call("template", "GET", "/api/assessments/template", token, null);
+
+            JsonNode page = call("list", "GET", "/api/assessments?limit=20", token, null);
+            JsonNode items = page != null ? page.path("items") : null;
+            if (items == null || items.size() == 0) {
+                return;
+            }
+            long id = items.get(ThreadLocalRandom.current().nextInt(items.size())).path("id").asLong();
+
+            JsonNode assessment = call("get", "GET", "/api/assessments/" + id, token, null);
+            if (assessment == null) {
+                return;
+            }
+            // Each save answers with the stored document and its new versions, which the next save is based on
+            for (int i = 0; i < autosaves; i++) {
+                changeOneAnswer(assessment);
+                JsonNode saved = call("autosave", "PUT", "/api/assessments/" + id, token, assessment);
+                if (saved != null) {
+                    assessment = saved;
+                }
+            }
+
+            call("results", "GET", "/api/assessments/" + id + "/summary", token, null);
+            if (recording) {
+                sessions.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // already counted as an error of the failing step
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void changeOneAnswer(JsonNode assessment) {
+        List<ObjectNode> requirements = new ArrayList<>();
+        for (JsonNode chapter : assessment.path("chapters")) {
+            for (JsonNode area : chapter.path("areas")) {
+                for (JsonNode requirement : area.path("requirements")) {
+                    requirements.add((ObjectNode) requirement);
+                }
+            }
+        }
+        if (!requirements.isEmpty()) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            requirements.get(random.nextInt(requirements.size())).put("value", VALUES[random.nextInt(VALUES.length)]);
+        }
+    }
+
+    private JsonNode call(String step, String method, String path, String token, JsonNode body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            record(step, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        record(step, System.nanoTime() - start, success);
+
+        if (!success) {
+            throw new IOException("Error: " + step + " returned " + response.statusCode());
+        }
+        return response.body().length > 0 ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private void record(String step, long nanos, boolean success) {
+        if (recording) {
+            recorders.computeIfAbsent(step, s -> new LatencyRecorder()).record(nanos, success);
+        }
+    }
+
+    private void writeReport(Instant startedAt, double elapsedSeconds) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("startedAt", startedAt.toString());
+        report.put("baseUrl", baseUrl);
+        report.put("users", users);
+        report.put("concurrency", concurrency);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", round(elapsedSeconds));
+        report.put("autosavesPerSession", autosaves);
+        report.put("sessions", sessions.get());
+        report.put("sessionsPerSecond", round(sessions.get() / elapsedSeconds));
+
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (String step : new String[] {"signin", "template", "list", "get", "autosave", "results"}) {
+            LatencyRecorder recorder = recorders.get(step);
+            if (recorder != null) {
+                steps.put(step, recorder.summarize(elapsedSeconds));
+            }
+        }
+        report.put("steps", steps);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(steps));
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import com.rodoassessment.gdprassessmentpanel.monitoring.StatementMetricsDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceMetricsConfig {
+
+    /**
+     * Wraps the pooled DataSource so statement counts and JDBC time can be attributed to requests.
+     * The wrapper is a DelegatingDataSource, so the pool metrics still find the Hikari pool behind it.
+     */
+    @Bean
+    public static BeanPostProcessor statementMetricsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementMetricsDataSource)) {
+                    return new StatementMetricsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
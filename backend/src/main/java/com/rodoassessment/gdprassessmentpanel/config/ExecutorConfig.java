@@ -0,0 +1,99 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${app.worker.pool-size:4}")
+    private int workerPoolSize;
+
+    @Value("${app.worker.queue-capacity:100}")
+    private int workerQueueCapacity;
+
+    @Value("${app.events.sender-threads:4}")
+    private int eventSenderThreads;
+
+    @Value("${app.auth.password-threads:2}")
+    private int passwordThreads;
+
+    @Value("${app.auth.password-queue-capacity:200}")
+    private int passwordQueueCapacity;
+
+    @Value("${app.provisioning.parallelism:4}")
+    private int provisioningThreads;
+
+    /**
+     * Background work that reads or writes in bulk (analytics scans, imports). Each task holds a
+     * database connection, so the pool must stay well below the connection pool size.
+     */
+    @Bean(name = "workerExecutor")
+    public ThreadPoolTaskExecutor workerExecutor(Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerPoolSize);
+        executor.setMaxPoolSize(workerPoolSize);
+        executor.setQueueCapacity(workerQueueCapacity);
+        executor.setThreadNamePrefix("worker-");
+        if (VirtualThreadConfig.isEnabled(environment)) {
+            // Still bounded by the pool size, which keeps bulk work from taking every connection
+            executor.setThreadFactory(VirtualThreads.threadFactory("worker-virtual-"));
+        }
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes server-sent events to subscribers. A task never outlives one subscriber's queue, so there are
+     * at most as many queued tasks as subscribers and the queue needs no bound.
+     */
+    @Bean(name = "eventExecutor")
+    public ThreadPoolTaskExecutor eventExecutor(Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(eventSenderThreads);
+        executor.setMaxPoolSize(eventSenderThreads);
+        executor.setThreadNamePrefix("events-");
+        if (VirtualThreadConfig.isEnabled(environment)) {
+            executor.setThreadFactory(VirtualThreads.threadFactory("events-virtual-"));
+        }
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Password checks on sign-in. BCrypt is CPU-bound by design, so a small fixed pool keeps a burst of
+     * sign-ins from taking every core away from the rest of the API; sign-ins beyond the queue are rejected.
+     */
+    @Bean(name = "passwordExecutor")
+    public ThreadPoolTaskExecutor passwordExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordThreads);
+        executor.setMaxPoolSize(passwordThreads);
+        executor.setQueueCapacity(passwordQueueCapacity);
+        executor.setThreadNamePrefix("password-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Password hashing for bulk user provisioning. Kept apart from the worker pool, whose tasks hold database
+     * connections, and from sign-in checks; when every thread is busy the request thread hashes its own slice,
+     * so a second bulk request slows down instead of being rejected.
+     */
+    @Bean(name = "provisioningExecutor")
+    public ThreadPoolTaskExecutor provisioningExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(provisioningThreads);
+        executor.setMaxPoolSize(provisioningThreads);
+        executor.setQueueCapacity(provisioningThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("provisioning-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maximum number of SQL statements a request may run, keyed by "METHOD /uri-template"
+ * (for example {@code GET /api/assessments/{id}}). Endpoints without an entry use
+ * {@code defaultLimit}; a negative limit disables the check.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+    private boolean failOnExceed = false;
+    private int defaultLimit = -1;
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+}
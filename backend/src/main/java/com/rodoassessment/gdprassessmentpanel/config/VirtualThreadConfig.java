@@ -0,0 +1,106 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.task.TaskExecutorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in virtual-thread execution ({@code app.virtual-threads.enabled}). On Java 21+ Tomcat handles
+ * requests on one virtual thread each and the MVC async executor uses virtual threads; the worker
+ * pool is configured in {@link ExecutorConfig}. Database access is then bounded by the connection
+ * bulkhead, which is always on in this mode and can be enabled on its own with
+ * {@code app.db-bulkhead.enabled}. On older runtimes the setting is ignored with a warning.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    static boolean isEnabled(Environment environment) {
+        return environment.getProperty("app.virtual-threads.enabled", Boolean.class, false) && VirtualThreads.isSupported();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(Environment environment) {
+        boolean enabled = isEnabled(environment);
+        if (!enabled && environment.getProperty("app.virtual-threads.enabled", Boolean.class, false)) {
+            logger.warn("app.virtual-threads.enabled is set, but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        }
+        return protocolHandler -> {
+            if (enabled) {
+                protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-virtual-"));
+                logger.info("Handling requests on virtual threads");
+            }
+        };
+    }
+
+    @Bean
+    public TaskExecutorCustomizer virtualThreadTaskExecutorCustomizer(Environment environment) {
+        boolean enabled = isEnabled(environment);
+        return taskExecutor -> {
+            if (enabled) {
+                taskExecutor.setThreadFactory(VirtualThreads.threadFactory("task-virtual-"));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("app.db-bulkhead.enabled", Boolean.class, false)
+                || isEnabled(environment);
+        int permits = environment.getProperty("app.db-bulkhead.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration maxWait = environment.getProperty("app.db-bulkhead.max-wait", Duration.class, Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && find(dataSource) == null) {
+                    logger.info("Limiting concurrent database work to {} connections", permits);
+                    return new BulkheadDataSource(dataSource, permits, maxWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead = find(dataSource);
+            if (bulkhead == null) {
+                return;
+            }
+            Gauge.builder("db.bulkhead.permits.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .description("Connection permits currently free")
+                    .register(registry);
+            Gauge.builder("db.bulkhead.permits.max", bulkhead, BulkheadDataSource::getMaxPermits)
+                    .register(registry);
+            Gauge.builder("db.bulkhead.waiting", bulkhead, BulkheadDataSource::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .register(registry);
+        };
+    }
+
+    private static BulkheadDataSource find(DataSource dataSource) {
+        while (dataSource != null) {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                return bulkhead;
+            }
+            dataSource = dataSource instanceof DelegatingDataSource delegating ? delegating.getTargetDataSource() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads while the application is still compiled for Java 17. The Java 21 API is
+ * looked up reflectively, so the same build runs on 17 (platform threads only) and on 21+.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Factory for virtual threads named {@code prefix0}, {@code prefix1}, ...
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Error: Virtual threads are not available on Java "
+                    + Runtime.version().feature() + ".", e);
+        }
+    }
+
+    /**
+     * Unbounded executor starting one virtual thread per task.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        try {
+            Method factory = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) factory.invoke(null, threadFactory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Error: Virtual threads are not available on Java "
+                    + Runtime.version().feature() + ".", e);
+        }
+    }
+}
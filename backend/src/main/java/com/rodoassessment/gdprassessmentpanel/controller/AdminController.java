@@ -0,0 +1,105 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.BulkUserRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import com.rodoassessment.gdprassessmentpanel.service.AnalyticsService;
+import com.rodoassessment.gdprassessmentpanel.service.ComplianceSummaryService;
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+import com.rodoassessment.gdprassessmentpanel.service.UserProvisioningService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.RejectedExecutionException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private ComplianceSummaryService complianceSummaryService;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAnalytics(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(analyticsService.getDistributions(status, from, to));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new MessageResponse("Error: Too many background tasks, please try again later."));
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportAssessments(
+            @RequestParam(defaultValue = ExportService.FORMAT_CSV) String format,
+            @RequestParam(required = false) String status) {
+        MediaType contentType;
+        if (ExportService.FORMAT_CSV.equals(format)) {
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (ExportService.FORMAT_JSONL.equals(format)) {
+            contentType = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        } else {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Unsupported export format."));
+        }
+
+        StreamingResponseBody body = out -> exportService.export(format, status, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"assessments." + format + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/users/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> provisionUsers(@RequestBody BulkUserRequest bulkUserRequest) {
+        if (bulkUserRequest.getUsers() == null || bulkUserRequest.getUsers().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: No users to create."));
+        }
+        
+        try {
+            return ResponseEntity.ok(userProvisioningService.provision(bulkUserRequest.getUsers()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/assessments/{id}/summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildSummary(@PathVariable Long id) {
+        if (!assessmentRepository.existsById(id)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Assessment not found."));
+        }
+        
+        complianceSummaryService.rebuild(id);
+        
+        return ResponseEntity.ok(complianceSummaryService.getSummary(id));
+    }
+}
@@ -1,21 +1,36 @@
 package com.rodoassessment.gdprassessmentpanel.controller;
 
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchResponse;
 import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
 import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
 import com.rodoassessment.gdprassessmentpanel.model.*;
 import com.rodoassessment.gdprassessmentpanel.repository.*;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentDiffService;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentListService;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentLoader;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentWriter;
+import com.rodoassessment.gdprassessmentpanel.service.ComplianceSummaryService;
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+import com.rodoassessment.gdprassessmentpanel.service.TemplateRenderer;
+import com.rodoassessment.gdprassessmentpanel.service.events.AssessmentEventBroadcaster;
+import com.rodoassessment.gdprassessmentpanel.service.imports.ImportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.InputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -29,35 +44,46 @@ public class AssessmentController {
     private UserRepository userRepository;
 
     @Autowired
-    private ChapterRepository chapterRepository;
+    private AssessmentLoader assessmentLoader;
 
     @Autowired
-    private AreaRepository areaRepository;
+    private AssessmentWriter assessmentWriter;
 
     @Autowired
-    private RequirementRepository requirementRepository;
+    private AssessmentListService assessmentListService;
 
     @Autowired
-    private ResponseRepository responseRepository;
+    private TemplateRenderer templateRenderer;
 
     @Autowired
-    private AreaScoreRepository areaScoreRepository;
+    private ImportService importService;
+
+    @Autowired
+    private ComplianceSummaryService complianceSummaryService;
+
+    @Autowired
+    private AssessmentDiffService assessmentDiffService;
+
+    @Autowired
+    private AssessmentEventBroadcaster assessmentEventBroadcaster;
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<AssessmentDto>> getAllAssessments() {
+    public ResponseEntity<?> getAllAssessments(@RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String after) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Error: User not found."));
-        
-        List<Assessment> assessments = assessmentRepository.findByUserOrderByCreatedAtDesc(user);
-        List<AssessmentDto> assessmentDtos = assessments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // Without paging parameters the list keeps its original shape, a plain array of all assessments
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(assessmentListService.findAll(userDetails.getId()));
+        }
         
-        return ResponseEntity.ok(assessmentDtos);
+        try {
+            return ResponseEntity.ok(assessmentListService.findPage(userDetails.getId(), after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -75,7 +101,27 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to access this assessment."));
         }
         
-        return ResponseEntity.ok(convertToDto(assessment));
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(convertToDto(assessment));
+    }
+
+    @GetMapping(value = "/{id}", produces = CompactAssessmentDto.MEDIA_TYPE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getCompactAssessment(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+        
+        return compact(assessment);
     }
 
     @PostMapping
@@ -84,59 +130,32 @@ public class AssessmentController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Error: User not found."));
-        
-        Assessment assessment = new Assessment();
-        assessment.setName(assessmentDto.getName());
-        assessment.setDescription(assessmentDto.getDescription());
-        assessment.setStatus("DRAFT");
-        assessment.setUser(user);
-        
-        Assessment savedAssessment = assessmentRepository.save(assessment);
-        
-        // Process responses and area scores if provided
-        if (assessmentDto.getChapters() != null) {
-            for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
-                if (chapterDto.getAreas() != null) {
-                    for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
-                        // Save area score if provided
-                        if (areaDto.getScore() != null && !areaDto.getScore().isEmpty()) {
-                            Optional<Area> areaOpt = areaRepository.findById(areaDto.getId());
-                            if (areaOpt.isPresent()) {
-                                AreaScore areaScore = new AreaScore();
-                                areaScore.setAssessment(savedAssessment);
-                                areaScore.setArea(areaOpt.get());
-                                areaScore.setScore(areaDto.getScore());
-                                areaScore.setComment(areaDto.getComment());
-                                areaScoreRepository.save(areaScore);
-                            }
-                        }
-                        
-                        // Save responses if provided
-                        if (areaDto.getRequirements() != null) {
-                            for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
-                                if (reqDto.getValue() != null && !reqDto.getValue().isEmpty()) {
-                                    Optional<Requirement> reqOpt = requirementRepository.findById(reqDto.getId());
-                                    if (reqOpt.isPresent()) {
-                                        Response response = new Response();
-                                        response.setAssessment(savedAssessment);
-                                        response.setRequirement(reqOpt.get());
-                                        response.setValue(reqDto.getValue());
-                                        response.setComment(reqDto.getComment());
-                                        responseRepository.save(response);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        // The principal comes from verified token claims, so a reference is enough for the foreign key
+        User user = userRepository.getReferenceById(userDetails.getId());
+        
+        Assessment savedAssessment = assessmentWriter.create(user, assessmentDto);
         
         return ResponseEntity.ok(convertToDto(savedAssessment));
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> importAssessments(@RequestParam(defaultValue = ExportService.FORMAT_JSONL) String format,
+                                               InputStream body) throws IOException {
+        if (!ExportService.FORMAT_JSONL.equals(format) && !ExportService.FORMAT_CSV.equals(format)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Unsupported import format."));
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        try {
+            return ResponseEntity.ok(importService.importAssessments(userDetails.getId(), format, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> updateAssessment(@PathVariable Long id, @RequestBody AssessmentDto assessmentDto) {
@@ -152,64 +171,119 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to update this assessment."));
         }
         
-        assessment.setName(assessmentDto.getName());
-        assessment.setDescription(assessmentDto.getDescription());
-        assessment.setStatus(assessmentDto.getStatus());
-        
-        Assessment savedAssessment = assessmentRepository.save(assessment);
-        
-        // Process responses and area scores if provided
-        if (assessmentDto.getChapters() != null) {
-            for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
-                if (chapterDto.getAreas() != null) {
-                    for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
-                        // Update area score if provided
-                        if (areaDto.getScore() != null) {
-                            Optional<Area> areaOpt = areaRepository.findById(areaDto.getId());
-                            if (areaOpt.isPresent()) {
-                                Optional<AreaScore> areaScoreOpt = areaScoreRepository.findByAssessmentIdAndAreaId(id, areaDto.getId());
-                                AreaScore areaScore;
-                                if (areaScoreOpt.isPresent()) {
-                                    areaScore = areaScoreOpt.get();
-                                } else {
-                                    areaScore = new AreaScore();
-                                    areaScore.setAssessment(savedAssessment);
-                                    areaScore.setArea(areaOpt.get());
-                                }
-                                areaScore.setScore(areaDto.getScore());
-                                areaScore.setComment(areaDto.getComment());
-                                areaScoreRepository.save(areaScore);
-                            }
-                        }
-                        
-                        // Update responses if provided
-                        if (areaDto.getRequirements() != null) {
-                            for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
-                                if (reqDto.getValue() != null) {
-                                    Optional<Requirement> reqOpt = requirementRepository.findById(reqDto.getId());
-                                    if (reqOpt.isPresent()) {
-                                        Optional<Response> responseOpt = responseRepository.findByAssessmentIdAndRequirementId(id, reqDto.getId());
-                                        Response response;
-                                        if (responseOpt.isPresent()) {
-                                            response = responseOpt.get();
-                                        } else {
-                                            response = new Response();
-                                            response.setAssessment(savedAssessment);
-                                            response.setRequirement(reqOpt.get());
-                                        }
-                                        response.setValue(reqDto.getValue());
-                                        response.setComment(reqDto.getComment());
-                                        responseRepository.save(response);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        // Non-conflicting changes are committed either way, a conflict returns the current values instead
+        AnswerPatchResponse result = assessmentWriter.update(assessment, assessmentDto);
+        if (!result.getConflicts().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
         }
         
-        return ResponseEntity.ok(convertToDto(savedAssessment));
+        return ResponseEntity.ok(convertToDto(assessment));
+    }
+
+    @PutMapping(value = "/{id}", consumes = CompactAssessmentDto.MEDIA_TYPE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> updateCompactAssessment(@PathVariable Long id,
+                                                     @RequestBody CompactAssessmentDto compactDto) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to update this assessment."));
+        }
+        
+        AnswerPatchResponse result = assessmentWriter.update(assessment, compactDto);
+        if (!result.getConflicts().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+        
+        return compact(assessment);
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> patchAssessment(@PathVariable Long id, @RequestBody AnswerPatchRequest patchRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to update this assessment."));
+        }
+        
+        AnswerPatchResponse result = assessmentWriter.patch(id, patchRequest);
+        if (!result.getConflicts().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+        
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/{id}/summary")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getAssessmentSummary(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+        
+        return ResponseEntity.ok(complianceSummaryService.getSummary(id));
+    }
+
+    @GetMapping("/{id}/events")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Object subscribeToAssessmentEvents(@PathVariable Long id, HttpServletResponse response) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+        
+        // The emitter is returned as is, a ResponseEntity<?> around it would hide it from the streaming handler
+        response.setHeader("X-Accel-Buffering", "no");
+        return assessmentEventBroadcaster.subscribe(id);
+    }
+
+    @GetMapping("/{id}/diff")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getAssessmentDiff(@PathVariable Long id, @RequestParam Long base) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        Assessment baseAssessment = assessmentRepository.findById(base)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if both assessments belong to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())
+                || !baseAssessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+        
+        return ResponseEntity.ok(assessmentDiffService.diff(base, id));
     }
 
     @DeleteMapping("/{id}")
@@ -227,141 +301,61 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to delete this assessment."));
         }
         
-        assessmentRepository.delete(assessment);
+        assessmentWriter.delete(assessment);
         
         return ResponseEntity.ok(new MessageResponse("Assessment deleted successfully!"));
     }
 
     @GetMapping("/template")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<AssessmentDto> getAssessmentTemplate() {
-        List<Chapter> chapters = chapterRepository.findAllByOrderByOrderNumberAsc();
-        
-        AssessmentDto template = new AssessmentDto();
-        template.setId(null);
-        template.setName("");
-        template.setDescription("");
-        template.setStatus("DRAFT");
-        
-        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>();
-        for (Chapter chapter : chapters) {
-            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
-            chapterDto.setId(chapter.getId());
-            chapterDto.setName(chapter.getName());
-            chapterDto.setDescription(chapter.getDescription());
-            chapterDto.setOrderNumber(chapter.getOrderNumber());
-            
-            List<Area> areas = areaRepository.findByChapterOrderByOrderNumberAsc(chapter);
-            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>();
-            
-            for (Area area : areas) {
-                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
-                areaDto.setId(area.getId());
-                areaDto.setName(area.getName());
-                areaDto.setDescription(area.getDescription());
-                areaDto.setOrderNumber(area.getOrderNumber());
-                areaDto.setScore("");
-                areaDto.setComment("");
-                
-                List<Requirement> requirements = requirementRepository.findByAreaOrderByOrderNumberAsc(area);
-                List<AssessmentDto.RequirementDto> reqDtos = new ArrayList<>();
-                
-                for (Requirement req : requirements) {
-                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
-                    reqDto.setId(req.getId());
-                    reqDto.setText(req.getText());
-                    reqDto.setOrderNumber(req.getOrderNumber());
-                    reqDto.setValue("");
-                    reqDto.setComment("");
-                    reqDtos.add(reqDto);
-                }
-                
-                areaDto.setRequirements(reqDtos);
-                areaDtos.add(areaDto);
-            }
-            
-            chapterDto.setAreas(areaDtos);
-            chapterDtos.add(chapterDto);
-        }
+    public ResponseEntity<byte[]> getAssessmentTemplate(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TemplateRenderer.RenderedTemplate template = templateRenderer.getTemplate();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = gzip ? template.getGzipETag() : template.getIdentityETag();
         
-        template.setChapters(chapterDtos);
+        if (template.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(CompactAssessmentDto.CATALOG_VERSION_HEADER, template.getCatalogHash())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
         
-        return ResponseEntity.ok(template);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .header(CompactAssessmentDto.CATALOG_VERSION_HEADER, template.getCatalogHash())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(template.getGzip());
+        }
+        return response.body(template.getIdentity());
     }
 
-    private AssessmentDto convertToDto(Assessment assessment) {
-        AssessmentDto dto = new AssessmentDto();
-        dto.setId(assessment.getId());
-        dto.setName(assessment.getName());
-        dto.setDescription(assessment.getDescription());
-        dto.setStatus(assessment.getStatus());
-        dto.setCreatedAt(assessment.getCreatedAt());
-        dto.setUpdatedAt(assessment.getUpdatedAt());
-        
-        List<Chapter> chapters = chapterRepository.findAllByOrderByOrderNumberAsc();
-        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>();
-        
-        for (Chapter chapter : chapters) {
-            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
-            chapterDto.setId(chapter.getId());
-            chapterDto.setName(chapter.getName());
-            chapterDto.setDescription(chapter.getDescription());
-            chapterDto.setOrderNumber(chapter.getOrderNumber());
-            
-            List<Area> areas = areaRepository.findByChapterOrderByOrderNumberAsc(chapter);
-            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>();
-            
-            for (Area area : areas) {
-                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
-                areaDto.setId(area.getId());
-                areaDto.setName(area.getName());
-                areaDto.setDescription(area.getDescription());
-                areaDto.setOrderNumber(area.getOrderNumber());
-                
-                // Get area score if exists
-                Optional<AreaScore> areaScoreOpt = areaScoreRepository.findByAssessmentIdAndAreaId(assessment.getId(), area.getId());
-                if (areaScoreOpt.isPresent()) {
-                    AreaScore areaScore = areaScoreOpt.get();
-                    areaDto.setScore(areaScore.getScore());
-                    areaDto.setComment(areaScore.getComment());
-                } else {
-                    areaDto.setScore("");
-                    areaDto.setComment("");
-                }
-                
-                List<Requirement> requirements = requirementRepository.findByAreaOrderByOrderNumberAsc(area);
-                List<AssessmentDto.RequirementDto> reqDtos = new ArrayList<>();
-                
-                for (Requirement req : requirements) {
-                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
-                    reqDto.setId(req.getId());
-                    reqDto.setText(req.getText());
-                    reqDto.setOrderNumber(req.getOrderNumber());
-                    
-                    // Get response if exists
-                    Optional<Response> responseOpt = responseRepository.findByAssessmentIdAndRequirementId(assessment.getId(), req.getId());
-                    if (responseOpt.isPresent()) {
-                        Response response = responseOpt.get();
-                        reqDto.setValue(response.getValue());
-                        reqDto.setComment(response.getComment());
-                    } else {
-                        reqDto.setValue("");
-                        reqDto.setComment("");
-                    }
-                    
-                    reqDtos.add(reqDto);
-                }
-                
-                areaDto.setRequirements(reqDtos);
-                areaDtos.add(areaDto);
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
             }
-            
-            chapterDto.setAreas(areaDtos);
-            chapterDtos.add(chapterDto);
         }
-        
-        dto.setChapters(chapterDtos);
-        
-        return dto;
+        return false;
+    }
+
+    private ResponseEntity<CompactAssessmentDto> compact(Assessment assessment) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CompactAssessmentDto.MEDIA_TYPE))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(assessmentLoader.loadCompact(assessment));
+    }
+
+    private AssessmentDto convertToDto(Assessment assessment) {
+        return assessmentLoader.load(assessment);
     }
 }
@@ -4,25 +4,33 @@ import com.rodoassessment.gdprassessmentpanel.dto.JwtResponse;
 import com.rodoassessment.gdprassessmentpanel.dto.LoginRequest;
 import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
 import com.rodoassessment.gdprassessmentpanel.dto.SignupRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.TokenRefreshRequest;
 import com.rodoassessment.gdprassessmentpanel.model.Role;
 import com.rodoassessment.gdprassessmentpanel.model.User;
 import com.rodoassessment.gdprassessmentpanel.repository.RoleRepository;
 import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
 import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.RefreshTokenService;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -44,25 +52,67 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    @Qualifier("passwordExecutor")
+    Executor passwordExecutor;
+
+    // BCrypt deliberately costs tens of milliseconds of CPU, so sign-ins run on their own bounded pool
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        try {
+            return CompletableFuture.supplyAsync(() -> signIn(loginRequest), passwordExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageResponse("Error: Too many sign-in attempts, please try again.")));
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        if (rotation == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: Refresh token is invalid or expired."));
+        }
+        
+        return ResponseEntity.ok(jwtResponse(rotation.getUser(), rotation.getRefreshToken()));
+    }
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    @PostMapping("/signout")
+    public ResponseEntity<?> signOut(@Valid @RequestBody TokenRefreshRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        return ResponseEntity.ok(new MessageResponse("Signed out successfully!"));
+    }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Error: Unauthorized"));
+        }
         
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(jwtResponse(userDetails, refreshTokenService.issue(userDetails.getId())));
+    }
+
+    private JwtResponse jwtResponse(UserDetailsImpl userDetails, String refreshToken) {
+        String jwt = jwtUtils.generateJwtToken(userDetails);
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(item -> item.getAuthority())
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                                                 userDetails.getId(), 
-                                                 userDetails.getUsername(), 
-                                                 userDetails.getEmail(), 
-                                                 roles));
+        return new JwtResponse(jwt,
+                               refreshToken,
+                               userDetails.getId(), 
+                               userDetails.getUsername(), 
+                               userDetails.getEmail(), 
+                               roles);
     }
 
     @PostMapping("/signup")
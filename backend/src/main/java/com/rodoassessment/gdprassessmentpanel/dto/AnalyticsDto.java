@@ -0,0 +1,41 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDto {
+    private String catalogVersion;
+    private long assessments;
+    private long rowsScanned;
+    private long elapsedMs;
+    private List<AreaDistributionDto> areas = new ArrayList<>();
+    private List<RequirementDistributionDto> requirements = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaDistributionDto {
+        private Long areaId;
+        private Long chapterId;
+        private String name;
+        private Map<String, Integer> scores = new LinkedHashMap<>();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequirementDistributionDto {
+        private Long requirementId;
+        private Long areaId;
+        private Map<String, Integer> values = new LinkedHashMap<>();
+    }
+}
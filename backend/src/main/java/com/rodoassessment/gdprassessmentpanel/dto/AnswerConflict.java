@@ -0,0 +1,29 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change that was not applied because the field was modified after the writer's base version.
+ * The current* fields carry what is stored now, so the client can keep it or resend on top of it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerConflict {
+    public static final String KIND_RESPONSE = "RESPONSE";
+    public static final String KIND_AREA = "AREA";
+    public static final String KIND_NAME = "NAME";
+    public static final String KIND_DESCRIPTION = "DESCRIPTION";
+    public static final String KIND_STATUS = "STATUS";
+
+    private String kind;
+    private Long id;
+    private String value;
+    private String comment;
+    private Long version;
+    private String currentValue;
+    private String currentComment;
+    private Long currentVersion;
+}
@@ -0,0 +1,16 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerPatchRequest {
+    private List<ResponseChange> responses = new ArrayList<>();
+    private List<AreaScoreChange> areaScores = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerPatchResponse {
+    private Long assessmentId;
+    private LocalDateTime updatedAt;
+    private List<ResponseChange> responses = new ArrayList<>();
+    private List<AreaScoreChange> areaScores = new ArrayList<>();
+    private List<AnswerConflict> conflicts = new ArrayList<>();
+}
@@ -0,0 +1,27 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An area score as sent or written, with the base of a change as in {@link ResponseChange}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaScoreChange {
+    private Long areaId;
+    private String score;
+    private String comment;
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseScore;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseComment;
+
+    public AreaScoreChange(Long areaId, String score, String comment, Long version) {
+        this(areaId, score, comment, version, null, null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data of a server-sent event about one assessment: the answers written by one save with their new versions,
+ * and the header fields when they changed too (absent otherwise).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssessmentChangeEvent {
+    private Long assessmentId;
+    private LocalDateTime updatedAt;
+    private String name;
+    private String description;
+    private String status;
+    private Long version;
+    private Long nameVersion;
+    private Long descriptionVersion;
+    private Long statusVersion;
+    private List<ResponseChange> responses = new ArrayList<>();
+    private List<AreaScoreChange> areaScores = new ArrayList<>();
+}
@@ -0,0 +1,45 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentDiffDto {
+    private Long baseAssessmentId;
+    private Long assessmentId;
+    private String catalogVersion;
+    private List<AreaDiffDto> areas = new ArrayList<>();
+    private List<RequirementDiffDto> requirements = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaDiffDto {
+        private Long id;
+        private Long chapterId;
+        private String name;
+        private String baseScore;
+        private String baseComment;
+        private String score;
+        private String comment;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequirementDiffDto {
+        private Long id;
+        private Long areaId;
+        private String text;
+        private String baseValue;
+        private String baseComment;
+        private String value;
+        private String comment;
+    }
+}
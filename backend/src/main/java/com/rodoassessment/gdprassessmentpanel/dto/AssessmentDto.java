@@ -1,5 +1,6 @@
 package com.rodoassessment.gdprassessmentpanel.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +17,17 @@ public class AssessmentDto {
     private String name;
     private String description;
     private String status;
+    private Long version;
+    private Long nameVersion;
+    private Long descriptionVersion;
+    private Long statusVersion;
+    // Sent on PUT: the header as the client read it, see ResponseChange
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseDescription;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseStatus;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<ChapterDto> chapters = new ArrayList<>();
@@ -41,6 +53,11 @@ public class AssessmentDto {
         private Integer orderNumber;
         private String score;
         private String comment;
+        private Long version;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String baseScore;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String baseComment;
         private List<RequirementDto> requirements = new ArrayList<>();
     }
     
@@ -53,5 +70,10 @@ public class AssessmentDto {
         private Integer orderNumber;
         private String value;
         private String comment;
+        private Long version;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String baseValue;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String baseComment;
     }
 }
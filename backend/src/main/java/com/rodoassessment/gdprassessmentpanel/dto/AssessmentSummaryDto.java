@@ -0,0 +1,22 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentSummaryDto {
+    private Long id;
+    private String name;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private int answeredRequirements;
+    private int totalRequirements;
+    private int scoredAreas;
+    private int totalAreas;
+}
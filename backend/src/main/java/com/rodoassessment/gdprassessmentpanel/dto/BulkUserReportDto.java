@@ -0,0 +1,34 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserReportDto {
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+    
+    private int received;
+    private int created;
+    private int failed;
+    private long elapsedMs;
+    private List<UserResultDto> results = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserResultDto {
+        // Position of the user in the request
+        private int index;
+        private String username;
+        private String status;
+        private Long id;
+        private List<String> messages = new ArrayList<>();
+    }
+}
@@ -0,0 +1,16 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+    // Validated one by one, so an invalid user is reported without rejecting the others
+    private List<SignupRequest> users = new ArrayList<>();
+}
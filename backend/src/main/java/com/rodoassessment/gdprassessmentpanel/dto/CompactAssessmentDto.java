@@ -0,0 +1,78 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Assessment without the questionnaire: the header, the catalog version the answers refer to and only the
+ * given answers, keyed by requirement and area id. The catalog version is a hash of the catalog content, so
+ * it only changes with the questionnaire itself. Clients combine it with the cached template of the same
+ * catalog version, and fetch the template again (a conditional GET) when the versions differ. Exchanged as
+ * {@link #MEDIA_TYPE} on GET and PUT of an assessment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactAssessmentDto {
+    public static final String MEDIA_TYPE = "application/vnd.rodo.assessment-compact+json";
+    // Catalog version of the template, sent with GET /api/assessments/template
+    public static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    
+    private Long id;
+    private String name;
+    private String description;
+    private String status;
+    private Long version;
+    private Long nameVersion;
+    private Long descriptionVersion;
+    private Long statusVersion;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseDescription;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseStatus;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String catalogVersion;
+    private Map<Long, ResponseEntry> responses = new LinkedHashMap<>();
+    private Map<Long, AreaScoreEntry> areaScores = new LinkedHashMap<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class ResponseEntry {
+        private String value;
+        private String comment;
+        private Long version;
+        private String baseValue;
+        private String baseComment;
+
+        public ResponseEntry(String value, String comment, Long version) {
+            this(value, comment, version, null, null);
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class AreaScoreEntry {
+        private String score;
+        private String comment;
+        private Long version;
+        private String baseScore;
+        private String baseComment;
+
+        public AreaScoreEntry(String score, String comment, Long version) {
+            this(score, comment, version, null, null);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplianceSummaryDto {
+    private Long assessmentId;
+    private int totalRequirements;
+    private int totalAreas;
+    private Map<String, Integer> responses = new LinkedHashMap<>();
+    private Map<String, Integer> areaScores = new LinkedHashMap<>();
+    private List<ChapterSummaryDto> chapters = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChapterSummaryDto {
+        private Long chapterId;
+        private String name;
+        private int totalRequirements;
+        private int totalAreas;
+        private Map<String, Integer> responses = new LinkedHashMap<>();
+        private Map<String, Integer> areaScores = new LinkedHashMap<>();
+    }
+}
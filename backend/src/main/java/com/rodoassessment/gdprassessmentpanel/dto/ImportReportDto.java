@@ -0,0 +1,33 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+    private int received;
+    private int imported;
+    private int failed;
+    private int responses;
+    private int areaScores;
+    private long elapsedMs;
+    private double assessmentsPerSecond;
+    private boolean errorsTruncated;
+    private List<ImportErrorDto> errors = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportErrorDto {
+        private int record;
+        private long line;
+        private String name;
+        private List<String> messages = new ArrayList<>();
+    }
+}
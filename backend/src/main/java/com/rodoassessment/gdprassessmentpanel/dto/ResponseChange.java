@@ -0,0 +1,28 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A response as sent or written. In a request {@code version} is the version the change was based on and
+ * {@code baseValue} / {@code baseComment}, when sent, the answer as the client read it at that version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseChange {
+    private Long requirementId;
+    private String value;
+    private String comment;
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseValue;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String baseComment;
+
+    public ResponseChange(Long requirementId, String value, String comment, Long version) {
+        this(requirementId, value, comment, version, null, null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private String query;
+    private List<RequirementHit> requirements = new ArrayList<>();
+    private List<AssessmentHit> assessments = new ArrayList<>();
+    private List<CommentHit> comments = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequirementHit {
+        private Long id;
+        private Long areaId;
+        private String text;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AssessmentHit {
+        private Long id;
+        private String name;
+        private String description;
+        private String status;
+        private LocalDateTime updatedAt;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CommentHit {
+        private Long assessmentId;
+        private String assessmentName;
+        // RESPONSE (id of the requirement) or AREA (id of the area)
+        private String kind;
+        private Long id;
+        private String comment;
+    }
+}
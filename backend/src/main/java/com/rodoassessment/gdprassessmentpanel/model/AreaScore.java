@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "area_scores")
+@Table(name = "area_scores",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"assessment_id", "area_id"}))
 public class AreaScore {
     
     @Id
@@ -31,6 +32,10 @@ public class AreaScore {
     
     private String comment;
     
+    // Starts at 1 and is bumped by AnswerBatchRepository on every change of value or comment
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null default 1")
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
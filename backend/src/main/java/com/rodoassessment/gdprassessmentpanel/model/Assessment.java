@@ -28,10 +28,26 @@ public class Assessment {
     @Column(nullable = false)
     private String status;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // Compare-and-set by AnswerBatchRepository.updateMetadata, never by a dirty-checking flush
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+    
+    // Versions of the single header fields, so concurrent changes of different fields merge
+    @Column(name = "name_version", nullable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long nameVersion;
+    
+    @Column(name = "description_version", nullable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private Long descriptionVersion;
+    
+    @Column(name = "status_version", nullable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private Long statusVersion;
+    
     @OneToMany(mappedBy = "assessment", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Response> responses = new ArrayList<>();
     
@@ -46,6 +62,10 @@ public class Assessment {
     
     @PrePersist
     protected void onCreate() {
+        version = 0L;
+        nameVersion = 0L;
+        descriptionVersion = 0L;
+        statusVersion = 0L;
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
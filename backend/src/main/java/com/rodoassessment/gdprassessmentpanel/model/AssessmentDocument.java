@@ -0,0 +1,36 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * All answers of one assessment as a single JSONB document, used when {@code app.storage.mode=document}.
+ * Read and written through AnswerDocumentRepository; mapped here so the schema is created alongside the others.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "assessment_documents")
+public class AssessmentDocument {
+    
+    @Id
+    @Column(name = "assessment_id")
+    private Long assessmentId;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String answers;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
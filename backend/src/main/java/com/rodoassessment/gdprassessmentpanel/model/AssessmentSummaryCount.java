@@ -0,0 +1,38 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "assessment_summary_counts",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"assessment_id", "kind", "chapter_id", "value"}))
+public class AssessmentSummaryCount {
+    
+    public static final String KIND_RESPONSE = "RESPONSE";
+    
+    public static final String KIND_AREA = "AREA";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "assessment_id", nullable = false)
+    private Long assessmentId;
+    
+    @Column(nullable = false, length = 20)
+    private String kind;
+    
+    @Column(name = "chapter_id", nullable = false)
+    private Long chapterId;
+    
+    @Column(nullable = false, length = 50)
+    private String value;
+    
+    @Column(nullable = false)
+    private Integer count;
+}
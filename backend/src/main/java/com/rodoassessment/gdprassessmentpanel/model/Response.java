@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "responses")
+@Table(name = "responses",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"assessment_id", "requirement_id"}))
 public class Response {
     
     @Id
@@ -31,6 +32,10 @@ public class Response {
     
     private String comment;
     
+    // Starts at 1 and is bumped by AnswerBatchRepository on every change of value or comment
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null default 1")
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -35,6 +35,12 @@ public class User {
     @Column(name = "last_name")
     private String lastName;
     
+    @Column(length = 200)
+    private String organization;
+    
+    @Column(length = 100)
+    private String position;
+    
     private boolean enabled = true;
     
     @Column(name = "created_at")
@@ -0,0 +1,110 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import com.rodoassessment.gdprassessmentpanel.config.SqlBudgetProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL statements and JDBC time of every request per endpoint and checks them against
+ * the configured statement budget. Runs ahead of the security filters so that statements issued
+ * while authenticating are part of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlBudgetProperties budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Failing after the chain would be too late, the response is already committed by then
+        boolean failFast = budget.isEnabled() && budget.isFailOnExceed();
+        SqlStatementStats stats = SqlStatementStats.start(failFast ? current -> failOverBudget(request, current) : null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.stop();
+        }
+
+        String method = request.getMethod();
+        String uri = uri(request);
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL statements per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (budget.isEnabled() && !failFast) {
+            String endpoint = method + " " + uri;
+            int limit = limit(endpoint);
+            if (limit >= 0 && stats.getStatements() > limit) {
+                exceeded(endpoint);
+                logger.warn(message(endpoint, stats, limit));
+            }
+        }
+    }
+
+    // Runs after each statement; the endpoint is known once the handler is mapped
+    private void failOverBudget(HttpServletRequest request, SqlStatementStats stats) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + uri(request);
+        int limit = limit(endpoint);
+        if (limit < 0 || stats.getStatements() <= limit) {
+            return;
+        }
+        if (stats.getStatements() == limit + 1) {
+            exceeded(endpoint);
+        }
+        throw new IllegalStateException(message(endpoint, stats, limit));
+    }
+
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private int limit(String endpoint) {
+        return budget.getEndpoints().getOrDefault(endpoint, budget.getDefaultLimit());
+    }
+
+    private void exceeded(String endpoint) {
+        meterRegistry.counter("http.server.requests.sql.budget.exceeded", "endpoint", endpoint).increment();
+    }
+
+    private String message(String endpoint, SqlStatementStats stats, int limit) {
+        return String.format("Error: %s ran %d SQL statements, budget is %d.", endpoint, stats.getStatements(), limit);
+    }
+}
@@ -0,0 +1,55 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import java.util.function.Consumer;
+
+/**
+ * Statement count and JDBC time of the request running on the current thread. Work handed to other
+ * threads (streaming exports, background workers) is not attributed to the request.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long nanos;
+
+    private final Consumer<SqlStatementStats> afterStatement;
+
+    private SqlStatementStats(Consumer<SqlStatementStats> afterStatement) {
+        this.afterStatement = afterStatement;
+    }
+
+    /**
+     * Starts counting for the current thread. {@code afterStatement} runs on the calling thread after
+     * each statement, so an exception it throws fails the request while it is still being handled.
+     */
+    public static SqlStatementStats start(Consumer<SqlStatementStats> afterStatement) {
+        SqlStatementStats stats = new SqlStatementStats(afterStatement);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(long elapsedNanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+            if (stats.afterStatement != null) {
+                stats.afterStatement.accept(stats);
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
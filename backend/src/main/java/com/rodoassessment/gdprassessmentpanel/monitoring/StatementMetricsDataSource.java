@@ -0,0 +1,107 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Times every statement execution on connections from the pool and adds it to the current
+ * request's {@link SqlStatementStats}. It sits below Hibernate and JdbcTemplate alike, so both
+ * are counted; a JDBC batch counts as one statement, as it is one round trip.
+ */
+public class StatementMetricsDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public StatementMetricsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementMetricsDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Proxies compare by identity, the way callers compare the pooled connections they hand out
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementMetricsDataSource.invoke(proxy, connection, method, args);
+            if (result instanceof Statement statement) {
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(StatementMetricsDataSource.class.getClassLoader(),
+                        new Class<?>[] {type}, new StatementHandler(statement, (Connection) proxy));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+
+        private StatementHandler(Statement statement, Connection connection) {
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return StatementMetricsDataSource.invoke(proxy, statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return StatementMetricsDataSource.invoke(proxy, statement, method, args);
+            } finally {
+                SqlStatementStats.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import com.rodoassessment.gdprassessmentpanel.config.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Counts virtual threads that stay pinned to their carrier (blocking inside synchronized code or a
+ * native frame) for longer than a threshold, using the JFR {@code jdk.VirtualThreadPinned} event.
+ * A growing {@code jvm.threads.virtual.pinned} count points at code that should use a
+ * {@code ReentrantLock}; the logged frame shows where.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.virtual-threads.pinned-threshold:PT0.02S}")
+    private Duration threshold;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !VirtualThreads.isSupported()) {
+            return;
+        }
+
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+        Timer pinnedTime = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent pinned to their carrier")
+                .register(meterRegistry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            pinnedTime.record(event.getDuration());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrame(event));
+            }
+        });
+        stream.startAsync();
+        logger.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+}
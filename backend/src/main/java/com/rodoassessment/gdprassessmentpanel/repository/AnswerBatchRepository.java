@@ -0,0 +1,265 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes responses, area scores and assessment metadata with optimistic version checks instead of
+ * row locks taken up front. Updates are compare-and-set on the version the caller read and inserts
+ * skip rows another writer created first; both report which rows were actually written, so the
+ * caller can re-read and retry or report a conflict for the rest. Callers pass at most one change
+ * per requirement or area, sorted by id, so concurrent writers lock rows in the same order.
+ */
+@Repository
+public class AnswerBatchRepository {
+
+    static final String UPDATE_RESPONSE =
+            "UPDATE responses SET value = ?, comment = ?, version = version + 1, updated_at = ? " +
+            "WHERE assessment_id = ? AND requirement_id = ? AND version = ?";
+
+    private static final String UPDATE_AREA_SCORE =
+            "UPDATE area_scores SET score = ?, comment = ?, version = version + 1, updated_at = ? " +
+            "WHERE assessment_id = ? AND area_id = ? AND version = ?";
+
+    private static final String INSERT_RESPONSES =
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment, version, created_at, updated_at) " +
+            "SELECT ?, c.id, c.value, c.comment, 1, ?, ? " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::text[]) AS c(id, value, comment) ORDER BY c.id " +
+            "ON CONFLICT (assessment_id, requirement_id) DO NOTHING RETURNING requirement_id";
+
+    private static final String INSERT_AREA_SCORES =
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment, version, created_at, updated_at) " +
+            "SELECT ?, c.id, c.score, c.comment, 1, ?, ? " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::text[]) AS c(id, score, comment) ORDER BY c.id " +
+            "ON CONFLICT (assessment_id, area_id) DO NOTHING RETURNING area_id";
+
+    static final String SELECT_RESPONSES =
+            "SELECT requirement_id, value, comment, version FROM responses " +
+            "WHERE assessment_id = ? AND requirement_id = ANY (?)";
+
+    static final String SELECT_AREA_SCORES =
+            "SELECT area_id, score, comment, version FROM area_scores WHERE assessment_id = ? AND area_id = ANY (?)";
+
+    static final String SELECT_METADATA =
+            "SELECT name, description, status, version, updated_at, name_version, description_version, status_version " +
+            "FROM assessments WHERE id = ?";
+
+    private static final String UPDATE_METADATA =
+            "UPDATE assessments SET name = ?, name_version = ?, description = ?, description_version = ?, " +
+            "status = ?, status_version = ?, version = version + 1, updated_at = ? WHERE id = ? AND version = ?";
+
+    private static final String TOUCH_ASSESSMENT = "UPDATE assessments SET updated_at = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public static final class StoredMetadata {
+        private final String name;
+        private final String description;
+        private final String status;
+        private final long version;
+        private final LocalDateTime updatedAt;
+        private final long nameVersion;
+        private final long descriptionVersion;
+        private final long statusVersion;
+
+        private StoredMetadata(String name, String description, String status, long version,
+                               LocalDateTime updatedAt, long nameVersion, long descriptionVersion,
+                               long statusVersion) {
+            this.name = name;
+            this.description = description;
+            this.status = status;
+            this.version = version;
+            this.updatedAt = updatedAt;
+            this.nameVersion = nameVersion;
+            this.descriptionVersion = descriptionVersion;
+            this.statusVersion = statusVersion;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public long getNameVersion() {
+            return nameVersion;
+        }
+
+        public long getDescriptionVersion() {
+            return descriptionVersion;
+        }
+
+        public long getStatusVersion() {
+            return statusVersion;
+        }
+    }
+
+    public void touchAssessment(Long assessmentId, LocalDateTime now) {
+        jdbcTemplate.update(TOUCH_ASSESSMENT, Timestamp.valueOf(now), assessmentId);
+    }
+
+    public StoredMetadata findMetadata(Long assessmentId) {
+        List<StoredMetadata> rows = jdbcTemplate.query(SELECT_METADATA, (rs, rowNum) -> new StoredMetadata(
+                rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4),
+                rs.getObject(5, LocalDateTime.class), rs.getLong(6), rs.getLong(7), rs.getLong(8)), assessmentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Writes the header fields with their versions if the assessment still has the given version, which
+     * every header change increments.
+     */
+    public boolean updateMetadata(Long assessmentId, long version, String name, long nameVersion,
+                                  String description, long descriptionVersion, String status, long statusVersion,
+                                  LocalDateTime now) {
+        return jdbcTemplate.update(UPDATE_METADATA, name, nameVersion, description, descriptionVersion,
+                status, statusVersion, Timestamp.valueOf(now), assessmentId, version) == 1;
+    }
+
+    public Map<Long, StoredAnswer> findResponses(Long assessmentId, Collection<Long> requirementIds) {
+        return findAnswers(SELECT_RESPONSES, assessmentId, requirementIds);
+    }
+
+    public Map<Long, StoredAnswer> findAreaScores(Long assessmentId, Collection<Long> areaIds) {
+        return findAnswers(SELECT_AREA_SCORES, assessmentId, areaIds);
+    }
+
+    private Map<Long, StoredAnswer> findAnswers(String sql, Long assessmentId, Collection<Long> ids) {
+        Map<Long, StoredAnswer> answers = new HashMap<>();
+        if (ids.isEmpty()) {
+            return answers;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setLong(1, assessmentId);
+            statement.setArray(2, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> answers.put(rs.getLong(1),
+                new StoredAnswer(rs.getString(2), rs.getString(3), rs.getLong(4))));
+        return answers;
+    }
+
+    /**
+     * Applies each change whose row still has the change's version, which is the version the caller read.
+     * Returns the requirement ids that were written.
+     */
+    public Set<Long> updateResponses(Long assessmentId, List<ResponseChange> changes, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> batch = new ArrayList<>(changes.size());
+        for (ResponseChange change : changes) {
+            batch.add(new Object[] {change.getValue(), change.getComment(), timestamp,
+                    assessmentId, change.getRequirementId(), change.getVersion()});
+        }
+        int[] counts = update(UPDATE_RESPONSE, batch);
+        Set<Long> updated = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated.add(changes.get(i).getRequirementId());
+            }
+        }
+        return updated;
+    }
+
+    public Set<Long> updateAreaScores(Long assessmentId, List<AreaScoreChange> changes, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> batch = new ArrayList<>(changes.size());
+        for (AreaScoreChange change : changes) {
+            batch.add(new Object[] {change.getScore(), change.getComment(), timestamp,
+                    assessmentId, change.getAreaId(), change.getVersion()});
+        }
+        int[] counts = update(UPDATE_AREA_SCORE, batch);
+        Set<Long> updated = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated.add(changes.get(i).getAreaId());
+            }
+        }
+        return updated;
+    }
+
+    private int[] update(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    /**
+     * Inserts rows for requirements that had no response yet, at version 1. Returns the requirement ids
+     * that were inserted; the others were created by a concurrent writer in the meantime.
+     */
+    public Set<Long> insertResponses(Long assessmentId, List<ResponseChange> changes, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(changes.size());
+        List<String> values = new ArrayList<>(changes.size());
+        List<String> comments = new ArrayList<>(changes.size());
+        for (ResponseChange change : changes) {
+            ids.add(change.getRequirementId());
+            values.add(change.getValue());
+            comments.add(change.getComment());
+        }
+        return insert(INSERT_RESPONSES, assessmentId, ids, values, comments, now);
+    }
+
+    public Set<Long> insertAreaScores(Long assessmentId, List<AreaScoreChange> changes, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(changes.size());
+        List<String> scores = new ArrayList<>(changes.size());
+        List<String> comments = new ArrayList<>(changes.size());
+        for (AreaScoreChange change : changes) {
+            ids.add(change.getAreaId());
+            scores.add(change.getScore());
+            comments.add(change.getComment());
+        }
+        return insert(INSERT_AREA_SCORES, assessmentId, ids, scores, comments, now);
+    }
+
+    // One statement per table: with reWriteBatchedInserts a batch would not report which rows were skipped
+    private Set<Long> insert(String sql, Long assessmentId, List<Long> ids, List<String> values,
+                             List<String> comments, LocalDateTime now) {
+        Set<Long> inserted = new HashSet<>();
+        if (ids.isEmpty()) {
+            return inserted;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setLong(1, assessmentId);
+            statement.setTimestamp(2, timestamp);
+            statement.setTimestamp(3, timestamp);
+            statement.setArray(4, connection.createArrayOf("bigint", ids.toArray()));
+            statement.setArray(5, connection.createArrayOf("varchar", values.toArray()));
+            statement.setArray(6, connection.createArrayOf("text", comments.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> inserted.add(rs.getLong(1)));
+        return inserted;
+    }
+}
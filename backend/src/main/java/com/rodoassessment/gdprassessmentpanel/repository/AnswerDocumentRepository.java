@@ -0,0 +1,164 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes assessment_documents, one JSONB document with all answers per assessment, and moves
+ * answers between this table and the responses/area_scores rows when the storage mode changes.
+ * Documents are replaced whole with a compare-and-set on the document version.
+ */
+@Repository
+public class AnswerDocumentRepository {
+
+    static final String SELECT_DOCUMENT =
+            "SELECT answers::text, version FROM assessment_documents WHERE assessment_id = ?";
+
+    private static final String INSERT_DOCUMENT =
+            "INSERT INTO assessment_documents (assessment_id, answers, version, updated_at) " +
+            "VALUES (?, ?::jsonb, 0, ?) ON CONFLICT (assessment_id) DO NOTHING";
+
+    private static final String UPDATE_DOCUMENT =
+            "UPDATE assessment_documents SET answers = ?::jsonb, version = version + 1, updated_at = ? " +
+            "WHERE assessment_id = ? AND version = ?";
+
+    private static final String DELETE_DOCUMENT = "DELETE FROM assessment_documents WHERE assessment_id = ?";
+
+    private static final String SELECT_WITHOUT_DOCUMENT =
+            "SELECT a.id FROM assessments a WHERE a.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM assessment_documents d WHERE d.assessment_id = a.id) " +
+            "ORDER BY a.id LIMIT ?";
+
+    private static final String SELECT_WITH_DOCUMENT =
+            "SELECT assessment_id FROM assessment_documents ORDER BY assessment_id LIMIT ?";
+
+    private static final String ROWS_TO_DOCUMENTS =
+            "INSERT INTO assessment_documents (assessment_id, answers, version, updated_at) " +
+            "SELECT a.id, jsonb_build_object(" +
+            "'r', COALESCE((SELECT jsonb_object_agg(r.requirement_id, jsonb_strip_nulls(" +
+            "jsonb_build_object('v', r.value, 'c', r.comment, 'n', r.version))) " +
+            "FROM responses r WHERE r.assessment_id = a.id), '{}'::jsonb), " +
+            "'a', COALESCE((SELECT jsonb_object_agg(s.area_id, jsonb_strip_nulls(" +
+            "jsonb_build_object('v', s.score, 'c', s.comment, 'n', s.version))) " +
+            "FROM area_scores s WHERE s.assessment_id = a.id), '{}'::jsonb)), 0, a.updated_at " +
+            "FROM assessments a WHERE a.id = ANY (?) " +
+            "ON CONFLICT (assessment_id) DO NOTHING RETURNING assessment_id";
+
+    // Entries of catalog items deleted since the document was written have nothing to refer to and are dropped
+    private static final String DOCUMENTS_TO_RESPONSES =
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment, version, created_at, updated_at) " +
+            "SELECT d.assessment_id, q.id, e.value ->> 'v', e.value ->> 'c', " +
+            "COALESCE((e.value ->> 'n')::bigint, 1), d.updated_at, d.updated_at " +
+            "FROM assessment_documents d CROSS JOIN LATERAL jsonb_each(d.answers -> 'r') e " +
+            "JOIN requirements q ON q.id = e.key::bigint WHERE d.assessment_id = ANY (?) " +
+            "ON CONFLICT (assessment_id, requirement_id) DO UPDATE SET value = EXCLUDED.value, " +
+            "comment = EXCLUDED.comment, version = EXCLUDED.version, updated_at = EXCLUDED.updated_at";
+
+    private static final String DOCUMENTS_TO_AREA_SCORES =
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment, version, created_at, updated_at) " +
+            "SELECT d.assessment_id, ar.id, e.value ->> 'v', e.value ->> 'c', " +
+            "COALESCE((e.value ->> 'n')::bigint, 1), d.updated_at, d.updated_at " +
+            "FROM assessment_documents d CROSS JOIN LATERAL jsonb_each(d.answers -> 'a') e " +
+            "JOIN areas ar ON ar.id = e.key::bigint WHERE d.assessment_id = ANY (?) " +
+            "ON CONFLICT (assessment_id, area_id) DO UPDATE SET score = EXCLUDED.score, " +
+            "comment = EXCLUDED.comment, version = EXCLUDED.version, updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_RESPONSES = "DELETE FROM responses WHERE assessment_id = ANY (?)";
+
+    private static final String DELETE_AREA_SCORES = "DELETE FROM area_scores WHERE assessment_id = ANY (?)";
+
+    private static final String DELETE_DOCUMENTS = "DELETE FROM assessment_documents WHERE assessment_id = ANY (?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public static final class StoredDocument {
+        private final String answers;
+        private final long version;
+
+        public StoredDocument(String answers, long version) {
+            this.answers = answers;
+            this.version = version;
+        }
+
+        public String getAnswers() {
+            return answers;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public StoredDocument find(Long assessmentId) {
+        List<StoredDocument> rows = jdbcTemplate.query(SELECT_DOCUMENT,
+                (rs, rowNum) -> new StoredDocument(rs.getString(1), rs.getLong(2)), assessmentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public boolean insert(Long assessmentId, String answers, LocalDateTime now) {
+        return jdbcTemplate.update(INSERT_DOCUMENT, assessmentId, answers, Timestamp.valueOf(now)) == 1;
+    }
+
+    public boolean update(Long assessmentId, String answers, long version, LocalDateTime now) {
+        return jdbcTemplate.update(UPDATE_DOCUMENT, answers, Timestamp.valueOf(now), assessmentId, version) == 1;
+    }
+
+    // Rows of assessment id, answers JSON and update time
+    public void insertAll(List<Object[]> documents) {
+        if (!documents.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DOCUMENT, documents);
+        }
+    }
+
+    public void delete(Long assessmentId) {
+        jdbcTemplate.update(DELETE_DOCUMENT, assessmentId);
+    }
+
+    public List<Long> findAssessmentsWithoutDocument(long afterId, int limit) {
+        return jdbcTemplate.queryForList(SELECT_WITHOUT_DOCUMENT, Long.class, afterId, limit);
+    }
+
+    public List<Long> findAssessmentsWithDocument(int limit) {
+        return jdbcTemplate.queryForList(SELECT_WITH_DOCUMENT, Long.class, limit);
+    }
+
+    /** Builds documents from the rows of the given assessments and deletes the rows that were moved. */
+    public int moveRowsToDocuments(Collection<Long> assessmentIds) {
+        List<Long> moved = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ROWS_TO_DOCUMENTS);
+            statement.setArray(1, connection.createArrayOf("bigint", assessmentIds.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> moved.add(rs.getLong(1)));
+        if (!moved.isEmpty()) {
+            updateByIds(DELETE_RESPONSES, moved);
+            updateByIds(DELETE_AREA_SCORES, moved);
+        }
+        return moved.size();
+    }
+
+    /** Writes the documents of the given assessments back as rows and deletes the documents. */
+    public int moveDocumentsToRows(Collection<Long> assessmentIds) {
+        updateByIds(DOCUMENTS_TO_RESPONSES, assessmentIds);
+        updateByIds(DOCUMENTS_TO_AREA_SCORES, assessmentIds);
+        return updateByIds(DELETE_DOCUMENTS, assessmentIds);
+    }
+
+    private int updateByIds(String sql, Collection<Long> ids) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        });
+    }
+}
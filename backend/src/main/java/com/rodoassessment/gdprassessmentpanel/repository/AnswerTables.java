@@ -0,0 +1,56 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names the relations that hold answers in the configured storage mode, for queries that read answers of
+ * many assessments at once. In rows mode these are the responses and area_scores tables; in document mode
+ * they are the entries of the assessment_documents JSONB documents, expanded to the same columns.
+ */
+@Component
+public class AnswerTables {
+
+    public static final String MODE_ROWS = "rows";
+
+    public static final String MODE_DOCUMENT = "document";
+
+    private static final String DOCUMENT_RESPONSES =
+            "(SELECT d.assessment_id, e.key::bigint AS requirement_id, e.value ->> 'v' AS value, " +
+            "e.value ->> 'c' AS comment FROM assessment_documents d " +
+            "CROSS JOIN LATERAL jsonb_each(d.answers -> 'r') e)";
+
+    private static final String DOCUMENT_AREA_SCORES =
+            "(SELECT d.assessment_id, e.key::bigint AS area_id, e.value ->> 'v' AS score, " +
+            "e.value ->> 'c' AS comment FROM assessment_documents d " +
+            "CROSS JOIN LATERAL jsonb_each(d.answers -> 'a') e)";
+
+    @Value("${app.storage.mode:rows}")
+    private String mode;
+
+    @PostConstruct
+    public void init() {
+        if (!MODE_ROWS.equals(mode) && !MODE_DOCUMENT.equals(mode)) {
+            throw new IllegalStateException("Error: Unknown app.storage.mode '" + mode + "'.");
+        }
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public boolean isDocumentMode() {
+        return MODE_DOCUMENT.equals(mode);
+    }
+
+    // Columns: assessment_id, requirement_id, value, comment
+    public String responses() {
+        return isDocumentMode() ? DOCUMENT_RESPONSES : "responses";
+    }
+
+    // Columns: assessment_id, area_id, score, comment
+    public String areaScores() {
+        return isDocumentMode() ? DOCUMENT_AREA_SCORES : "area_scores";
+    }
+}
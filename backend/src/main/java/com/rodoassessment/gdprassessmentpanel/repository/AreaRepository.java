@@ -13,4 +13,6 @@ public interface AreaRepository extends JpaRepository<Area, Long> {
     List<Area> findByChapter(Chapter chapter);
     
     List<Area> findByChapterOrderByOrderNumberAsc(Chapter chapter);
+    
+    List<Area> findAllByOrderByOrderNumberAsc();
 }
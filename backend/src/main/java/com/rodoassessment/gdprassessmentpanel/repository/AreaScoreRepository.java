@@ -3,7 +3,10 @@ package com.rodoassessment.gdprassessmentpanel.repository;
 import com.rodoassessment.gdprassessmentpanel.model.Area;
 import com.rodoassessment.gdprassessmentpanel.model.AreaScore;
 import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.AreaScoreView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +22,8 @@ public interface AreaScoreRepository extends JpaRepository<AreaScore, Long> {
     Optional<AreaScore> findByAssessmentIdAndAreaId(Long assessmentId, Long areaId);
     
     List<AreaScore> findByScore(String score);
+    
+    @Query("select s.area.id as areaId, s.score as score, s.comment as comment, s.version as version " +
+           "from AreaScore s where s.assessment.id = :assessmentId")
+    List<AreaScoreView> findViewsByAssessmentId(@Param("assessmentId") Long assessmentId);
 }
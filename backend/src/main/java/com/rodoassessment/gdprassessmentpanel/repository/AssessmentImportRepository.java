@@ -0,0 +1,53 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Plain batched inserts for bulk imports. Assessment ids are taken from the serial sequence up
+ * front so that answer rows can reference them within the same batch round trip.
+ */
+@Repository
+public class AssessmentImportRepository {
+
+    private static final String NEXT_IDS =
+            "SELECT nextval(pg_get_serial_sequence('assessments', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_ASSESSMENT =
+            "INSERT INTO assessments (id, name, description, status, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RESPONSE =
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_AREA_SCORE =
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<Long> nextAssessmentIds(int count) {
+        return jdbcTemplate.queryForList(NEXT_IDS, Long.class, count);
+    }
+
+    public void insertAssessments(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_ASSESSMENT, rows);
+    }
+
+    public void insertResponses(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RESPONSE, rows);
+        }
+    }
+
+    public void insertAreaScores(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_AREA_SCORE, rows);
+        }
+    }
+}
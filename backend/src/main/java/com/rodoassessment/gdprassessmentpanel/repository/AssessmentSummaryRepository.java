@@ -0,0 +1,77 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentSummaryDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads assessment list rows with their answer counts in a single query, paginated by the
+ * (created_at, id) key in descending order.
+ */
+@Repository
+public class AssessmentSummaryRepository {
+
+    private static final String SELECT_SUMMARY =
+            "SELECT a.id, a.name, a.status, a.created_at, a.updated_at, " +
+            "(SELECT count(*) FROM %s r WHERE r.assessment_id = a.id AND r.value <> '') AS answered, " +
+            "(SELECT count(*) FROM %s s WHERE s.assessment_id = a.id AND s.score <> '') AS scored " +
+            "FROM assessments a WHERE a.user_id = ? ";
+
+    static final String FIRST_PAGE =
+            SELECT_SUMMARY + "ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+
+    static final String ALL_ROWS =
+            SELECT_SUMMARY + "ORDER BY a.created_at DESC, a.id DESC";
+
+    static final String NEXT_PAGE =
+            SELECT_SUMMARY + "AND (a.created_at, a.id) < (?, ?) ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+
+    private static final RowMapper<AssessmentSummaryDto> SUMMARY_MAPPER = (rs, rowNum) -> {
+        AssessmentSummaryDto summary = new AssessmentSummaryDto();
+        summary.setId(rs.getLong("id"));
+        summary.setName(rs.getString("name"));
+        summary.setStatus(rs.getString("status"));
+        summary.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        summary.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        summary.setAnsweredRequirements(rs.getInt("answered"));
+        summary.setScoredAreas(rs.getInt("scored"));
+        return summary;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    private String firstPage;
+
+    private String nextPage;
+
+    private String allRows;
+
+    @PostConstruct
+    public void init() {
+        firstPage = String.format(FIRST_PAGE, answerTables.responses(), answerTables.areaScores());
+        nextPage = String.format(NEXT_PAGE, answerTables.responses(), answerTables.areaScores());
+        allRows = String.format(ALL_ROWS, answerTables.responses(), answerTables.areaScores());
+    }
+
+    public List<AssessmentSummaryDto> findPage(Long userId, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        if (afterCreatedAt == null || afterId == null) {
+            return jdbcTemplate.query(firstPage, SUMMARY_MAPPER, userId, limit);
+        }
+        return jdbcTemplate.query(nextPage, SUMMARY_MAPPER, userId, Timestamp.valueOf(afterCreatedAt), afterId, limit);
+    }
+
+    public List<AssessmentSummaryDto> findAll(Long userId) {
+        return jdbcTemplate.query(allRows, SUMMARY_MAPPER, userId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens by hash. A token is consumed with a single conditional update, so of two requests
+ * presenting the same token only one can rotate it; the other sees it as already used.
+ */
+@Repository
+public class RefreshTokenRepository {
+
+    private static final String INSERT_TOKEN =
+            "INSERT INTO refresh_tokens (user_id, token_hash, family_id, created_at, expires_at) VALUES (?, ?, ?, ?, ?)";
+
+    static final String CONSUME_TOKEN =
+            "UPDATE refresh_tokens SET used_at = ? WHERE token_hash = ? AND used_at IS NULL AND expires_at > ? " +
+            "RETURNING user_id, family_id";
+
+    private static final String SELECT_USED_FAMILY =
+            "SELECT family_id FROM refresh_tokens WHERE token_hash = ? AND used_at IS NOT NULL";
+
+    private static final String SELECT_FAMILY =
+            "SELECT family_id FROM refresh_tokens WHERE token_hash = ?";
+
+    static final String DELETE_FAMILY = "DELETE FROM refresh_tokens WHERE family_id = ?";
+
+    static final String DELETE_EXPIRED_FOR_USER =
+            "DELETE FROM refresh_tokens WHERE user_id = ? AND expires_at <= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insert(Long userId, String tokenHash, UUID familyId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        jdbcTemplate.update(INSERT_TOKEN, userId, tokenHash, familyId, Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(expiresAt));
+    }
+
+    /** Marks a valid unused token used and returns its user and family, or null if there is no such token. */
+    public ConsumedToken consume(String tokenHash, LocalDateTime now) {
+        List<ConsumedToken> consumed = jdbcTemplate.query(CONSUME_TOKEN,
+                (rs, rowNum) -> new ConsumedToken(rs.getLong("user_id"), rs.getObject("family_id", UUID.class)),
+                Timestamp.valueOf(now), tokenHash, Timestamp.valueOf(now));
+        return consumed.isEmpty() ? null : consumed.get(0);
+    }
+
+    public UUID findUsedFamily(String tokenHash) {
+        List<UUID> families = jdbcTemplate.queryForList(SELECT_USED_FAMILY, UUID.class, tokenHash);
+        return families.isEmpty() ? null : families.get(0);
+    }
+
+    public UUID findFamily(String tokenHash) {
+        List<UUID> families = jdbcTemplate.queryForList(SELECT_FAMILY, UUID.class, tokenHash);
+        return families.isEmpty() ? null : families.get(0);
+    }
+
+    public int deleteFamily(UUID familyId) {
+        return jdbcTemplate.update(DELETE_FAMILY, familyId);
+    }
+
+    public void deleteExpired(Long userId, LocalDateTime now) {
+        jdbcTemplate.update(DELETE_EXPIRED_FOR_USER, userId, Timestamp.valueOf(now));
+    }
+
+    public static final class ConsumedToken {
+        private final Long userId;
+        private final UUID familyId;
+
+        public ConsumedToken(Long userId, UUID familyId) {
+            this.userId = userId;
+            this.familyId = familyId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public UUID getFamilyId() {
+            return familyId;
+        }
+    }
+}
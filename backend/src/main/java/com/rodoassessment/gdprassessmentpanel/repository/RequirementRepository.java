@@ -13,4 +13,6 @@ public interface RequirementRepository extends JpaRepository<Requirement, Long>
     List<Requirement> findByArea(Area area);
     
     List<Requirement> findByAreaOrderByOrderNumberAsc(Area area);
+    
+    List<Requirement> findAllByOrderByOrderNumberAsc();
 }
@@ -3,7 +3,10 @@ package com.rodoassessment.gdprassessmentpanel.repository;
 import com.rodoassessment.gdprassessmentpanel.model.Assessment;
 import com.rodoassessment.gdprassessmentpanel.model.Requirement;
 import com.rodoassessment.gdprassessmentpanel.model.Response;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.ResponseView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +20,8 @@ public interface ResponseRepository extends JpaRepository<Response, Long> {
     List<Response> findByAssessmentAndRequirement(Assessment assessment, Requirement requirement);
     
     Optional<Response> findByAssessmentIdAndRequirementId(Long assessmentId, Long requirementId);
+    
+    @Query("select r.requirement.id as requirementId, r.value as value, r.comment as comment, r.version as version " +
+           "from Response r where r.assessment.id = :assessmentId")
+    List<ResponseView> findViewsByAssessmentId(@Param("assessmentId") Long assessmentId);
 }
@@ -0,0 +1,86 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerConflict;
+import com.rodoassessment.gdprassessmentpanel.dto.SearchResultDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full-text queries over assessment names, descriptions and answer comments of one owner. Text is matched
+ * through the GIN indexes on to_tsvector('simple', rodo_stem(...)) expressions from the schema migrations,
+ * which PostgreSQL maintains on every insert and update, so written comments are searchable right after
+ * commit without a rebuild.
+ * Queries are tsquery strings of stems built by the caller with PolishText, e.g. {@code monitoring & kamer}.
+ */
+@Repository
+public class SearchRepository {
+
+    static final String SEARCH_ASSESSMENTS =
+            "SELECT id, name, description, status, updated_at FROM assessments WHERE user_id = ? " +
+            "AND to_tsvector('simple', rodo_stem(coalesce(name, '') || ' ' || coalesce(description, ''))) " +
+            "@@ to_tsquery('simple', ?) ORDER BY updated_at DESC, id DESC LIMIT ?";
+
+    private static final String SEARCH_COMMENTS =
+            "SELECT x.assessment_id, a.name, x.%s AS answer_id, x.comment FROM %s x " +
+            "JOIN assessments a ON a.id = x.assessment_id WHERE a.user_id = ? %s" +
+            "AND to_tsvector('simple', rodo_stem(x.comment)) @@ to_tsquery('simple', ?) " +
+            "ORDER BY a.updated_at DESC, x.assessment_id DESC, x.%s LIMIT ?";
+
+    // In document mode the per-comment predicate cannot use an index, so documents are narrowed first
+    private static final String DOCUMENT_FILTER =
+            "AND x.assessment_id IN (SELECT d.assessment_id FROM assessment_documents d " +
+            "WHERE to_tsvector('simple', rodo_answer_comments(d.answers)) @@ to_tsquery('simple', ?)) ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    private String searchResponses;
+
+    private String searchAreaScores;
+
+    @PostConstruct
+    public void init() {
+        String filter = answerTables.isDocumentMode() ? DOCUMENT_FILTER : "";
+        searchResponses = String.format(SEARCH_COMMENTS, "requirement_id", answerTables.responses(), filter,
+                "requirement_id");
+        searchAreaScores = String.format(SEARCH_COMMENTS, "area_id", answerTables.areaScores(), filter, "area_id");
+    }
+
+    public List<SearchResultDto.AssessmentHit> findAssessments(Long userId, String tsquery, int limit) {
+        return jdbcTemplate.query(SEARCH_ASSESSMENTS, (rs, rowNum) -> new SearchResultDto.AssessmentHit(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getString("status"),
+                rs.getObject("updated_at", LocalDateTime.class)), userId, tsquery, limit);
+    }
+
+    public List<SearchResultDto.CommentHit> findResponseComments(Long userId, String tsquery, int limit) {
+        return findComments(searchResponses, AnswerConflict.KIND_RESPONSE, userId, tsquery, limit);
+    }
+
+    public List<SearchResultDto.CommentHit> findAreaComments(Long userId, String tsquery, int limit) {
+        return findComments(searchAreaScores, AnswerConflict.KIND_AREA, userId, tsquery, limit);
+    }
+
+    private List<SearchResultDto.CommentHit> findComments(String sql, String kind, Long userId, String tsquery,
+                                                          int limit) {
+        Object[] args = answerTables.isDocumentMode()
+                ? new Object[]{userId, tsquery, tsquery, limit}
+                : new Object[]{userId, tsquery, limit};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchResultDto.CommentHit(
+                rs.getLong("assessment_id"),
+                rs.getString("name"),
+                kind,
+                rs.getLong("answer_id"),
+                rs.getString("comment")), args);
+    }
+}
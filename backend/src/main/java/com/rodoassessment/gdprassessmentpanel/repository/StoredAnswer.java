@@ -0,0 +1,29 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+/**
+ * A response or area score as currently stored, whichever layout holds it.
+ */
+public final class StoredAnswer {
+
+    private final String value;
+    private final String comment;
+    private final long version;
+
+    public StoredAnswer(String value, String comment, long version) {
+        this.value = value;
+        this.comment = comment;
+        this.version = version;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,108 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-assessment answer counts by kind (RESPONSE or AREA), chapter and value, maintained with
+ * additive upserts so concurrent deltas for different values never overwrite each other.
+ */
+@Repository
+public class SummaryCountRepository {
+
+    private static final String ADD_DELTA =
+            "INSERT INTO assessment_summary_counts (assessment_id, kind, chapter_id, value, count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (assessment_id, kind, chapter_id, value) DO UPDATE " +
+            "SET count = assessment_summary_counts.count + EXCLUDED.count";
+
+    private static final String DELETE_EMPTY =
+            "DELETE FROM assessment_summary_counts WHERE assessment_id = ? AND count <= 0";
+
+    private static final String DELETE_BY_ASSESSMENT =
+            "DELETE FROM assessment_summary_counts WHERE assessment_id = ?";
+
+    static final String SELECT_BY_ASSESSMENT =
+            "SELECT kind, chapter_id, value, count FROM assessment_summary_counts " +
+            "WHERE assessment_id = ? AND count > 0";
+
+    private static final String AGGREGATE_RESPONSES =
+            "SELECT r.assessment_id, 'RESPONSE', a.chapter_id, r.value, count(*) " +
+            "FROM %s r JOIN requirements q ON q.id = r.requirement_id JOIN areas a ON a.id = q.area_id " +
+            "WHERE r.value <> '' AND %s GROUP BY r.assessment_id, a.chapter_id, r.value";
+
+    private static final String AGGREGATE_AREA_SCORES =
+            "SELECT s.assessment_id, 'AREA', a.chapter_id, s.score, count(*) " +
+            "FROM %s s JOIN areas a ON a.id = s.area_id " +
+            "WHERE s.score <> '' AND %s GROUP BY s.assessment_id, a.chapter_id, s.score";
+
+    private static final String INSERT_AGGREGATE =
+            "INSERT INTO assessment_summary_counts (assessment_id, kind, chapter_id, value, count) ";
+
+    // Assessments that have answers but no counts yet, e.g. written before the counts were maintained
+    private static final String MISSING_COUNTS =
+            "NOT EXISTS (SELECT 1 FROM assessment_summary_counts c WHERE c.assessment_id = %s.assessment_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    public void addDeltas(Long assessmentId, List<Object[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_DELTA, deltas);
+        jdbcTemplate.update(DELETE_EMPTY, assessmentId);
+    }
+
+    public void findByAssessmentId(Long assessmentId, RowCallbackHandler handler) {
+        jdbcTemplate.query(SELECT_BY_ASSESSMENT, handler, assessmentId);
+    }
+
+    public void deleteByAssessmentId(Long assessmentId) {
+        jdbcTemplate.update(DELETE_BY_ASSESSMENT, assessmentId);
+    }
+
+    public void rebuild(Long assessmentId) {
+        deleteByAssessmentId(assessmentId);
+        jdbcTemplate.update(INSERT_AGGREGATE
+                + String.format(AGGREGATE_RESPONSES, answerTables.responses(), "r.assessment_id = ?"), assessmentId);
+        jdbcTemplate.update(INSERT_AGGREGATE
+                + String.format(AGGREGATE_AREA_SCORES, answerTables.areaScores(), "s.assessment_id = ?"), assessmentId);
+    }
+
+    public void insertForNewAssessments(Collection<Long> assessmentIds) {
+        if (assessmentIds.isEmpty()) {
+            return;
+        }
+        String responses = String.format(AGGREGATE_RESPONSES, answerTables.responses(), "r.assessment_id = ANY (?)");
+        String areaScores = String.format(AGGREGATE_AREA_SCORES, answerTables.areaScores(),
+                "s.assessment_id = ANY (?)");
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    INSERT_AGGREGATE + responses + " UNION ALL " + areaScores);
+            Array ids = connection.createArrayOf("bigint", assessmentIds.toArray());
+            statement.setArray(1, ids);
+            statement.setArray(2, ids);
+            return statement;
+        });
+    }
+
+    public int backfillMissing() {
+        // One statement, so both NOT EXISTS checks see the table as it was before either part inserted
+        String responses = String.format(AGGREGATE_RESPONSES, answerTables.responses(),
+                String.format(MISSING_COUNTS, "r"));
+        String areaScores = String.format(AGGREGATE_AREA_SCORES, answerTables.areaScores(),
+                String.format(MISSING_COUNTS, "s"));
+        return jdbcTemplate.update(INSERT_AGGREGATE + responses + " UNION ALL " + areaScores);
+    }
+}
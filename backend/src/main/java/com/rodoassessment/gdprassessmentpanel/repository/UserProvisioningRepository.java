@@ -0,0 +1,64 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batched inserts of users and their roles for bulk provisioning. User ids are taken from the serial
+ * sequence up front so that the user_roles rows can reference them within the same transaction.
+ */
+@Repository
+public class UserProvisioningRepository {
+
+    private static final String NEXT_IDS =
+            "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)";
+
+    static final String SELECT_TAKEN =
+            "SELECT username, email FROM users WHERE username = ANY (?) OR email = ANY (?)";
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, username, email, password, enabled, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, true, ?, ?)";
+
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Adds the usernames and emails among the given ones that already belong to a user to the given sets. */
+    public void findTaken(Collection<String> usernames, Collection<String> emails,
+                          Set<String> takenUsernames, Set<String> takenEmails) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_TAKEN);
+            statement.setArray(1, connection.createArrayOf("varchar", usernames.toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar", emails.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            takenUsernames.add(rs.getString("username"));
+            takenEmails.add(rs.getString("email"));
+        });
+    }
+
+    public List<Long> nextUserIds(int count) {
+        return jdbcTemplate.queryForList(NEXT_IDS, Long.class, count);
+    }
+
+    // Rows of id, username, email, password hash, created at, updated at
+    public void insertUsers(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+    }
+
+    // Rows of user id, role id
+    public void insertUserRoles(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, rows);
+        }
+    }
+}
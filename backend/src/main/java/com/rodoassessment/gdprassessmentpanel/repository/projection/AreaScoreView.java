@@ -0,0 +1,12 @@
+package com.rodoassessment.gdprassessmentpanel.repository.projection;
+
+public interface AreaScoreView {
+    
+    Long getAreaId();
+    
+    String getScore();
+    
+    String getComment();
+    
+    Long getVersion();
+}
@@ -0,0 +1,12 @@
+package com.rodoassessment.gdprassessmentpanel.repository.projection;
+
+public interface ResponseView {
+    
+    Long getRequirementId();
+    
+    String getValue();
+    
+    String getComment();
+    
+    Long getVersion();
+}
@@ -2,7 +2,9 @@ package com.rodoassessment.gdprassessmentpanel.security;
 
 import com.rodoassessment.gdprassessmentpanel.security.jwt.AuthEntryPointJwt;
 import com.rodoassessment.gdprassessmentpanel.security.jwt.AuthTokenFilter;
+import com.rodoassessment.gdprassessmentpanel.security.services.CaffeineUserCache;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,6 +36,9 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
     
+    @Autowired
+    private CaffeineUserCache userCache;
+    
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -45,6 +50,7 @@ public class WebSecurityConfig {
         
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserCache(userCache);
         
         return authProvider;
     }
@@ -65,7 +71,9 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**").permitAll()
+                // Async dispatches (event streams, exports) continue a request that was already authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
                     .anyRequest().authenticated()
             );
@@ -1,62 +1,219 @@
 package com.rodoassessment.gdprassessmentpanel.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    private static final String CLAIM_USER_ID = "uid";
+
+    private static final String CLAIM_EMAIL = "email";
+
+    private static final String CLAIM_ROLES = "roles";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private Key key;
+
+    private JwtParser parser;
+
+    // Keyed by the SHA-256 of the token, so a heap dump does not expose live credentials
+    private Cache<String, Claims> verifiedTokens;
+
+    private Cache<String, Long> claimsChangedAt;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        // A cached token stays valid only until its own exp claim, never longer
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        long remainingMs = expiration != null
+                                ? expiration.getTime() - System.currentTimeMillis()
+                                : jwtExpirationMs;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // Once the last token issued before a change has expired, the entry is no longer needed. Not bounded
+        // by size, as evicting an entry early would make stale claims trusted again.
+        claimsChangedAt = Caffeine.newBuilder()
+                .expireAfterWrite(jwtExpirationMs, TimeUnit.MILLISECONDS)
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified"));
+    }
+
     public String generateJwtToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateJwtToken((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    public String generateJwtToken(UserDetailsImpl userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
 
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
+    /**
+     * Verifies the token and returns its claims, or null when it is not valid. Tokens that were
+     * verified before and have not expired yet are answered from the cache without another HMAC check.
+     */
+    public Claims verifyJwtToken(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
+        // A hit also skips decoding and parsing the claims, which cost more than the hash
+        String tokenHash = hash(authToken);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            verifiedTokens.put(tokenHash, claims);
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (SecurityException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops trusting the claims of the user's tokens issued so far, after the user or its roles changed.
+     * Those tokens stay valid, but their principal is loaded from the current user record.
+     */
+    public void invalidateClaims(String username) {
+        claimsChangedAt.put(username, System.currentTimeMillis());
+    }
+
+    /**
+     * Rebuilds the authenticated principal from the claims embedded by {@link #generateJwtToken},
+     * or returns null for tokens issued before those claims existed or before the user last changed.
+     */
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (userId == null || !(roles instanceof Collection<?>)) {
+            return null;
+        }
+
+        // iat has whole seconds, so a token issued in the same second as the change is not trusted either
+        Long changedAt = claimsChangedAt.getIfPresent(claims.getSubject());
+        Date issuedAt = claims.getIssuedAt();
+        if (changedAt != null && (issuedAt == null || issuedAt.getTime() <= changedAt)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = ((Collection<?>) roles).stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                userId.longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities);
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = verifyJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
     }
 }
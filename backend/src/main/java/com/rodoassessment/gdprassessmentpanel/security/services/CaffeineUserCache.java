@@ -0,0 +1,69 @@
+package com.rodoassessment.gdprassessmentpanel.security.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Size- and TTL-bounded cache of loaded users, keyed by username. Disabled caches never return
+ * an entry, so every lookup falls through to the database.
+ */
+@Component
+public class CaffeineUserCache implements UserCache {
+
+    @Value("${app.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.user-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private Cache<String, UserDetails> users;
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(enabled ? maximumSize : 0)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, users, "users"));
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return enabled ? users.getIfPresent(username) : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (enabled) {
+            users.put(user.getUsername(), user);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+
+    public void removeAll() {
+        users.invalidateAll();
+    }
+}
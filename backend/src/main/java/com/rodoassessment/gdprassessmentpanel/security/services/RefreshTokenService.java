@@ -0,0 +1,132 @@
+package com.rodoassessment.gdprassessmentpanel.security.services;
+
+import com.rodoassessment.gdprassessmentpanel.repository.RefreshTokenRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.RefreshTokenRepository.ConsumedToken;
+import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, which extend a session without checking the password again. Tokens are
+ * 256 random bits, so a plain SHA-256 hash is enough to store them and a lookup costs one indexed query.
+ * Each token can be used once: refreshing returns a new token of the same family, and presenting a token
+ * that was already used (a stolen copy, or the legitimate client after the thief) revokes the whole family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    @Transactional
+    public String issue(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpired(userId, now);
+        return store(userId, UUID.randomUUID(), now);
+    }
+
+    /**
+     * Consumes the token and returns the user with a new token of the same family, or null when the token
+     * is unknown, expired or was used before.
+     */
+    @Transactional
+    public Rotation rotate(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String tokenHash = hash(token);
+        
+        ConsumedToken consumed = refreshTokenRepository.consume(tokenHash, now);
+        if (consumed == null) {
+            UUID reusedFamily = refreshTokenRepository.findUsedFamily(tokenHash);
+            if (reusedFamily != null) {
+                int revoked = refreshTokenRepository.deleteFamily(reusedFamily);
+                logger.warn("Refresh token reused, revoked {} tokens of its family", revoked);
+            }
+            return null;
+        }
+        
+        UserDetailsImpl user = userRepository.findById(consumed.getUserId())
+                .map(UserDetailsImpl::build)
+                .orElse(null);
+        if (user == null) {
+            refreshTokenRepository.deleteFamily(consumed.getFamilyId());
+            return null;
+        }
+        return new Rotation(user, store(consumed.getUserId(), consumed.getFamilyId(), now));
+    }
+
+    /** Revokes the family of the token, which ends the session on every device that shares it. */
+    @Transactional
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        UUID familyId = refreshTokenRepository.findFamily(hash(token));
+        if (familyId != null) {
+            refreshTokenRepository.deleteFamily(familyId);
+        }
+    }
+
+    private String store(Long userId, UUID familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.insert(userId, hash(token), familyId, now, now.plus(Duration.ofMillis(refreshExpirationMs)));
+        return token;
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Rotation {
+        private final UserDetailsImpl user;
+        private final String refreshToken;
+
+        public Rotation(UserDetailsImpl user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public UserDetailsImpl getUser() {
+            return user;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.rodoassessment.gdprassessmentpanel.security.services;
+
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user from {@link CaffeineUserCache} and stops trusting the claims of its issued tokens when the
+ * user or its roles change. A change of roles only touches the user_roles join table, so besides entity
+ * updates the listener also handles changes of the user's collections. Recreating a collection is left
+ * out: for a new user it has no tokens to distrust yet, and replacing the roles of an existing user also
+ * removes the old collection. The cache entry is dropped right away and again after commit, so a
+ * concurrent load cannot re-cache the old state.
+ */
+@Component
+public class UserChangeListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    @Autowired
+    @Lazy
+    private CaffeineUserCache userCache;
+
+    @Autowired
+    @Lazy
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onChange(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onChange(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    void onChange(Object entity) {
+        if (!(entity instanceof User)) {
+            return;
+        }
+        String username = ((User) entity).getUsername();
+        evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        userCache.removeUserFromCache(username);
+        jwtUtils.invalidateClaims(username);
+    }
+}
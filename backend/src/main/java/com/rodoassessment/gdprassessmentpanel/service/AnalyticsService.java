@@ -0,0 +1,265 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsDto;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Organization-wide answer distributions. The assessment id range is split between workers; each
+ * streams its share of responses and area scores through a forward-only cursor into its own counter
+ * arrays indexed by catalog position, and the partial results are summed at the end. All workers read
+ * the same repeatable-read snapshot, exported by the calling transaction, so the slices and totals
+ * describe one consistent state even while assessments are being written.
+ */
+@Service
+public class AnalyticsService {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    @Autowired
+    @Qualifier("workerExecutor")
+    private TaskExecutor workerExecutor;
+
+    @Value("${app.analytics.parallelism:4}")
+    private int parallelism;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final TransactionTemplate snapshotTransaction;
+
+    public AnalyticsService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                            @Value("${app.analytics.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // PostgreSQL only streams with a fetch size inside a transaction, otherwise it buffers the whole result
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Uses one connection for the snapshot and one per worker. Throws {@link RejectedExecutionException}
+     * when the worker pool is saturated.
+     */
+    public AnalyticsDto getDistributions(String status, LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+
+        AnalyticsDto result = snapshotTransaction.execute(tx -> distributions(catalog, status, from, to));
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private AnalyticsDto distributions(QuestionnaireCatalog catalog, String status, LocalDate from, LocalDate to) {
+        // Stays importable by the workers as long as this transaction is open, i.e. until they are joined
+        String snapshot = jdbcTemplate.queryForObject("SELECT pg_export_snapshot()", String.class);
+
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT min(id) AS lo, max(id) AS hi FROM assessments");
+        Partial total = new Partial(catalog);
+
+        if (range.get("lo") != null) {
+            long lo = ((Number) range.get("lo")).longValue();
+            long hi = ((Number) range.get("hi")).longValue() + 1;
+            int workers = (int) Math.max(1, Math.min(parallelism, hi - lo));
+            long step = (hi - lo + workers - 1) / workers;
+
+            List<CompletableFuture<Partial>> partials = new ArrayList<>(workers);
+            for (long slice = lo; slice < hi; slice += step) {
+                Filter filter = new Filter(slice, Math.min(slice + step, hi), status, from, to);
+                partials.add(CompletableFuture.supplyAsync(
+                        () -> snapshotTransaction.execute(tx -> scan(snapshot, catalog, filter)), workerExecutor));
+            }
+
+            try {
+                for (CompletableFuture<Partial> partial : partials) {
+                    total.add(partial.join());
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        return total.toDto();
+    }
+
+    private Partial scan(String snapshot, QuestionnaireCatalog catalog, Filter filter) {
+        // Must be the first statement of the transaction; the identifier comes from pg_export_snapshot
+        streamingJdbcTemplate.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+        Partial partial = new Partial(catalog);
+
+        Long assessments = streamingJdbcTemplate.queryForObject(
+                "SELECT count(*) FROM assessments a WHERE " + filter.where, Long.class, filter.params());
+        partial.assessments = assessments != null ? assessments : 0;
+
+        streamingJdbcTemplate.query(
+                "SELECT r.requirement_id, r.value FROM " + answerTables.responses() + " r " +
+                "JOIN assessments a ON a.id = r.assessment_id " +
+                "WHERE " + filter.where,
+                rs -> {
+                    partial.requirements.add(catalog.requirementPosition(rs.getLong(1)), rs.getString(2));
+                    partial.rows++;
+                },
+                filter.params());
+
+        streamingJdbcTemplate.query(
+                "SELECT s.area_id, s.score FROM " + answerTables.areaScores() + " s " +
+                "JOIN assessments a ON a.id = s.assessment_id " +
+                "WHERE " + filter.where,
+                rs -> {
+                    partial.areas.add(catalog.areaPosition(rs.getLong(1)), rs.getString(2));
+                    partial.rows++;
+                },
+                filter.params());
+
+        return partial;
+    }
+
+    private static final class Filter {
+        private final String where;
+        private final List<Object> params = new ArrayList<>();
+
+        private Filter(long fromId, long toId, String status, LocalDate from, LocalDate to) {
+            StringBuilder where = new StringBuilder("a.id >= ? AND a.id < ?");
+            params.add(fromId);
+            params.add(toId);
+            if (status != null && !status.isEmpty()) {
+                where.append(" AND a.status = ?");
+                params.add(status);
+            }
+            if (from != null) {
+                where.append(" AND a.created_at >= ?");
+                params.add(Timestamp.valueOf(from.atStartOfDay()));
+            }
+            if (to != null) {
+                where.append(" AND a.created_at < ?");
+                params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            this.where = where.toString();
+        }
+
+        private Object[] params() {
+            return params.toArray();
+        }
+    }
+
+    private static final class Partial {
+        private final QuestionnaireCatalog catalog;
+        private final Distribution requirements;
+        private final Distribution areas;
+        private long assessments;
+        private long rows;
+
+        private Partial(QuestionnaireCatalog catalog) {
+            this.catalog = catalog;
+            this.requirements = new Distribution(catalog.requirementCount());
+            this.areas = new Distribution(catalog.areaCount());
+        }
+
+        private void add(Partial other) {
+            requirements.add(other.requirements);
+            areas.add(other.areas);
+            assessments += other.assessments;
+            rows += other.rows;
+        }
+
+        private AnalyticsDto toDto() {
+            AnalyticsDto dto = new AnalyticsDto();
+            dto.setCatalogVersion(catalog.getContentHash());
+            dto.setAssessments(assessments);
+            dto.setRowsScanned(rows);
+
+            for (int a = 0; a < catalog.areaCount(); a++) {
+                AnalyticsDto.AreaDistributionDto area = new AnalyticsDto.AreaDistributionDto();
+                area.setAreaId(catalog.areaId(a));
+                area.setChapterId(catalog.chapterId(catalog.areaChapter(a)));
+                area.setName(catalog.areaName(a));
+                areas.copyTo(a, area.getScores());
+                dto.getAreas().add(area);
+            }
+
+            for (int r = 0; r < catalog.requirementCount(); r++) {
+                AnalyticsDto.RequirementDistributionDto requirement = new AnalyticsDto.RequirementDistributionDto();
+                requirement.setRequirementId(catalog.requirementId(r));
+                requirement.setAreaId(catalog.areaId(catalog.requirementArea(r)));
+                requirements.copyTo(r, requirement.getValues());
+                dto.getRequirements().add(requirement);
+            }
+
+            return dto;
+        }
+    }
+
+    /**
+     * One int[] of per-position counters for every distinct value seen. Answer values are a handful
+     * of fixed labels, so the value index stays tiny while the counters grow with the catalog only.
+     */
+    private static final class Distribution {
+        private final int positions;
+        private final Map<String, int[]> counters = new HashMap<>();
+        private String lastValue;
+        private int[] lastCounters;
+
+        private Distribution(int positions) {
+            this.positions = positions;
+        }
+
+        private void add(int position, String value) {
+            if (position < 0 || value == null || value.isEmpty()) {
+                return;
+            }
+            // Consecutive rows usually repeat the same value, which skips the map lookup
+            if (!value.equals(lastValue)) {
+                lastCounters = counters.computeIfAbsent(value, k -> new int[positions]);
+                lastValue = value;
+            }
+            lastCounters[position]++;
+        }
+
+        private void add(Distribution other) {
+            for (Map.Entry<String, int[]> entry : other.counters.entrySet()) {
+                int[] target = counters.computeIfAbsent(entry.getKey(), k -> new int[positions]);
+                int[] source = entry.getValue();
+                for (int p = 0; p < positions; p++) {
+                    target[p] += source[p];
+                }
+            }
+        }
+
+        private void copyTo(int position, Map<String, Integer> target) {
+            for (Map.Entry<String, int[]> entry : counters.entrySet()) {
+                int count = entry.getValue()[position];
+                if (count > 0) {
+                    target.put(entry.getKey(), count);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+
+/**
+ * Answers of one assessment aligned with a catalog snapshot: requirement values and comments are
+ * indexed by requirement position, area scores and comments by area position. Unanswered slots are null
+ * and have version 0.
+ */
+public class AnswerSet {
+
+    private final QuestionnaireCatalog catalog;
+
+    private final String[] values;
+    private final String[] comments;
+    private final String[] scores;
+    private final String[] areaComments;
+    private final long[] versions;
+    private final long[] areaVersions;
+
+    public AnswerSet(QuestionnaireCatalog catalog) {
+        this.catalog = catalog;
+        this.values = new String[catalog.requirementCount()];
+        this.comments = new String[catalog.requirementCount()];
+        this.scores = new String[catalog.areaCount()];
+        this.areaComments = new String[catalog.areaCount()];
+        this.versions = new long[catalog.requirementCount()];
+        this.areaVersions = new long[catalog.areaCount()];
+    }
+
+    public QuestionnaireCatalog getCatalog() {
+        return catalog;
+    }
+
+    public boolean setResponse(Long requirementId, String value, String comment) {
+        return setResponse(requirementId, value, comment, null);
+    }
+
+    public boolean setResponse(Long requirementId, String value, String comment, Long version) {
+        int requirement = catalog.requirementPosition(requirementId);
+        if (requirement < 0) {
+            return false;
+        }
+        values[requirement] = value;
+        comments[requirement] = comment;
+        versions[requirement] = version != null ? version : 0L;
+        return true;
+    }
+
+    public boolean setAreaScore(Long areaId, String score, String comment) {
+        return setAreaScore(areaId, score, comment, null);
+    }
+
+    public boolean setAreaScore(Long areaId, String score, String comment, Long version) {
+        int area = catalog.areaPosition(areaId);
+        if (area < 0) {
+            return false;
+        }
+        scores[area] = score;
+        areaComments[area] = comment;
+        areaVersions[area] = version != null ? version : 0L;
+        return true;
+    }
+
+    public boolean hasResponse(int requirement) {
+        return values[requirement] != null;
+    }
+
+    public String value(int requirement) {
+        return values[requirement];
+    }
+
+    public String comment(int requirement) {
+        return comments[requirement];
+    }
+
+    public long version(int requirement) {
+        return versions[requirement];
+    }
+
+    public boolean hasAreaScore(int area) {
+        return scores[area] != null;
+    }
+
+    public String score(int area) {
+        return scores[area];
+    }
+
+    public String areaComment(int area) {
+        return areaComments[area];
+    }
+
+    public long areaVersion(int area) {
+        return areaVersions[area];
+    }
+}
@@ -0,0 +1,63 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDiffDto;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compares the answers of two assessments position by position on the catalog order, so only the areas and
+ * requirements that differ are materialized. Unanswered items compare as empty values and comments.
+ */
+@Service
+public class AssessmentDiffService {
+
+    @Autowired
+    private AssessmentLoader assessmentLoader;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Transactional(readOnly = true)
+    public AssessmentDiffDto diff(Long baseAssessmentId, Long assessmentId) {
+        // Both sides are aligned on one snapshot, even if the catalog is reloaded while they are read
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        AnswerSet base = assessmentLoader.loadAnswers(baseAssessmentId, catalog);
+        AnswerSet answers = assessmentLoader.loadAnswers(assessmentId, catalog);
+        
+        AssessmentDiffDto diff = new AssessmentDiffDto();
+        diff.setBaseAssessmentId(baseAssessmentId);
+        diff.setAssessmentId(assessmentId);
+        diff.setCatalogVersion(catalog.getContentHash());
+        
+        for (int a = 0; a < catalog.areaCount(); a++) {
+            if (differs(base.score(a), answers.score(a)) || differs(base.areaComment(a), answers.areaComment(a))) {
+                diff.getAreas().add(new AssessmentDiffDto.AreaDiffDto(catalog.areaId(a),
+                        catalog.chapterId(catalog.areaChapter(a)), catalog.areaName(a),
+                        emptyIfNull(base.score(a)), emptyIfNull(base.areaComment(a)),
+                        emptyIfNull(answers.score(a)), emptyIfNull(answers.areaComment(a))));
+            }
+        }
+        
+        for (int r = 0; r < catalog.requirementCount(); r++) {
+            if (differs(base.value(r), answers.value(r)) || differs(base.comment(r), answers.comment(r))) {
+                diff.getRequirements().add(new AssessmentDiffDto.RequirementDiffDto(catalog.requirementId(r),
+                        catalog.areaId(catalog.requirementArea(r)), catalog.requirementText(r),
+                        emptyIfNull(base.value(r)), emptyIfNull(base.comment(r)),
+                        emptyIfNull(answers.value(r)), emptyIfNull(answers.comment(r))));
+            }
+        }
+        
+        return diff;
+    }
+
+    private boolean differs(String base, String value) {
+        return !emptyIfNull(base).equals(emptyIfNull(value));
+    }
+
+    private String emptyIfNull(String value) {
+        return value != null ? value : "";
+    }
+}
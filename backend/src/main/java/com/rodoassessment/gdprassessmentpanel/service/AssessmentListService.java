@@ -0,0 +1,90 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentPageDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentSummaryDto;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentSummaryRepository;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class AssessmentListService {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private AssessmentSummaryRepository assessmentSummaryRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    public AssessmentPageDto findPage(Long userId, String after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (after != null && !after.isEmpty()) {
+            String[] cursor = decodeCursor(after);
+            afterCreatedAt = LocalDateTime.parse(cursor[0]);
+            afterId = Long.parseLong(cursor[1]);
+        }
+
+        // One extra row tells whether another page follows without a separate count query
+        List<AssessmentSummaryDto> rows =
+                assessmentSummaryRepository.findPage(userId, afterCreatedAt, afterId, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AssessmentSummaryDto last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return new AssessmentPageDto(withTotals(rows), nextCursor);
+    }
+
+    /**
+     * All assessments of the user, newest first, for clients of the list endpoint that do not paginate.
+     */
+    public List<AssessmentSummaryDto> findAll(Long userId) {
+        return withTotals(assessmentSummaryRepository.findAll(userId));
+    }
+
+    private List<AssessmentSummaryDto> withTotals(List<AssessmentSummaryDto> rows) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        for (AssessmentSummaryDto row : rows) {
+            row.setTotalRequirements(catalog.requirementCount());
+            row.setTotalAreas(catalog.areaCount());
+        }
+        return rows;
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String cursor = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String after) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            String[] parts = cursor.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Error: Invalid cursor.");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error: Invalid cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import com.rodoassessment.gdprassessmentpanel.service.store.AnswerStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class AssessmentLoader {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AnswerStore answerStore;
+
+    public AssessmentDto loadTemplate() {
+        return loadTemplate(catalogService.getCatalog());
+    }
+
+    public AssessmentDto loadTemplate(QuestionnaireCatalog catalog) {
+        AssessmentDto template = new AssessmentDto();
+        template.setId(null);
+        template.setName("");
+        template.setDescription("");
+        template.setStatus("DRAFT");
+        template.setChapters(buildChapters(new AnswerSet(catalog)));
+        return template;
+    }
+
+    @Transactional(readOnly = true)
+    public AssessmentDto load(Assessment assessment) {
+        AssessmentDto dto = new AssessmentDto();
+        dto.setId(assessment.getId());
+        dto.setName(assessment.getName());
+        dto.setDescription(assessment.getDescription());
+        dto.setStatus(assessment.getStatus());
+        dto.setVersion(assessment.getVersion());
+        dto.setNameVersion(assessment.getNameVersion());
+        dto.setDescriptionVersion(assessment.getDescriptionVersion());
+        dto.setStatusVersion(assessment.getStatusVersion());
+        dto.setCreatedAt(assessment.getCreatedAt());
+        dto.setUpdatedAt(assessment.getUpdatedAt());
+        dto.setChapters(buildChapters(loadAnswers(assessment.getId())));
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public CompactAssessmentDto loadCompact(Assessment assessment) {
+        AnswerSet answers = loadAnswers(assessment.getId());
+        QuestionnaireCatalog catalog = answers.getCatalog();
+        
+        CompactAssessmentDto dto = new CompactAssessmentDto();
+        dto.setId(assessment.getId());
+        dto.setName(assessment.getName());
+        dto.setDescription(assessment.getDescription());
+        dto.setStatus(assessment.getStatus());
+        dto.setVersion(assessment.getVersion());
+        dto.setNameVersion(assessment.getNameVersion());
+        dto.setDescriptionVersion(assessment.getDescriptionVersion());
+        dto.setStatusVersion(assessment.getStatusVersion());
+        dto.setCreatedAt(assessment.getCreatedAt());
+        dto.setUpdatedAt(assessment.getUpdatedAt());
+        dto.setCatalogVersion(catalog.getContentHash());
+        
+        for (int r = 0; r < catalog.requirementCount(); r++) {
+            if (answers.hasResponse(r)) {
+                dto.getResponses().put(catalog.requirementId(r), new CompactAssessmentDto.ResponseEntry(
+                        answers.value(r), answers.comment(r), answers.version(r)));
+            }
+        }
+        for (int a = 0; a < catalog.areaCount(); a++) {
+            if (answers.hasAreaScore(a)) {
+                dto.getAreaScores().put(catalog.areaId(a), new CompactAssessmentDto.AreaScoreEntry(
+                        answers.score(a), answers.areaComment(a), answers.areaVersion(a)));
+            }
+        }
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public AnswerSet loadAnswers(Long assessmentId) {
+        return answerStore.load(assessmentId);
+    }
+
+    @Transactional(readOnly = true)
+    public AnswerSet loadAnswers(Long assessmentId, QuestionnaireCatalog catalog) {
+        return answerStore.load(assessmentId, catalog);
+    }
+
+    private List<AssessmentDto.ChapterDto> buildChapters(AnswerSet answers) {
+        QuestionnaireCatalog catalog = answers.getCatalog();
+        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>(catalog.chapterCount());
+
+        for (int c = 0; c < catalog.chapterCount(); c++) {
+            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
+            chapterDto.setId(catalog.chapterId(c));
+            chapterDto.setName(catalog.chapterName(c));
+            chapterDto.setDescription(catalog.chapterDescription(c));
+            chapterDto.setOrderNumber(catalog.chapterOrderNumber(c));
+
+            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>(catalog.endArea(c) - catalog.firstArea(c));
+
+            for (int a = catalog.firstArea(c); a < catalog.endArea(c); a++) {
+                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
+                areaDto.setId(catalog.areaId(a));
+                areaDto.setName(catalog.areaName(a));
+                areaDto.setDescription(catalog.areaDescription(a));
+                areaDto.setOrderNumber(catalog.areaOrderNumber(a));
+
+                if (answers.hasAreaScore(a)) {
+                    areaDto.setScore(answers.score(a));
+                    areaDto.setComment(answers.areaComment(a));
+                    areaDto.setVersion(answers.areaVersion(a));
+                } else {
+                    areaDto.setScore("");
+                    areaDto.setComment("");
+                    areaDto.setVersion(0L);
+                }
+
+                List<AssessmentDto.RequirementDto> reqDtos =
+                        new ArrayList<>(catalog.endRequirement(a) - catalog.firstRequirement(a));
+
+                for (int r = catalog.firstRequirement(a); r < catalog.endRequirement(a); r++) {
+                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
+                    reqDto.setId(catalog.requirementId(r));
+                    reqDto.setText(catalog.requirementText(r));
+                    reqDto.setOrderNumber(catalog.requirementOrderNumber(r));
+
+                    if (answers.hasResponse(r)) {
+                        reqDto.setValue(answers.value(r));
+                        reqDto.setComment(answers.comment(r));
+                        reqDto.setVersion(answers.version(r));
+                    } else {
+                        reqDto.setValue("");
+                        reqDto.setComment("");
+                        reqDto.setVersion(0L);
+                    }
+
+                    reqDtos.add(reqDto);
+                }
+
+                areaDto.setRequirements(reqDtos);
+                areaDtos.add(areaDto);
+            }
+
+            chapterDto.setAreas(areaDtos);
+            chapterDtos.add(chapterDto);
+        }
+
+        return chapterDtos;
+    }
+}
@@ -0,0 +1,404 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerConflict;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchResponse;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentChangeEvent;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerBatchRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerBatchRepository.StoredMetadata;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import com.rodoassessment.gdprassessmentpanel.service.events.AssessmentEventBroadcaster;
+import com.rodoassessment.gdprassessmentpanel.service.store.AnswerStore;
+import com.rodoassessment.gdprassessmentpanel.service.store.NewAnswers;
+import com.rodoassessment.gdprassessmentpanel.service.store.WrittenAnswers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Writes assessments without serializing concurrent editors. Every answer and every header field (name,
+ * description, status) carry a version; a change sent with the version it was based on is applied only if
+ * the stored field still has that version. When the field has moved on, the change is a conflict only if the
+ * client actually edited the field: a change that repeats the base value the client read ({@code baseValue}
+ * and the like) keeps the newer stored value. Changes to different fields therefore merge, and only a field
+ * changed on both sides is reported back as a conflict together with its current value. Everything else in
+ * the request is committed.
+ * <p>
+ * A full update (PUT) sends every field, so a field without a version is taken as based on version 0 and
+ * cannot replace what someone else wrote; only a PATCH, which sends just the edited answers, may omit the
+ * version to write on top of whatever is stored.
+ */
+@Service
+public class AssessmentWriter {
+
+    // Rounds of re-read and compare-and-set before a metadata change that keeps losing races is reported as a conflict
+    private static final int MAX_ROUNDS = 3;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private AnswerBatchRepository answerBatchRepository;
+
+    @Autowired
+    private AnswerStore answerStore;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ComplianceSummaryService complianceSummaryService;
+
+    @Autowired
+    private AssessmentEventBroadcaster assessmentEventBroadcaster;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public Assessment create(User user, AssessmentDto assessmentDto) {
+        Assessment assessment = new Assessment();
+        assessment.setName(assessmentDto.getName());
+        assessment.setDescription(assessmentDto.getDescription());
+        assessment.setStatus("DRAFT");
+        assessment.setUser(user);
+        
+        Assessment savedAssessment = assessmentRepository.save(assessment);
+        
+        // A new assessment only stores answers that were actually given, and nobody else can have written any yet
+        Map<Long, AreaScoreChange> areaScores = new TreeMap<>();
+        Map<Long, ResponseChange> responses = new TreeMap<>();
+        collectAnswers(assessmentDto, true, areaScores, responses);
+        
+        answerStore.insertNew(List.of(new NewAnswers(savedAssessment.getId(), savedAssessment.getUpdatedAt(),
+                new ArrayList<>(areaScores.values()), new ArrayList<>(responses.values()))));
+        complianceSummaryService.recordChanges(savedAssessment.getId(),
+                Map.of(), areaScores.values(), Map.of(), responses.values());
+        
+        return savedAssessment;
+    }
+
+    /**
+     * Applies the metadata and answers of a full assessment document. On return the given entity holds the
+     * stored metadata; it is detached first so that no flush can write it back without the version check.
+     */
+    @Transactional
+    public AnswerPatchResponse update(Assessment assessment, AssessmentDto assessmentDto) {
+        // On update an empty value clears a previous answer, only missing (null) values are skipped.
+        // Keyed and sorted by id, so a payload listing the same item twice still yields one write per answer
+        // and concurrent writers touch rows in the same order.
+        Map<Long, AreaScoreChange> areaScores = new TreeMap<>();
+        Map<Long, ResponseChange> responses = new TreeMap<>();
+        collectAnswers(assessmentDto, false, areaScores, responses);
+        
+        return update(assessment, new Metadata(
+                new Field(assessmentDto.getName(), assessmentDto.getNameVersion(), assessmentDto.getBaseName()),
+                new Field(assessmentDto.getDescription(), assessmentDto.getDescriptionVersion(),
+                        assessmentDto.getBaseDescription()),
+                new Field(assessmentDto.getStatus(), assessmentDto.getStatusVersion(), assessmentDto.getBaseStatus()),
+                assessmentDto.getVersion()), areaScores, responses);
+    }
+
+    /**
+     * Applies the compact form of an assessment. Answers are keyed by id, so a client working with an older
+     * catalog version still writes the requirements and areas that exist; unknown ids are skipped.
+     */
+    @Transactional
+    public AnswerPatchResponse update(Assessment assessment, CompactAssessmentDto compactDto) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        
+        Map<Long, AreaScoreChange> areaScores = new TreeMap<>();
+        if (compactDto.getAreaScores() != null) {
+            compactDto.getAreaScores().forEach((areaId, entry) -> {
+                if (entry != null && entry.getScore() != null && catalog.areaPosition(areaId) >= 0) {
+                    areaScores.put(areaId, new AreaScoreChange(areaId, entry.getScore(), entry.getComment(),
+                            baseVersion(entry.getVersion()), entry.getBaseScore(), entry.getBaseComment()));
+                }
+            });
+        }
+        
+        Map<Long, ResponseChange> responses = new TreeMap<>();
+        if (compactDto.getResponses() != null) {
+            compactDto.getResponses().forEach((requirementId, entry) -> {
+                if (entry != null && entry.getValue() != null && catalog.requirementPosition(requirementId) >= 0) {
+                    responses.put(requirementId, new ResponseChange(requirementId, entry.getValue(),
+                            entry.getComment(), baseVersion(entry.getVersion()), entry.getBaseValue(),
+                            entry.getBaseComment()));
+                }
+            });
+        }
+        
+        return update(assessment, new Metadata(
+                new Field(compactDto.getName(), compactDto.getNameVersion(), compactDto.getBaseName()),
+                new Field(compactDto.getDescription(), compactDto.getDescriptionVersion(),
+                        compactDto.getBaseDescription()),
+                new Field(compactDto.getStatus(), compactDto.getStatusVersion(), compactDto.getBaseStatus()),
+                compactDto.getVersion()), areaScores, responses);
+    }
+
+    /**
+     * On return the given entity holds the stored metadata; it is detached first so that no flush can write
+     * it back without the version check.
+     */
+    private AnswerPatchResponse update(Assessment assessment, Metadata metadata,
+                                       Map<Long, AreaScoreChange> areaScores, Map<Long, ResponseChange> responses) {
+        entityManager.detach(assessment);
+        
+        AnswerPatchResponse result = new AnswerPatchResponse();
+        result.setAssessmentId(assessment.getId());
+        result.setUpdatedAt(LocalDateTime.now());
+        
+        // Answer rows are written before the assessment row so every writer takes row locks in the same order
+        WrittenAnswers written = applyChanges(assessment.getId(), areaScores, responses, result);
+        boolean answersChanged = !written.isEmpty();
+        boolean metadataChanged = updateMetadata(assessment, metadata, result);
+        
+        if (answersChanged && !metadataChanged) {
+            answerBatchRepository.touchAssessment(assessment.getId(), result.getUpdatedAt());
+            assessment.setUpdatedAt(result.getUpdatedAt());
+        }
+        if (answersChanged || metadataChanged) {
+            AssessmentChangeEvent event = changeEvent(result, written);
+            if (metadataChanged) {
+                event.setName(assessment.getName());
+                event.setDescription(assessment.getDescription());
+                event.setStatus(assessment.getStatus());
+                event.setVersion(assessment.getVersion());
+                event.setNameVersion(assessment.getNameVersion());
+                event.setDescriptionVersion(assessment.getDescriptionVersion());
+                event.setStatusVersion(assessment.getStatusVersion());
+            }
+            assessmentEventBroadcaster.publishAfterCommit(assessment.getId(),
+                    AssessmentEventBroadcaster.EVENT_CHANGE, event);
+        }
+        
+        return result;
+    }
+
+    @Transactional
+    public void delete(Assessment assessment) {
+        complianceSummaryService.delete(assessment.getId());
+        answerStore.delete(assessment.getId());
+        assessmentRepository.delete(assessment);
+        
+        AssessmentChangeEvent event = new AssessmentChangeEvent();
+        event.setAssessmentId(assessment.getId());
+        assessmentEventBroadcaster.publishAfterCommit(assessment.getId(), AssessmentEventBroadcaster.EVENT_DELETED,
+                event);
+    }
+
+    @Transactional
+    public AnswerPatchResponse patch(Long assessmentId, AnswerPatchRequest patch) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        
+        Map<Long, AreaScoreChange> areaScores = new TreeMap<>();
+        if (patch.getAreaScores() != null) {
+            for (AreaScoreChange change : patch.getAreaScores()) {
+                if (change.getScore() != null && catalog.areaPosition(change.getAreaId()) >= 0) {
+                    areaScores.put(change.getAreaId(), change);
+                }
+            }
+        }
+        
+        Map<Long, ResponseChange> responses = new TreeMap<>();
+        if (patch.getResponses() != null) {
+            for (ResponseChange change : patch.getResponses()) {
+                if (change.getValue() != null && catalog.requirementPosition(change.getRequirementId()) >= 0) {
+                    responses.put(change.getRequirementId(), change);
+                }
+            }
+        }
+        
+        AnswerPatchResponse result = new AnswerPatchResponse();
+        result.setAssessmentId(assessmentId);
+        WrittenAnswers written = applyChanges(assessmentId, areaScores, responses, result);
+        if (!written.isEmpty()) {
+            answerBatchRepository.touchAssessment(assessmentId, result.getUpdatedAt());
+            assessmentEventBroadcaster.publishAfterCommit(assessmentId, AssessmentEventBroadcaster.EVENT_CHANGE,
+                    changeEvent(result, written));
+        }
+        return result;
+    }
+
+    private void collectAnswers(AssessmentDto assessmentDto, boolean skipEmpty,
+                                Map<Long, AreaScoreChange> areaScores, Map<Long, ResponseChange> responses) {
+        if (assessmentDto.getChapters() == null) {
+            return;
+        }
+        
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        
+        for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
+            if (chapterDto.getAreas() == null) {
+                continue;
+            }
+            for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
+                if (isPresent(areaDto.getScore(), skipEmpty) && catalog.areaPosition(areaDto.getId()) >= 0) {
+                    areaScores.put(areaDto.getId(), new AreaScoreChange(areaDto.getId(), areaDto.getScore(),
+                            areaDto.getComment(), baseVersion(areaDto.getVersion()), areaDto.getBaseScore(),
+                            areaDto.getBaseComment()));
+                }
+                
+                if (areaDto.getRequirements() == null) {
+                    continue;
+                }
+                for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
+                    if (isPresent(reqDto.getValue(), skipEmpty) && catalog.requirementPosition(reqDto.getId()) >= 0) {
+                        responses.put(reqDto.getId(), new ResponseChange(reqDto.getId(), reqDto.getValue(),
+                                reqDto.getComment(), baseVersion(reqDto.getVersion()), reqDto.getBaseValue(),
+                                reqDto.getBaseComment()));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean updateMetadata(Assessment assessment, Metadata metadata, AnswerPatchResponse result) {
+        List<AnswerConflict> conflicts = new ArrayList<>();
+        for (int round = 0; ; round++) {
+            if (round > 0) {
+                StoredMetadata current = answerBatchRepository.findMetadata(assessment.getId());
+                if (current == null) {
+                    throw new RuntimeException("Error: Assessment not found.");
+                }
+                assessment.setName(current.getName());
+                assessment.setDescription(current.getDescription());
+                assessment.setStatus(current.getStatus());
+                assessment.setVersion(current.getVersion());
+                assessment.setNameVersion(current.getNameVersion());
+                assessment.setDescriptionVersion(current.getDescriptionVersion());
+                assessment.setStatusVersion(current.getStatusVersion());
+                assessment.setUpdatedAt(current.getUpdatedAt());
+            }
+            
+            // A client that read the header at the stored version has seen every field as it is now
+            boolean readCurrent = metadata.version() != null && metadata.version().equals(assessment.getVersion());
+            boolean lastRound = round == MAX_ROUNDS;
+            conflicts.clear();
+            String name = mergeField(AnswerConflict.KIND_NAME, metadata.name(), assessment.getName(),
+                    assessment.getNameVersion(), readCurrent, lastRound, assessment.getId(), conflicts);
+            String description = mergeField(AnswerConflict.KIND_DESCRIPTION, metadata.description(),
+                    assessment.getDescription(), assessment.getDescriptionVersion(), readCurrent, lastRound,
+                    assessment.getId(), conflicts);
+            String status = mergeField(AnswerConflict.KIND_STATUS, metadata.status(), assessment.getStatus(),
+                    assessment.getStatusVersion(), readCurrent, lastRound, assessment.getId(), conflicts);
+            
+            if (Objects.equals(name, assessment.getName()) && Objects.equals(description, assessment.getDescription())
+                    && Objects.equals(status, assessment.getStatus())) {
+                result.getConflicts().addAll(conflicts);
+                return false;
+            }
+            
+            long nameVersion = assessment.getNameVersion() + (Objects.equals(name, assessment.getName()) ? 0 : 1);
+            long descriptionVersion = assessment.getDescriptionVersion()
+                    + (Objects.equals(description, assessment.getDescription()) ? 0 : 1);
+            long statusVersion = assessment.getStatusVersion()
+                    + (Objects.equals(status, assessment.getStatus()) ? 0 : 1);
+            
+            // The entity may have been read before another writer committed, the version check catches that
+            if (answerBatchRepository.updateMetadata(assessment.getId(), assessment.getVersion(),
+                    name, nameVersion, description, descriptionVersion, status, statusVersion,
+                    result.getUpdatedAt())) {
+                assessment.setName(name);
+                assessment.setDescription(description);
+                assessment.setStatus(status);
+                assessment.setNameVersion(nameVersion);
+                assessment.setDescriptionVersion(descriptionVersion);
+                assessment.setStatusVersion(statusVersion);
+                assessment.setVersion(assessment.getVersion() + 1);
+                assessment.setUpdatedAt(result.getUpdatedAt());
+                result.getConflicts().addAll(conflicts);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the value to store for one header field: the submitted one when it is based on the stored
+     * version, otherwise the current one, with a conflict unless the client left the field as it read it.
+     * A field that was not sent or equals the stored value returns the current value as well.
+     */
+    private String mergeField(String kind, Field field, String current, long currentVersion, boolean readCurrent,
+                              boolean lastRound, Long assessmentId, List<AnswerConflict> conflicts) {
+        if (field.value() == null || emptyIfNull(field.value()).equals(emptyIfNull(current))) {
+            return current;
+        }
+        long baseVersion = field.version() != null ? field.version() : readCurrent ? currentVersion : 0L;
+        boolean stale = baseVersion != currentVersion;
+        if (stale && field.base() != null && emptyIfNull(field.value()).equals(emptyIfNull(field.base()))) {
+            return current;
+        }
+        if (stale || lastRound) {
+            conflicts.add(new AnswerConflict(kind, assessmentId, field.value(), null, baseVersion,
+                    current, null, currentVersion));
+            return current;
+        }
+        return field.value();
+    }
+
+    // Changes must be keyed by id in ascending order, see AnswerStore.write
+    private WrittenAnswers applyChanges(Long assessmentId, Map<Long, AreaScoreChange> areaScores,
+                                 Map<Long, ResponseChange> responses, AnswerPatchResponse result) {
+        if (result.getUpdatedAt() == null) {
+            result.setUpdatedAt(LocalDateTime.now());
+        }
+        if (areaScores.isEmpty() && responses.isEmpty()) {
+            return new WrittenAnswers();
+        }
+        
+        // The previous values are those the version checks matched, so the summary deltas are exact
+        WrittenAnswers written = answerStore.write(assessmentId, areaScores, responses, result);
+        complianceSummaryService.recordChanges(assessmentId, written.getPreviousScores(), written.getAreaScores(),
+                written.getPreviousValues(), written.getResponses());
+        
+        return written;
+    }
+
+    // Only the answers that were actually written, not those the request repeated unchanged
+    private AssessmentChangeEvent changeEvent(AnswerPatchResponse result, WrittenAnswers written) {
+        AssessmentChangeEvent event = new AssessmentChangeEvent();
+        event.setAssessmentId(result.getAssessmentId());
+        event.setUpdatedAt(result.getUpdatedAt());
+        event.setResponses(written.getResponses());
+        event.setAreaScores(written.getAreaScores());
+        return event;
+    }
+
+    private boolean isPresent(String value, boolean skipEmpty) {
+        return value != null && !(skipEmpty && value.isEmpty());
+    }
+
+    // An update sent without a version is taken as based on no answer, so it never replaces someone else's
+    private Long baseVersion(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    private String emptyIfNull(String value) {
+        return value != null ? value : "";
+    }
+
+    // Header fields of an update, with the version of the whole header the client read, if sent
+    private record Metadata(Field name, Field description, Field status, Long version) {
+    }
+
+    // A header field as submitted, with the version and value it was based on
+    private record Field(String value, Long version, String base) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ComplianceSummaryDto;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.model.AssessmentSummaryCount;
+import com.rodoassessment.gdprassessmentpanel.repository.SummaryCountRepository;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains per-assessment counts of answers by chapter and value. Writers report the values they
+ * replaced together with the new ones, and only the resulting deltas are written, inside the same
+ * transaction as the answers themselves.
+ */
+@Service
+public class ComplianceSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplianceSummaryService.class);
+
+    @Autowired
+    private SummaryCountRepository summaryCountRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCounts() {
+        try {
+            int rows = summaryCountRepository.backfillMissing();
+            if (rows > 0) {
+                logger.info("Backfilled {} summary count rows for assessments without counts", rows);
+            }
+        } catch (Exception e) {
+            logger.error("Cannot backfill assessment summary counts: {}", e.getMessage());
+        }
+    }
+
+    public void recordChanges(Long assessmentId,
+                              Map<Long, String> previousScores, Collection<AreaScoreChange> areaScores,
+                              Map<Long, String> previousValues, Collection<ResponseChange> responses) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        // Sorted so concurrent writers of one assessment upsert the count rows in the same order
+        Map<DeltaKey, Integer> deltas = new TreeMap<>();
+
+        for (AreaScoreChange change : areaScores) {
+            int area = catalog.areaPosition(change.getAreaId());
+            if (area < 0) {
+                continue;
+            }
+            long chapterId = catalog.chapterId(catalog.areaChapter(area));
+            addDelta(deltas, AssessmentSummaryCount.KIND_AREA, chapterId, previousScores.get(change.getAreaId()), -1);
+            addDelta(deltas, AssessmentSummaryCount.KIND_AREA, chapterId, change.getScore(), 1);
+        }
+
+        for (ResponseChange change : responses) {
+            int requirement = catalog.requirementPosition(change.getRequirementId());
+            if (requirement < 0) {
+                continue;
+            }
+            long chapterId = catalog.chapterId(catalog.areaChapter(catalog.requirementArea(requirement)));
+            addDelta(deltas, AssessmentSummaryCount.KIND_RESPONSE, chapterId,
+                    previousValues.get(change.getRequirementId()), -1);
+            addDelta(deltas, AssessmentSummaryCount.KIND_RESPONSE, chapterId, change.getValue(), 1);
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        for (Map.Entry<DeltaKey, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                DeltaKey key = delta.getKey();
+                batch.add(new Object[] {assessmentId, key.kind, key.chapterId, key.value, delta.getValue()});
+            }
+        }
+        summaryCountRepository.addDeltas(assessmentId, batch);
+    }
+
+    private void addDelta(Map<DeltaKey, Integer> deltas, String kind, long chapterId, String value, int delta) {
+        // Empty values mean "not answered" and are not counted
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        deltas.merge(new DeltaKey(kind, chapterId, value), delta, Integer::sum);
+    }
+
+    /**
+     * Recomputes the counts of one assessment from its stored answers. Deltas are counted under the chapter
+     * an item belonged to when it was answered, so this repairs the counts after requirements or areas were
+     * moved between chapters.
+     */
+    @Transactional
+    public void rebuild(Long assessmentId) {
+        summaryCountRepository.rebuild(assessmentId);
+    }
+
+    public void delete(Long assessmentId) {
+        summaryCountRepository.deleteByAssessmentId(assessmentId);
+    }
+
+    @Transactional(readOnly = true)
+    public ComplianceSummaryDto getSummary(Long assessmentId) {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+
+        ComplianceSummaryDto summary = new ComplianceSummaryDto();
+        summary.setAssessmentId(assessmentId);
+        summary.setTotalRequirements(catalog.requirementCount());
+        summary.setTotalAreas(catalog.areaCount());
+
+        List<ComplianceSummaryDto.ChapterSummaryDto> chapters = new ArrayList<>(catalog.chapterCount());
+        for (int c = 0; c < catalog.chapterCount(); c++) {
+            ComplianceSummaryDto.ChapterSummaryDto chapter = new ComplianceSummaryDto.ChapterSummaryDto();
+            chapter.setChapterId(catalog.chapterId(c));
+            chapter.setName(catalog.chapterName(c));
+            chapter.setTotalAreas(catalog.endArea(c) - catalog.firstArea(c));
+            chapter.setTotalRequirements(
+                    catalog.firstRequirement(catalog.endArea(c)) - catalog.firstRequirement(catalog.firstArea(c)));
+            chapters.add(chapter);
+        }
+        summary.setChapters(chapters);
+
+        summaryCountRepository.findByAssessmentId(assessmentId, rs -> {
+            String kind = rs.getString("kind");
+            String value = rs.getString("value");
+            int count = rs.getInt("count");
+            boolean area = AssessmentSummaryCount.KIND_AREA.equals(kind);
+
+            (area ? summary.getAreaScores() : summary.getResponses()).merge(value, count, Integer::sum);
+
+            // Counts of chapters that are no longer in the catalog still show up in the totals
+            int c = catalog.chapterPosition(rs.getLong("chapter_id"));
+            if (c >= 0) {
+                ComplianceSummaryDto.ChapterSummaryDto chapter = chapters.get(c);
+                (area ? chapter.getAreaScores() : chapter.getResponses()).merge(value, count, Integer::sum);
+            }
+        });
+
+        return summary;
+    }
+
+    private static final class DeltaKey implements Comparable<DeltaKey> {
+        private final String kind;
+        private final long chapterId;
+        private final String value;
+
+        private DeltaKey(String kind, long chapterId, String value) {
+            this.kind = kind;
+            this.chapterId = chapterId;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof DeltaKey))
+                return false;
+            DeltaKey other = (DeltaKey) o;
+            return chapterId == other.chapterId && kind.equals(other.kind) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return (kind.hashCode() * 31 + Long.hashCode(chapterId)) * 31 + value.hashCode();
+        }
+
+        @Override
+        public int compareTo(DeltaKey other) {
+            int byKind = kind.compareTo(other.kind);
+            if (byKind != 0)
+                return byKind;
+            int byChapter = Long.compare(chapterId, other.chapterId);
+            return byChapter != 0 ? byChapter : value.compareTo(other.value);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams assessments with their answers straight from forward-only cursors to the output. Assessments,
+ * area scores and responses are read by three cursors in assessment id order and merged, and only the
+ * assessment being written is held in memory, aligned with the catalog snapshot, so heap use does not
+ * depend on the size of the export. The answer cursors are not filtered, as a join would cost the index
+ * order; answers of assessments outside the filter are skipped while merging.
+ */
+@Service
+public class ExportService {
+
+    public static final String FORMAT_CSV = "csv";
+
+    public static final String FORMAT_JSONL = "jsonl";
+
+    public static final String KIND_AREA = "AREA";
+
+    public static final String KIND_REQUIREMENT = "REQUIREMENT";
+
+    public static final String[] CSV_COLUMNS = {
+            "assessment_id", "assessment_name", "assessment_description", "assessment_status",
+            "created_at", "updated_at", "kind", "item_id", "chapter", "area", "requirement", "value", "comment"
+    };
+
+    // Each query reads in assessment id order straight from an index, so none of them needs a sort
+    static final String SELECT_ASSESSMENTS =
+            "SELECT a.id, a.name, a.description, a.status, a.created_at, a.updated_at FROM assessments a %s " +
+            "ORDER BY a.id";
+
+    static final String SELECT_AREA_SCORES =
+            "SELECT s.assessment_id, s.area_id, s.score, s.comment FROM %s s ORDER BY s.assessment_id";
+
+    static final String SELECT_RESPONSES =
+            "SELECT r.assessment_id, r.requirement_id, r.value, r.comment FROM %s r ORDER BY r.assessment_id";
+
+    // Leading characters that make spreadsheet applications evaluate a cell as a formula
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    // Flushing every few assessments keeps output flowing without a syscall per row
+    private static final int FLUSH_EVERY = 50;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int fetchSize;
+
+    public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(String format, String status, OutputStream out) throws IOException {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        AssessmentSink sink = FORMAT_JSONL.equals(format)
+                ? new JsonLinesSink(objectMapper.getFactory().createGenerator(writer))
+                : new CsvSink(writer);
+
+        List<Object> params = new ArrayList<>();
+        String where = "";
+        if (status != null && !status.isEmpty()) {
+            where = "WHERE a.status = ?";
+            params.add(status);
+        }
+        String assessmentsSql = String.format(SELECT_ASSESSMENTS, where);
+        String areaScoresSql = String.format(SELECT_AREA_SCORES, answerTables.areaScores());
+        String responsesSql = String.format(SELECT_RESPONSES, answerTables.responses());
+
+        try {
+            sink.begin();
+            // PostgreSQL keeps several cursors open on one connection only inside a transaction
+            readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement assessments = prepare(connection, assessmentsSql, params);
+                     PreparedStatement areaScores = prepare(connection, areaScoresSql, List.of());
+                     PreparedStatement responses = prepare(connection, responsesSql, List.of());
+                     ResultSet rs = assessments.executeQuery();
+                     AnswerCursor areaCursor = new AnswerCursor(areaScores.executeQuery());
+                     AnswerCursor responseCursor = new AnswerCursor(responses.executeQuery())) {
+                    int written = 0;
+                    while (rs.next()) {
+                        ExportedAssessment current = new ExportedAssessment(rs.getLong(1), rs.getString(2),
+                                rs.getString(3), rs.getString(4), rs.getObject(5, LocalDateTime.class),
+                                rs.getObject(6, LocalDateTime.class), new AnswerSet(catalog));
+                        areaCursor.readInto(current.id, current.answers::setAreaScore);
+                        responseCursor.readInto(current.id, current.answers::setResponse);
+                        write(sink, current, ++written);
+                    }
+                }
+                return null;
+            }));
+            sink.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, List<Object> params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setFetchSize(fetchSize);
+        for (int i = 0; i < params.size(); i++) {
+            statement.setObject(i + 1, params.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Prefixes cells that a spreadsheet would evaluate as a formula with an apostrophe. Values that already
+     * start with apostrophes before such a character get one more, so {@link #unescapeCell} restores
+     * every value exactly.
+     */
+    public static String escapeCell(String value) {
+        return startsFormula(value) ? "'" + value : value;
+    }
+
+    public static String unescapeCell(String value) {
+        return value.startsWith("'") && startsFormula(value) ? value.substring(1) : value;
+    }
+
+    private static boolean startsFormula(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        return i < value.length() && FORMULA_START.indexOf(value.charAt(i)) >= 0;
+    }
+
+    private void write(AssessmentSink sink, ExportedAssessment assessment, int written) {
+        try {
+            sink.write(assessment);
+            if (written % FLUSH_EVERY == 0) {
+                sink.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface AnswerConsumer {
+        void accept(long itemId, String value, String comment);
+    }
+
+    /**
+     * Answers ordered by assessment id; each assessment takes its rows and skips those of assessments that
+     * were filtered out.
+     */
+    private static final class AnswerCursor implements AutoCloseable {
+        private final ResultSet rs;
+        private boolean hasRow;
+
+        private AnswerCursor(ResultSet rs) throws SQLException {
+            this.rs = rs;
+            this.hasRow = rs.next();
+        }
+
+        private void readInto(long assessmentId, AnswerConsumer consumer) throws SQLException {
+            while (hasRow && rs.getLong(1) < assessmentId) {
+                hasRow = rs.next();
+            }
+            while (hasRow && rs.getLong(1) == assessmentId) {
+                consumer.accept(rs.getLong(2), rs.getString(3), rs.getString(4));
+                hasRow = rs.next();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            rs.close();
+        }
+    }
+
+    private static final class ExportedAssessment {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final String status;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final AnswerSet answers;
+
+        private ExportedAssessment(long id, String name, String description, String status,
+                                   LocalDateTime createdAt, LocalDateTime updatedAt, AnswerSet answers) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.answers = answers;
+        }
+    }
+
+    private interface AssessmentSink {
+        void begin() throws IOException;
+
+        void write(ExportedAssessment assessment) throws IOException;
+
+        void flush() throws IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * One line per answer, in catalog order; an assessment without answers gets a single line with
+     * empty answer columns. The columns match what the import endpoint reads back.
+     */
+    private static final class CsvSink implements AssessmentSink {
+        private final Writer writer;
+
+        private CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(CSV_COLUMNS[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ExportedAssessment assessment) throws IOException {
+            AnswerSet answers = assessment.answers;
+            QuestionnaireCatalog catalog = answers.getCatalog();
+            boolean any = false;
+
+            for (int c = 0; c < catalog.chapterCount(); c++) {
+                for (int a = catalog.firstArea(c); a < catalog.endArea(c); a++) {
+                    if (answers.hasAreaScore(a)) {
+                        row(assessment, KIND_AREA, catalog.areaId(a), catalog.chapterName(c), catalog.areaName(a), null,
+                                answers.score(a), answers.areaComment(a));
+                        any = true;
+                    }
+                    for (int r = catalog.firstRequirement(a); r < catalog.endRequirement(a); r++) {
+                        if (answers.hasResponse(r)) {
+                            row(assessment, KIND_REQUIREMENT, catalog.requirementId(r), catalog.chapterName(c),
+                                    catalog.areaName(a), catalog.requirementText(r), answers.value(r), answers.comment(r));
+                            any = true;
+                        }
+                    }
+                }
+            }
+
+            if (!any) {
+                row(assessment, null, null, null, null, null, null, null);
+            }
+        }
+
+        private void row(ExportedAssessment assessment, String kind, Long itemId, String chapter, String area,
+                         String requirement, String value, String comment) throws IOException {
+            writer.write(Long.toString(assessment.id));
+            field(assessment.name);
+            field(assessment.description);
+            field(assessment.status);
+            field(assessment.createdAt != null ? assessment.createdAt.toString() : null);
+            field(assessment.updatedAt != null ? assessment.updatedAt.toString() : null);
+            field(kind);
+            field(itemId != null ? itemId.toString() : null);
+            field(chapter);
+            field(area);
+            field(requirement);
+            field(value);
+            field(comment);
+            writer.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            value = escapeCell(value);
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line in the shape of AssessmentDto, listing only answered areas and
+     * requirements so each line stays proportional to the answers it carries.
+     */
+    private static final class JsonLinesSink implements AssessmentSink {
+        private final JsonGenerator json;
+
+        private JsonLinesSink(JsonGenerator json) {
+            this.json = json;
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(ExportedAssessment assessment) throws IOException {
+            AnswerSet answers = assessment.answers;
+            QuestionnaireCatalog catalog = answers.getCatalog();
+
+            json.writeStartObject();
+            json.writeNumberField("id", assessment.id);
+            json.writeStringField("name", assessment.name);
+            json.writeStringField("description", assessment.description);
+            json.writeStringField("status", assessment.status);
+            json.writeStringField("createdAt", assessment.createdAt != null ? assessment.createdAt.toString() : null);
+            json.writeStringField("updatedAt", assessment.updatedAt != null ? assessment.updatedAt.toString() : null);
+            json.writeArrayFieldStart("chapters");
+
+            for (int c = 0; c < catalog.chapterCount(); c++) {
+                boolean chapterOpen = false;
+                for (int a = catalog.firstArea(c); a < catalog.endArea(c); a++) {
+                    if (!answers.hasAreaScore(a) && !hasResponses(answers, a)) {
+                        continue;
+                    }
+                    if (!chapterOpen) {
+                        json.writeStartObject();
+                        json.writeNumberField("id", catalog.chapterId(c));
+                        json.writeStringField("name", catalog.chapterName(c));
+                        json.writeArrayFieldStart("areas");
+                        chapterOpen = true;
+                    }
+
+                    json.writeStartObject();
+                    json.writeNumberField("id", catalog.areaId(a));
+                    json.writeStringField("name", catalog.areaName(a));
+                    json.writeStringField("score", answers.hasAreaScore(a) ? answers.score(a) : "");
+                    json.writeStringField("comment", answers.hasAreaScore(a) ? answers.areaComment(a) : "");
+                    json.writeArrayFieldStart("requirements");
+                    for (int r = catalog.firstRequirement(a); r < catalog.endRequirement(a); r++) {
+                        if (answers.hasResponse(r)) {
+                            json.writeStartObject();
+                            json.writeNumberField("id", catalog.requirementId(r));
+                            json.writeStringField("text", catalog.requirementText(r));
+                            json.writeStringField("value", answers.value(r));
+                            json.writeStringField("comment", answers.comment(r));
+                            json.writeEndObject();
+                        }
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+                if (chapterOpen) {
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private boolean hasResponses(AnswerSet answers, int area) {
+            QuestionnaireCatalog catalog = answers.getCatalog();
+            for (int r = catalog.firstRequirement(area); r < catalog.endRequirement(area); r++) {
+                if (answers.hasResponse(r)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.flush();
+        }
+    }
+}
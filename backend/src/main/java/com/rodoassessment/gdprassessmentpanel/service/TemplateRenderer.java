@@ -0,0 +1,158 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized assessment template for the current catalog version, both as plain JSON
+ * and gzip-compressed, so the template endpoint only copies bytes.
+ */
+@Service
+public class TemplateRenderer {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AssessmentLoader assessmentLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicReference<RenderedTemplate> current = new AtomicReference<>();
+
+    public RenderedTemplate getTemplate() {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        RenderedTemplate template = current.get();
+        if (template == null || template.getCatalogVersion() != catalog.getVersion()) {
+            // Concurrent renders of the same version produce identical bytes, so the last one simply wins
+            template = render(catalog);
+            current.set(template);
+        }
+        return template;
+    }
+
+    private RenderedTemplate render(QuestionnaireCatalog catalog) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(assessmentLoader.loadTemplate(catalog));
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(identity);
+            }
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+            String tag = HexFormat.of().formatHex(digest, 0, 16);
+
+            return new RenderedTemplate(catalog.getVersion(), catalog.getContentHash(), identity,
+                    compressed.toByteArray(), "\"" + tag + "\"", "\"" + tag + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error: Cannot serialize assessment template.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class RenderedTemplate {
+        private final long catalogVersion;
+        private final String catalogHash;
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final String identityETag;
+        private final String gzipETag;
+
+        RenderedTemplate(long catalogVersion, String catalogHash, byte[] identity, byte[] gzip,
+                         String identityETag, String gzipETag) {
+            this.catalogVersion = catalogVersion;
+            this.catalogHash = catalogHash;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.identityETag = identityETag;
+            this.gzipETag = gzipETag;
+        }
+
+        public long getCatalogVersion() {
+            return catalogVersion;
+        }
+
+        /** Content hash of the catalog the template was rendered from, sent as the catalog version. */
+        public String getCatalogHash() {
+            return catalogHash;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getIdentityETag() {
+            return identityETag;
+        }
+
+        public String getGzipETag() {
+            return gzipETag;
+        }
+
+        /**
+         * Matches an If-None-Match header against either variant. Both tags identify the same
+         * representation content, so a client holding either one has an up-to-date template.
+         * If-None-Match uses the weak comparison of RFC 9110, so a {@code W/} prefix is ignored,
+         * and {@code *} matches any current representation.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            if (ifNoneMatch.trim().equals("*")) {
+                return true;
+            }
+            int i = 0;
+            int length = ifNoneMatch.length();
+            while (i < length) {
+                char c = ifNoneMatch.charAt(i);
+                if (c == ',' || c == ' ' || c == '\t') {
+                    i++;
+                    continue;
+                }
+                if (ifNoneMatch.startsWith("W/", i)) {
+                    i += 2;
+                }
+                if (i < length && ifNoneMatch.charAt(i) == '"') {
+                    // An opaque tag may contain commas, so it runs up to the closing quote
+                    int end = ifNoneMatch.indexOf('"', i + 1);
+                    if (end < 0) {
+                        return false;
+                    }
+                    String tag = ifNoneMatch.substring(i, end + 1);
+                    if (tag.equals(identityETag) || tag.equals(gzipETag)) {
+                        return true;
+                    }
+                    i = end + 1;
+                } else {
+                    // Not an entity tag, skip to the next list member
+                    int next = ifNoneMatch.indexOf(',', i);
+                    i = next < 0 ? length : next + 1;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.BulkUserReportDto;
+import com.rodoassessment.gdprassessmentpanel.dto.SignupRequest;
+import com.rodoassessment.gdprassessmentpanel.model.Role;
+import com.rodoassessment.gdprassessmentpanel.repository.RoleRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.UserProvisioningRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Creates many users in one request. Uniqueness against existing users is checked with one query for the
+ * whole payload, roles come from a cached name-to-id map, passwords are hashed in parallel on the provisioning
+ * pool and users are written in chunks, each in one transaction with two JDBC batches. Every user gets
+ * its own result, so invalid or duplicate entries do not stop the rest.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private static final String ROLE_USER = "ROLE_USER";
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    @Autowired
+    private UserProvisioningRepository userProvisioningRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    @Qualifier("provisioningExecutor")
+    private TaskExecutor provisioningExecutor;
+
+    @Value("${app.provisioning.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.provisioning.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.provisioning.max-users:10000}")
+    private int maxUsers;
+
+    // Role names rarely change, so they are read once; an unknown name triggers a reload
+    private volatile Map<String, Long> roleIds;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserProvisioningService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkUserReportDto provision(List<SignupRequest> users) {
+        if (users.size() > maxUsers) {
+            throw new IllegalArgumentException("Error: At most " + maxUsers + " users can be created at once.");
+        }
+        long start = System.nanoTime();
+
+        BulkUserReportDto report = new BulkUserReportDto();
+        report.setReceived(users.size());
+        List<PendingUser> pending = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            SignupRequest request = users.get(i);
+            BulkUserReportDto.UserResultDto result = new BulkUserReportDto.UserResultDto();
+            result.setIndex(i);
+            result.setUsername(request != null ? request.getUsername() : null);
+            report.getResults().add(result);
+            if (request == null) {
+                result.getMessages().add("Error: User is empty.");
+            } else {
+                validate(request, result.getMessages());
+                pending.add(new PendingUser(request, result));
+            }
+        }
+
+        checkUniqueness(pending);
+        resolveRoles(pending);
+        pending.removeIf(user -> !user.result.getMessages().isEmpty());
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<PendingUser> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            hashInParallel(chunk);
+            writeChunk(chunk);
+        }
+
+        for (BulkUserReportDto.UserResultDto result : report.getResults()) {
+            if (result.getMessages().isEmpty()) {
+                result.setStatus(BulkUserReportDto.STATUS_CREATED);
+                report.setCreated(report.getCreated() + 1);
+            } else {
+                result.setStatus(BulkUserReportDto.STATUS_FAILED);
+                report.setFailed(report.getFailed() + 1);
+            }
+        }
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        logger.info("Provisioned {} of {} users in {} ms", report.getCreated(), report.getReceived(),
+                report.getElapsedMs());
+        return report;
+    }
+
+    private void validate(SignupRequest request, List<String> messages) {
+        // Sorted, so the report does not depend on the validator's iteration order
+        Set<String> violations = new TreeSet<>();
+        for (ConstraintViolation<SignupRequest> violation : validator.validate(request)) {
+            violations.add("Error: " + violation.getPropertyPath() + " " + violation.getMessage() + ".");
+        }
+        messages.addAll(violations);
+    }
+
+    private void checkUniqueness(List<PendingUser> pending) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingUser user : pending) {
+            if (user.result.getMessages().isEmpty()) {
+                if (!usernames.add(user.request.getUsername())) {
+                    user.result.getMessages().add("Error: Username is repeated in the request.");
+                }
+                if (!emails.add(user.request.getEmail())) {
+                    user.result.getMessages().add("Error: Email is repeated in the request.");
+                }
+            }
+        }
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        userProvisioningRepository.findTaken(usernames, emails, takenUsernames, takenEmails);
+        for (PendingUser user : pending) {
+            if (takenUsernames.contains(user.request.getUsername())) {
+                user.result.getMessages().add("Error: Username is already taken!");
+            }
+            if (takenEmails.contains(user.request.getEmail())) {
+                user.result.getMessages().add("Error: Email is already in use!");
+            }
+        }
+    }
+
+    // Same role names as sign-up: "admin" grants ROLE_ADMIN, anything else ROLE_USER
+    private void resolveRoles(List<PendingUser> pending) {
+        for (PendingUser user : pending) {
+            Set<String> names = new HashSet<>();
+            if (user.request.getRoles() == null) {
+                names.add(ROLE_USER);
+            } else {
+                user.request.getRoles().forEach(role -> names.add("admin".equals(role) ? ROLE_ADMIN : ROLE_USER));
+            }
+            for (String name : names) {
+                Long roleId = roleId(name);
+                if (roleId == null) {
+                    user.result.getMessages().add("Error: Role is not found.");
+                } else {
+                    user.roleIds.add(roleId);
+                }
+            }
+        }
+    }
+
+    private Long roleId(String name) {
+        Map<String, Long> ids = roleIds;
+        if (ids == null || !ids.containsKey(name)) {
+            Map<String, Long> loaded = new HashMap<>();
+            for (Role role : roleRepository.findAll()) {
+                loaded.put(role.getName(), role.getId());
+            }
+            roleIds = loaded;
+            ids = loaded;
+        }
+        return ids.get(name);
+    }
+
+    private void hashInParallel(List<PendingUser> chunk) {
+        int workers = Math.max(1, Math.min(parallelism, chunk.size()));
+        int step = (chunk.size() + workers - 1) / workers;
+
+        List<CompletableFuture<Void>> slices = new ArrayList<>(workers);
+        for (int from = 0; from < chunk.size(); from += step) {
+            List<PendingUser> slice = chunk.subList(from, Math.min(from + step, chunk.size()));
+            slices.add(CompletableFuture.runAsync(() -> slice.forEach(
+                    user -> user.passwordHash = passwordEncoder.encode(user.request.getPassword())),
+                    provisioningExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void writeChunk(List<PendingUser> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<Long> ids = userProvisioningRepository.nextUserIds(chunk.size());
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+                List<Object[]> users = new ArrayList<>(chunk.size());
+                List<Object[]> userRoles = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    PendingUser user = chunk.get(i);
+                    Long id = ids.get(i);
+                    users.add(new Object[] {id, user.request.getUsername(), user.request.getEmail(), user.passwordHash,
+                            now, now});
+                    for (Long roleId : user.roleIds) {
+                        userRoles.add(new Object[] {id, roleId});
+                    }
+                    user.result.setId(id);
+                }
+
+                userProvisioningRepository.insertUsers(users);
+                userProvisioningRepository.insertUserRoles(userRoles);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            // Typically a user created concurrently with the same username or email
+            logger.warn("Provisioning chunk of {} users rolled back: {}", chunk.size(), e.getMessage());
+            String message = "Error: Chunk could not be written: " + e.getMostSpecificCause().getMessage();
+            for (PendingUser user : chunk) {
+                user.result.setId(null);
+                user.result.getMessages().add(message);
+            }
+        }
+    }
+
+    private static class PendingUser {
+        private final SignupRequest request;
+        private final BulkUserReportDto.UserResultDto result;
+        private final Set<Long> roleIds = new HashSet<>();
+        private String passwordHash;
+
+        PendingUser(SignupRequest request, BulkUserReportDto.UserResultDto result) {
+            this.request = request;
+            this.result = result;
+        }
+    }
+}
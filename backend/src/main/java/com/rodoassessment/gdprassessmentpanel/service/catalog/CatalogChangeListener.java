@@ -0,0 +1,90 @@
+package com.rodoassessment.gdprassessmentpanel.service.catalog;
+
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate event listener for chapters, areas and requirements. Any change schedules a single catalog
+ * reload after the surrounding transaction commits, so the new snapshot only ever reflects committed data.
+ * Registered with Hibernate directly rather than as a JPA entity listener, so the entities do not depend
+ * on the service layer.
+ */
+@Component
+public class CatalogChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    void onChange(Object entity) {
+        if (!(entity instanceof Chapter || entity instanceof Area || entity instanceof Requirement)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogService.reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeListener.this);
+                if (status == STATUS_COMMITTED) {
+                    catalogService.reload();
+                }
+            }
+        });
+    }
+}
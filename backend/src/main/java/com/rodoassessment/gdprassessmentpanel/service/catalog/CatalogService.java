@@ -0,0 +1,97 @@
+package com.rodoassessment.gdprassessmentpanel.service.catalog;
+
+import com.rodoassessment.gdprassessmentpanel.repository.AreaRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ChapterRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.RequirementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class CatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private RequirementRepository requirementRepository;
+
+    private final AtomicReference<QuestionnaireCatalog> current = new AtomicReference<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CatalogService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Reloads are triggered from after-commit callbacks, where the finished transaction is still bound
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (current.get() == null) {
+            reload();
+        }
+    }
+
+    /**
+     * Returns the current snapshot. Readers never wait for a rebuild in progress; they keep
+     * seeing the previous snapshot until the new one has been fully built and swapped in.
+     */
+    public QuestionnaireCatalog getCatalog() {
+        QuestionnaireCatalog catalog = current.get();
+        return catalog != null ? catalog : loadInitial();
+    }
+
+    public long getVersion() {
+        return getCatalog().getVersion();
+    }
+
+    public QuestionnaireCatalog reload() {
+        // A lock rather than synchronized, so a virtual thread waiting on the database does not pin its carrier
+        reloadLock.lock();
+        try {
+            long nextVersion = version.incrementAndGet();
+            QuestionnaireCatalog catalog = readOnlyTransaction.execute(status -> QuestionnaireCatalog.of(
+                    nextVersion,
+                    chapterRepository.findAllByOrderByOrderNumberAsc(),
+                    areaRepository.findAllByOrderByOrderNumberAsc(),
+                    requirementRepository.findAllByOrderByOrderNumberAsc()));
+            current.set(catalog);
+            logger.info("Loaded questionnaire catalog version {}: {} chapters, {} areas, {} requirements",
+                    catalog.getVersion(), catalog.chapterCount(), catalog.areaCount(), catalog.requirementCount());
+            return catalog;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private QuestionnaireCatalog loadInitial() {
+        reloadLock.lock();
+        try {
+            QuestionnaireCatalog catalog = current.get();
+            return catalog != null ? catalog : reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
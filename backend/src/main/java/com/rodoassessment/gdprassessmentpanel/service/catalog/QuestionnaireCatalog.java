@@ -0,0 +1,326 @@
+package com.rodoassessment.gdprassessmentpanel.service.catalog;
+
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the chapter -> area -> requirement tree.
+ *
+ * Every level is flattened into parallel arrays in catalog order (chapters by orderNumber, then areas
+ * by orderNumber within their chapter, then requirements by orderNumber within their area). An element
+ * is addressed by its position in those arrays; the children of a chapter or area form the contiguous
+ * range {@code [first(i), first(i + 1))}. Ids are mapped to positions through hash maps, as ids may be sparse.
+ *
+ * The version numbers the snapshots loaded by one instance; the content hash identifies the content itself,
+ * so it is the same on every instance and after a restart, and is what clients compare.
+ */
+public final class QuestionnaireCatalog {
+
+    private final long version;
+
+    private final String contentHash;
+
+    private final long[] chapterIds;
+    private final String[] chapterNames;
+    private final String[] chapterDescriptions;
+    private final int[] chapterOrderNumbers;
+    private final int[] chapterFirstArea;
+
+    private final long[] areaIds;
+    private final String[] areaNames;
+    private final String[] areaDescriptions;
+    private final int[] areaOrderNumbers;
+    private final int[] areaChapter;
+    private final int[] areaFirstRequirement;
+
+    private final long[] requirementIds;
+    private final String[] requirementTexts;
+    private final int[] requirementOrderNumbers;
+    private final int[] requirementArea;
+
+    private final Map<Long, Integer> chapterPositionById;
+    private final Map<Long, Integer> areaPositionById;
+    private final Map<Long, Integer> requirementPositionById;
+
+    private QuestionnaireCatalog(long version, List<Chapter> chapters, List<List<Area>> areas,
+                                 List<List<Requirement>> requirements, int areaCount, int requirementCount) {
+        this.version = version;
+
+        int chapterCount = chapters.size();
+        chapterIds = new long[chapterCount];
+        chapterNames = new String[chapterCount];
+        chapterDescriptions = new String[chapterCount];
+        chapterOrderNumbers = new int[chapterCount];
+        chapterFirstArea = new int[chapterCount + 1];
+
+        areaIds = new long[areaCount];
+        areaNames = new String[areaCount];
+        areaDescriptions = new String[areaCount];
+        areaOrderNumbers = new int[areaCount];
+        areaChapter = new int[areaCount];
+        areaFirstRequirement = new int[areaCount + 1];
+
+        requirementIds = new long[requirementCount];
+        requirementTexts = new String[requirementCount];
+        requirementOrderNumbers = new int[requirementCount];
+        requirementArea = new int[requirementCount];
+
+        int a = 0;
+        int r = 0;
+        for (int c = 0; c < chapterCount; c++) {
+            Chapter chapter = chapters.get(c);
+            chapterIds[c] = chapter.getId();
+            chapterNames[c] = chapter.getName();
+            chapterDescriptions[c] = chapter.getDescription();
+            chapterOrderNumbers[c] = chapter.getOrderNumber();
+            chapterFirstArea[c] = a;
+
+            for (Area area : areas.get(c)) {
+                areaIds[a] = area.getId();
+                areaNames[a] = area.getName();
+                areaDescriptions[a] = area.getDescription();
+                areaOrderNumbers[a] = area.getOrderNumber();
+                areaChapter[a] = c;
+                areaFirstRequirement[a] = r;
+
+                for (Requirement req : requirements.get(a)) {
+                    requirementIds[r] = req.getId();
+                    requirementTexts[r] = req.getText();
+                    requirementOrderNumbers[r] = req.getOrderNumber();
+                    requirementArea[r] = a;
+                    r++;
+                }
+                a++;
+            }
+        }
+        chapterFirstArea[chapterCount] = a;
+        areaFirstRequirement[areaCount] = r;
+
+        chapterPositionById = positionsById(chapterIds);
+        areaPositionById = positionsById(areaIds);
+        requirementPositionById = positionsById(requirementIds);
+
+        contentHash = hashContent();
+    }
+
+    private String hashContent() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DataOutputStream out = new DataOutputStream(
+                    new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                out.writeInt(chapterIds.length);
+                for (int c = 0; c < chapterIds.length; c++) {
+                    out.writeLong(chapterIds[c]);
+                    writeText(out, chapterNames[c]);
+                    writeText(out, chapterDescriptions[c]);
+                    out.writeInt(chapterOrderNumbers[c]);
+                    out.writeInt(chapterFirstArea[c + 1]);
+                }
+                for (int a = 0; a < areaIds.length; a++) {
+                    out.writeLong(areaIds[a]);
+                    writeText(out, areaNames[a]);
+                    writeText(out, areaDescriptions[a]);
+                    out.writeInt(areaOrderNumbers[a]);
+                    out.writeInt(areaFirstRequirement[a + 1]);
+                }
+                for (int r = 0; r < requirementIds.length; r++) {
+                    out.writeLong(requirementIds[r]);
+                    writeText(out, requirementTexts[r]);
+                    out.writeInt(requirementOrderNumbers[r]);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Length-prefixed, so adjacent texts cannot run into each other; -1 tells null from empty
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        if (text == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static QuestionnaireCatalog of(long version, List<Chapter> chapters, List<Area> areas,
+                                          List<Requirement> requirements) {
+        chapters.forEach(chapter -> requireOrderNumber(chapter.getOrderNumber(), "chapter", chapter.getId()));
+        areas.forEach(area -> requireOrderNumber(area.getOrderNumber(), "area", area.getId()));
+        requirements.forEach(req -> requireOrderNumber(req.getOrderNumber(), "requirement", req.getId()));
+
+        List<Chapter> sortedChapters = new ArrayList<>(chapters);
+        sortedChapters.sort(Comparator.comparing(Chapter::getOrderNumber).thenComparing(Chapter::getId));
+
+        Map<Long, List<Area>> areasByChapter = new HashMap<>();
+        for (Area area : areas) {
+            areasByChapter.computeIfAbsent(area.getChapter().getId(), k -> new ArrayList<>()).add(area);
+        }
+        Map<Long, List<Requirement>> requirementsByArea = new HashMap<>();
+        for (Requirement req : requirements) {
+            requirementsByArea.computeIfAbsent(req.getArea().getId(), k -> new ArrayList<>()).add(req);
+        }
+
+        // Areas and requirements whose parent is missing never become reachable from the tree, so they are dropped
+        List<List<Area>> orderedAreas = new ArrayList<>(sortedChapters.size());
+        List<List<Requirement>> orderedRequirements = new ArrayList<>();
+        int requirementCount = 0;
+        for (Chapter chapter : sortedChapters) {
+            List<Area> chapterAreas = areasByChapter.getOrDefault(chapter.getId(), new ArrayList<>());
+            chapterAreas.sort(Comparator.comparing(Area::getOrderNumber).thenComparing(Area::getId));
+            orderedAreas.add(chapterAreas);
+
+            for (Area area : chapterAreas) {
+                List<Requirement> areaRequirements = requirementsByArea.getOrDefault(area.getId(), new ArrayList<>());
+                areaRequirements.sort(Comparator.comparing(Requirement::getOrderNumber)
+                        .thenComparing(Requirement::getId));
+                orderedRequirements.add(areaRequirements);
+                requirementCount += areaRequirements.size();
+            }
+        }
+
+        return new QuestionnaireCatalog(version, sortedChapters, orderedAreas, orderedRequirements,
+                orderedRequirements.size(), requirementCount);
+    }
+
+    // order_number is NOT NULL in the schema; a missing one would put the item at an arbitrary position
+    private static void requireOrderNumber(Integer orderNumber, String kind, Long id) {
+        if (orderNumber == null) {
+            throw new IllegalStateException("Error: The " + kind + " " + id + " has no order number.");
+        }
+    }
+
+    private static Map<Long, Integer> positionsById(long[] ids) {
+        Map<Long, Integer> positions = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+        }
+        return positions;
+    }
+
+    private static int lookup(Map<Long, Integer> positionsById, Long id) {
+        Integer position = id != null ? positionsById.get(id) : null;
+        return position != null ? position : -1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int chapterCount() {
+        return chapterIds.length;
+    }
+
+    public int areaCount() {
+        return areaIds.length;
+    }
+
+    public int requirementCount() {
+        return requirementIds.length;
+    }
+
+    public int chapterPosition(Long chapterId) {
+        return lookup(chapterPositionById, chapterId);
+    }
+
+    public int areaPosition(Long areaId) {
+        return lookup(areaPositionById, areaId);
+    }
+
+    public int requirementPosition(Long requirementId) {
+        return lookup(requirementPositionById, requirementId);
+    }
+
+    public long chapterId(int chapter) {
+        return chapterIds[chapter];
+    }
+
+    public String chapterName(int chapter) {
+        return chapterNames[chapter];
+    }
+
+    public String chapterDescription(int chapter) {
+        return chapterDescriptions[chapter];
+    }
+
+    public int chapterOrderNumber(int chapter) {
+        return chapterOrderNumbers[chapter];
+    }
+
+    public int firstArea(int chapter) {
+        return chapterFirstArea[chapter];
+    }
+
+    public int endArea(int chapter) {
+        return chapterFirstArea[chapter + 1];
+    }
+
+    public long areaId(int area) {
+        return areaIds[area];
+    }
+
+    public String areaName(int area) {
+        return areaNames[area];
+    }
+
+    public String areaDescription(int area) {
+        return areaDescriptions[area];
+    }
+
+    public int areaOrderNumber(int area) {
+        return areaOrderNumbers[area];
+    }
+
+    public int areaChapter(int area) {
+        return areaChapter[area];
+    }
+
+    public int firstRequirement(int area) {
+        return areaFirstRequirement[area];
+    }
+
+    public int endRequirement(int area) {
+        return areaFirstRequirement[area + 1];
+    }
+
+    public long requirementId(int requirement) {
+        return requirementIds[requirement];
+    }
+
+    public String requirementText(int requirement) {
+        return requirementTexts[requirement];
+    }
+
+    public int requirementOrderNumber(int requirement) {
+        return requirementOrderNumbers[requirement];
+    }
+
+    public int requirementArea(int requirement) {
+        return requirementArea[requirement];
+    }
+}
@@ -0,0 +1,257 @@
+package com.rodoassessment.gdprassessmentpanel.service.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans assessment events out to the server-sent event streams subscribed to each assessment. Publishing
+ * only offers the event to a bounded queue per subscriber and never touches a connection, so writers are
+ * never held up by clients. A subscriber whose queue is full is dropped and its stream closed; the client
+ * reconnects and reloads the assessment. Queues are drained on the event executor, at most one task per
+ * subscriber at a time. Subscribers are local to this instance.
+ */
+@Component
+public class AssessmentEventBroadcaster {
+
+    public static final String EVENT_CHANGE = "change";
+
+    public static final String EVENT_DELETED = "deleted";
+
+    private static final Logger logger = LoggerFactory.getLogger(AssessmentEventBroadcaster.class);
+
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    @Autowired
+    @Qualifier("eventExecutor")
+    private TaskExecutor eventExecutor;
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.events.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    public void init() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        List<Subscriber> open = new ArrayList<>();
+        subscribers.values().forEach(open::addAll);
+        open.forEach(Subscriber::drop);
+    }
+
+    public SseEmitter subscribe(Long assessmentId) {
+        Subscriber subscriber = new Subscriber(assessmentId, new SseEmitter(timeout.toMillis()),
+                new ArrayBlockingQueue<>(bufferSize));
+        subscribers.compute(assessmentId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::expire);
+        subscriber.emitter.onError(e -> subscriber.close());
+        // Buffered by the emitter and written by the request thread when the stream starts, so the client knows
+        // it is subscribed; sending it from the event executor would race with the filters still writing headers
+        try {
+            subscriber.send(HEARTBEAT);
+        } catch (IOException e) {
+            subscriber.close();
+            throw new IllegalStateException("Error: Event stream could not be started.", e);
+        }
+        return subscriber.emitter;
+    }
+
+    public boolean hasSubscribers(Long assessmentId) {
+        return subscribers.containsKey(assessmentId);
+    }
+
+    /**
+     * Publishes once the surrounding transaction has committed, so subscribers never see a change that was
+     * rolled back and a client reloading on an event always reads the new state.
+     */
+    public void publishAfterCommit(Long assessmentId, String name, Object data) {
+        if (!hasSubscribers(assessmentId)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(assessmentId, name, data);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(assessmentId, name, data);
+            }
+        });
+    }
+
+    public void publish(Long assessmentId, String name, Object data) {
+        Set<Subscriber> targets = subscribers.get(assessmentId);
+        if (targets == null) {
+            return;
+        }
+        Message message = new Message(name, data);
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(message);
+        }
+    }
+
+    private void sendHeartbeats() {
+        // Also detects connections closed by the client, which only fail on the next write
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.assessmentId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private record Message(String name, Object data) {
+    }
+
+    private class Subscriber {
+
+        private final Long assessmentId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Message> queue;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private volatile boolean completed;
+
+        Subscriber(Long assessmentId, SseEmitter emitter, BlockingQueue<Message> queue) {
+            this.assessmentId = assessmentId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                logger.debug("Dropping a slow event subscriber of assessment {}", assessmentId);
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        // Closes the stream from the sender side; apart from a timeout only the draining task touches the emitter
+        void drop() {
+            close();
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            remove(this);
+        }
+
+        // Called by the container, which expects the stream to be completed on timeout
+        void expire() {
+            close();
+            completed = true;
+            emitter.complete();
+        }
+
+        private void schedule() {
+            if (completed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                eventExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!closed && (message = queue.poll()) != null) {
+                    send(message);
+                    if (EVENT_DELETED.equals(message.name())) {
+                        close();
+                    }
+                }
+                if (closed && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                // The client went away (IOException) or the stream already ended; the container cleans up
+                completed = true;
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!completed && (closed || !queue.isEmpty())) {
+                schedule();
+            }
+        }
+
+        private void send(Message message) throws IOException {
+            if (message == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment(""));
+            } else {
+                emitter.send(SseEmitter.event().name(message.name()).data(message.data(), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+}
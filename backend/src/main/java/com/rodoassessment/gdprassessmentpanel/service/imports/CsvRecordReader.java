@@ -0,0 +1,209 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the CSV layout produced by the export: one row per answer, with consecutive rows sharing an
+ * assessment_id forming one assessment. Columns are matched by header name, so spreadsheets may
+ * reorder or omit the descriptive ones (chapter, area, requirement). Cells the export prefixed to keep
+ * spreadsheets from evaluating them as formulas are read back without the prefix.
+ */
+public class CsvRecordReader implements ImportRecordReader {
+
+    private final Reader reader;
+
+    private Map<String, Integer> columns;
+
+    private List<String> pending;
+
+    private long pendingLine;
+
+    private long line = 1;
+
+    private int record;
+
+    private int lookahead = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (columns == null && !readHeader()) {
+            return null;
+        }
+        if (pending == null) {
+            pendingLine = line;
+            pending = readRow();
+            if (pending == null) {
+                return null;
+            }
+        }
+
+        ImportRecord importRecord = new ImportRecord();
+        importRecord.setRecord(++record);
+        importRecord.setLine(pendingLine);
+
+        String key = column(pending, "assessment_id");
+        importRecord.setName(column(pending, "assessment_name"));
+        importRecord.setDescription(column(pending, "assessment_description"));
+        importRecord.setStatus(column(pending, "assessment_status"));
+        importRecord.setCreatedAt(column(pending, "created_at"));
+        importRecord.setUpdatedAt(column(pending, "updated_at"));
+
+        if (key == null) {
+            importRecord.getErrors().add("Error: Missing assessment_id.");
+        }
+
+        do {
+            addAnswer(importRecord, pending, pendingLine);
+            pendingLine = line;
+            pending = readRow();
+        } while (pending != null && key != null && key.equals(column(pending, "assessment_id")));
+
+        return importRecord;
+    }
+
+    private void addAnswer(ImportRecord importRecord, List<String> row, long rowLine) {
+        String kind = column(row, "kind");
+        if (kind == null) {
+            return;
+        }
+
+        Long itemId = null;
+        String rawItemId = column(row, "item_id");
+        try {
+            itemId = rawItemId != null ? Long.valueOf(rawItemId) : null;
+        } catch (NumberFormatException e) {
+            // reported below together with a missing id
+        }
+        if (itemId == null) {
+            importRecord.getErrors().add("Error: Invalid item_id on line " + rowLine + ".");
+            return;
+        }
+
+        String value = column(row, "value");
+        if (value == null) {
+            return;
+        }
+        if (ExportService.KIND_AREA.equals(kind)) {
+            importRecord.getAreaScores().add(new AreaScoreChange(itemId, value, column(row, "comment"), null));
+        } else if (ExportService.KIND_REQUIREMENT.equals(kind)) {
+            importRecord.getResponses().add(new ResponseChange(itemId, value, column(row, "comment"), null));
+        } else {
+            importRecord.getErrors().add("Error: Unknown kind '" + kind + "' on line " + rowLine + ".");
+        }
+    }
+
+    private boolean readHeader() throws IOException {
+        List<String> header = readRow();
+        if (header == null) {
+            return false;
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            // Spreadsheet tools like to prepend a byte order mark
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name.toLowerCase(), i);
+        }
+        if (!columns.containsKey("assessment_id")) {
+            throw new IllegalArgumentException("Error: CSV header must contain an assessment_id column.");
+        }
+        return true;
+    }
+
+    private String column(List<String> row, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index);
+        return value.isEmpty() ? null : ExportService.unescapeCell(value);
+    }
+
+    /**
+     * RFC 4180 row: quoted fields may contain separators, doubled quotes and line breaks.
+     * Returns null at the end of input; blank lines are skipped.
+     */
+    private List<String> readRow() throws IOException {
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                if (!any) {
+                    return null;
+                }
+                row.add(field.toString());
+                return row;
+            }
+            any = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                line++;
+                if (row.isEmpty() && field.length() == 0) {
+                    any = false;
+                    continue;
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == -2) {
+            lookahead = reader.read();
+        }
+        return lookahead;
+    }
+}
@@ -0,0 +1,28 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One assessment read from an import stream, flattened to its answers. Raw fields are kept as
+ * strings so that every problem can be reported by validation instead of failing the parse.
+ */
+@Data
+@NoArgsConstructor
+public class ImportRecord {
+    private int record;
+    private long line;
+    private String name;
+    private String description;
+    private String status;
+    private String createdAt;
+    private String updatedAt;
+    private List<AreaScoreChange> areaScores = new ArrayList<>();
+    private List<ResponseChange> responses = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import java.io.IOException;
+
+/**
+ * Pulls assessments one at a time from an import stream so that only the current chunk is held in memory.
+ */
+public interface ImportRecordReader {
+
+    /**
+     * Returns the next record, or null at the end of the stream. A record that could not be parsed
+     * is still returned, with its errors filled in.
+     */
+    ImportRecord next() throws IOException;
+}
@@ -0,0 +1,264 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ImportReportDto;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentImportRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.SummaryCountRepository;
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import com.rodoassessment.gdprassessmentpanel.service.store.AnswerStore;
+import com.rodoassessment.gdprassessmentpanel.service.store.NewAnswers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bulk import of assessments from JSON Lines or CSV. The stream is read in chunks; each chunk is
+ * validated against the catalog snapshot in parallel on the worker pool and its valid records are
+ * written in one transaction as a handful of JDBC batches, so the statement count grows with the
+ * number of chunks rather than with the number of answers.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    private static final Set<String> RESPONSE_VALUES = Set.of("TAK", "NIE", "W REALIZACJI", "NIE DOTYCZY");
+
+    private static final Set<String> AREA_SCORES =
+            Set.of("POZYTYWNA", "ZASTRZEŻENIA", "NEGATYWNA", "W REALIZACJI", "NIE DOTYCZY");
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AssessmentImportRepository assessmentImportRepository;
+
+    @Autowired
+    private AnswerStore answerStore;
+
+    @Autowired
+    private SummaryCountRepository summaryCountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("workerExecutor")
+    private TaskExecutor workerExecutor;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReportDto importAssessments(Long userId, String format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        ImportRecordReader records = ExportService.FORMAT_JSONL.equals(format)
+                ? new JsonLinesRecordReader(reader, objectMapper)
+                : new CsvRecordReader(reader);
+
+        ImportReportDto report = new ImportReportDto();
+        List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+        ImportRecord importRecord;
+        while ((importRecord = records.next()) != null) {
+            chunk.add(importRecord);
+            if (chunk.size() >= chunkSize) {
+                processChunk(userId, catalog, chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(userId, catalog, chunk, report);
+        }
+
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        report.setAssessmentsPerSecond(report.getImported() * 1000.0 / Math.max(1, report.getElapsedMs()));
+        logger.info("Imported {} of {} assessments in {} ms", report.getImported(), report.getReceived(),
+                report.getElapsedMs());
+        return report;
+    }
+
+    private void processChunk(Long userId, QuestionnaireCatalog catalog, List<ImportRecord> chunk,
+                              ImportReportDto report) {
+        report.setReceived(report.getReceived() + chunk.size());
+        validateInParallel(catalog, chunk);
+
+        List<ImportRecord> valid = new ArrayList<>(chunk.size());
+        for (ImportRecord importRecord : chunk) {
+            if (importRecord.getErrors().isEmpty()) {
+                valid.add(importRecord);
+            } else {
+                fail(report, importRecord, importRecord.getErrors());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> write(userId, valid));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Import chunk of {} assessments rolled back: {}", valid.size(), e.getMessage());
+            List<String> messages = List.of("Error: Chunk could not be written: " + e.getMostSpecificCause().getMessage());
+            for (ImportRecord importRecord : valid) {
+                fail(report, importRecord, messages);
+            }
+            return;
+        }
+
+        report.setImported(report.getImported() + valid.size());
+        for (ImportRecord importRecord : valid) {
+            report.setResponses(report.getResponses() + importRecord.getResponses().size());
+            report.setAreaScores(report.getAreaScores() + importRecord.getAreaScores().size());
+        }
+    }
+
+    private void validateInParallel(QuestionnaireCatalog catalog, List<ImportRecord> chunk) {
+        int workers = Math.max(1, Math.min(parallelism, chunk.size()));
+        int step = (chunk.size() + workers - 1) / workers;
+
+        List<CompletableFuture<Void>> slices = new ArrayList<>(workers);
+        for (int from = 0; from < chunk.size(); from += step) {
+            List<ImportRecord> slice = chunk.subList(from, Math.min(from + step, chunk.size()));
+            slices.add(CompletableFuture.runAsync(() -> slice.forEach(r -> validate(catalog, r)), workerExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void validate(QuestionnaireCatalog catalog, ImportRecord importRecord) {
+        List<String> errors = importRecord.getErrors();
+        if (!errors.isEmpty()) {
+            return;
+        }
+
+        if (importRecord.getName() == null || importRecord.getName().isBlank()) {
+            errors.add("Error: Name is required.");
+        } else if (importRecord.getName().length() > 200) {
+            errors.add("Error: Name is longer than 200 characters.");
+        }
+        if (importRecord.getStatus() != null && importRecord.getStatus().length() > 50) {
+            errors.add("Error: Status is longer than 50 characters.");
+        }
+        checkTimestamp(importRecord.getCreatedAt(), "createdAt", errors);
+        checkTimestamp(importRecord.getUpdatedAt(), "updatedAt", errors);
+
+        Set<Long> seen = new HashSet<>();
+        for (AreaScoreChange change : importRecord.getAreaScores()) {
+            if (catalog.areaPosition(change.getAreaId()) < 0) {
+                errors.add("Error: Unknown area " + change.getAreaId() + ".");
+            } else if (!AREA_SCORES.contains(change.getScore())) {
+                errors.add("Error: Invalid score '" + change.getScore() + "' for area " + change.getAreaId() + ".");
+            } else if (!seen.add(change.getAreaId())) {
+                errors.add("Error: Area " + change.getAreaId() + " is scored more than once.");
+            }
+        }
+
+        seen.clear();
+        for (ResponseChange change : importRecord.getResponses()) {
+            if (catalog.requirementPosition(change.getRequirementId()) < 0) {
+                errors.add("Error: Unknown requirement " + change.getRequirementId() + ".");
+            } else if (!RESPONSE_VALUES.contains(change.getValue())) {
+                errors.add("Error: Invalid value '" + change.getValue() + "' for requirement "
+                        + change.getRequirementId() + ".");
+            } else if (!seen.add(change.getRequirementId())) {
+                errors.add("Error: Requirement " + change.getRequirementId() + " is answered more than once.");
+            }
+        }
+    }
+
+    private void checkTimestamp(String value, String field, List<String> errors) {
+        if (value == null) {
+            return;
+        }
+        try {
+            LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            errors.add("Error: Invalid " + field + " '" + value + "'.");
+        }
+    }
+
+    private void write(Long userId, List<ImportRecord> valid) {
+        List<Long> ids = assessmentImportRepository.nextAssessmentIds(valid.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> assessments = new ArrayList<>(valid.size());
+        List<NewAnswers> answers = new ArrayList<>(valid.size());
+
+        for (int i = 0; i < valid.size(); i++) {
+            ImportRecord importRecord = valid.get(i);
+            Long id = ids.get(i);
+            Timestamp createdAt = timestamp(importRecord.getCreatedAt(), now);
+            Timestamp updatedAt = timestamp(importRecord.getUpdatedAt(), createdAt);
+            String status = importRecord.getStatus() != null && !importRecord.getStatus().isBlank()
+                    ? importRecord.getStatus() : "DRAFT";
+
+            assessments.add(new Object[] {id, importRecord.getName(), importRecord.getDescription(), status, userId,
+                    createdAt, updatedAt});
+            answers.add(new NewAnswers(id, updatedAt.toLocalDateTime(), importRecord.getAreaScores(),
+                    importRecord.getResponses()));
+        }
+
+        assessmentImportRepository.insertAssessments(assessments);
+        answerStore.insertNew(answers);
+        summaryCountRepository.insertForNewAssessments(ids);
+    }
+
+    private Timestamp timestamp(String value, Timestamp fallback) {
+        return value != null ? Timestamp.valueOf(LocalDateTime.parse(value)) : fallback;
+    }
+
+    private void fail(ImportReportDto report, ImportRecord importRecord, List<String> messages) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() >= maxErrors) {
+            report.setErrorsTruncated(true);
+            return;
+        }
+        report.getErrors().add(new ImportReportDto.ImportErrorDto(
+                importRecord.getRecord(), importRecord.getLine(), importRecord.getName(), new ArrayList<>(messages)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One AssessmentDto per line, as written by the JSON Lines export. Only answered areas and
+ * requirements are taken; blank lines are skipped.
+ */
+public class JsonLinesRecordReader implements ImportRecordReader {
+
+    private final BufferedReader reader;
+
+    private final ObjectMapper objectMapper;
+
+    private long line;
+
+    private int record;
+
+    public JsonLinesRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        ImportRecord importRecord = new ImportRecord();
+        importRecord.setRecord(++record);
+        importRecord.setLine(line);
+
+        AssessmentDto assessmentDto;
+        try {
+            assessmentDto = objectMapper.readValue(text, AssessmentDto.class);
+        } catch (JsonProcessingException e) {
+            importRecord.getErrors().add("Error: Malformed JSON: " + e.getOriginalMessage());
+            return importRecord;
+        }
+
+        importRecord.setName(assessmentDto.getName());
+        importRecord.setDescription(assessmentDto.getDescription());
+        importRecord.setStatus(assessmentDto.getStatus());
+        if (assessmentDto.getCreatedAt() != null) {
+            importRecord.setCreatedAt(assessmentDto.getCreatedAt().toString());
+        }
+        if (assessmentDto.getUpdatedAt() != null) {
+            importRecord.setUpdatedAt(assessmentDto.getUpdatedAt().toString());
+        }
+
+        if (assessmentDto.getChapters() == null) {
+            return importRecord;
+        }
+        for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
+            if (chapterDto.getAreas() == null) {
+                continue;
+            }
+            for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
+                if (areaDto.getScore() != null && !areaDto.getScore().isEmpty()) {
+                    importRecord.getAreaScores().add(
+                            new AreaScoreChange(areaDto.getId(), areaDto.getScore(), areaDto.getComment(), null));
+                }
+                if (areaDto.getRequirements() == null) {
+                    continue;
+                }
+                for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
+                    if (reqDto.getValue() != null && !reqDto.getValue().isEmpty()) {
+                        importRecord.getResponses().add(
+                                new ResponseChange(reqDto.getId(), reqDto.getValue(), reqDto.getComment(), null));
+                    }
+                }
+            }
+        }
+        return importRecord;
+    }
+}
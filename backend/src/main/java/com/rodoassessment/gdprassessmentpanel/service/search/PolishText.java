@@ -0,0 +1,99 @@
+package com.rodoassessment.gdprassessmentpanel.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Folding and light stemming of Polish text for search. Text is lower-cased and stripped of diacritics the
+ * same way as the rodo_fold SQL function, and every word loses its longest common inflectional ending the
+ * same way as in the rodo_stem SQL function used by the search indexes. Stored text and queries are stemmed
+ * alike and compared as whole stems, so "dane" finds "danych" without a dictionary, while "rodo" (stem
+ * "rod") does not find "rodzaj".
+ */
+public final class PolishText {
+
+    public static final String FOLD_FROM = "ąćęłńóśźżĄĆĘŁŃÓŚŹŻ";
+
+    public static final String FOLD_TO = "acelnoszzacelnoszz";
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    // Folded endings, sorted longest first below so the longest matching one is removed. Keep in sync with
+    // the rodo_stem SQL function, which SearchTest compares against stems().
+    private static final String[] SUFFIXES = {
+            "osciami", "owaniem", "owania", "owanie", "owaniu", "osciach",
+            "osci", "ania", "anie", "aniu", "aniem", "enia", "enie", "eniu", "eniem",
+            "owych", "owym", "owej", "owie", "owa", "owe", "owy",
+            "ach", "ami", "ych", "ymi", "ich", "imi", "ego", "emu", "owi", "iej", "cie",
+            "om", "ow", "em", "ie", "ia", "iu", "ej", "ym", "im", "mi",
+            "y", "a", "e", "u", "i", "o"
+    };
+
+    static {
+        Arrays.sort(SUFFIXES, (a, b) -> b.length() - a.length());
+    }
+
+    private PolishText() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int index = FOLD_FROM.indexOf(c);
+            folded.append(index >= 0 ? FOLD_TO.charAt(index) : c);
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /** Folded words of the text, split on everything that is not a letter or digit. */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    public static String stem(String word) {
+        for (String suffix : SUFFIXES) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    /** Stems of the words of the text, in order. */
+    public static List<String> stems(String text) {
+        List<String> stems = new ArrayList<>();
+        for (String word : words(text)) {
+            stems.add(stem(word));
+        }
+        return stems;
+    }
+
+    /** Stems of the query words, in order and without duplicates. */
+    public static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String stem : stems(query)) {
+            if (!terms.contains(stem)) {
+                terms.add(stem);
+            }
+        }
+        return terms;
+    }
+}
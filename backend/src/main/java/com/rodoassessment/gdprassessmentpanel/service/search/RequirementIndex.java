@@ -0,0 +1,53 @@
+package com.rodoassessment.gdprassessmentpanel.service.search;
+
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index of the requirement texts of one catalog snapshot: word stems, each with the catalog
+ * positions of the requirements that contain it.
+ */
+public class RequirementIndex {
+
+    private final QuestionnaireCatalog catalog;
+
+    private final Map<String, BitSet> positions = new HashMap<>();
+
+    public RequirementIndex(QuestionnaireCatalog catalog) {
+        this.catalog = catalog;
+        for (int r = 0; r < catalog.requirementCount(); r++) {
+            for (String stem : PolishText.stems(catalog.requirementText(r))) {
+                positions.computeIfAbsent(stem, w -> new BitSet()).set(r);
+            }
+        }
+    }
+
+    public QuestionnaireCatalog getCatalog() {
+        return catalog;
+    }
+
+    /** Catalog positions of the requirements containing every stem, in catalog order. */
+    public List<Integer> find(List<String> terms, int limit) {
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = positions.getOrDefault(term, new BitSet());
+            if (matches == null) {
+                matches = (BitSet) termMatches.clone();
+            } else {
+                matches.and(termMatches);
+            }
+        }
+        List<Integer> found = new ArrayList<>();
+        if (matches != null) {
+            for (int r = matches.nextSetBit(0); r >= 0 && found.size() < limit; r = matches.nextSetBit(r + 1)) {
+                found.add(r);
+            }
+        }
+        return found;
+    }
+}
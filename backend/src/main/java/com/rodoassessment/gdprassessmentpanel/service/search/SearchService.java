@@ -0,0 +1,75 @@
+package com.rodoassessment.gdprassessmentpanel.service.search;
+
+import com.rodoassessment.gdprassessmentpanel.dto.SearchResultDto;
+import com.rodoassessment.gdprassessmentpanel.repository.SearchRepository;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Searches requirement texts, assessment names and descriptions and answer comments for all words of a
+ * query. Requirement texts come from an in-memory index of the current catalog snapshot, rebuilt when the
+ * catalog changes; everything else is read from the search indexes in the database, limited to the
+ * assessments of the caller.
+ */
+@Service
+public class SearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final int MAX_TERMS = 8;
+
+    @Autowired
+    private SearchRepository searchRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    private final AtomicReference<RequirementIndex> requirementIndex = new AtomicReference<>();
+
+    @Transactional(readOnly = true)
+    public SearchResultDto search(Long userId, String query, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<String> terms = PolishText.queryTerms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Error: Search query must contain at least one word.");
+        }
+        if (terms.size() > MAX_TERMS) {
+            terms = terms.subList(0, MAX_TERMS);
+        }
+        String tsquery = String.join(" & ", terms);
+
+        SearchResultDto result = new SearchResultDto();
+        result.setQuery(query);
+
+        RequirementIndex index = requirementIndex();
+        QuestionnaireCatalog catalog = index.getCatalog();
+        for (int r : index.find(terms, pageSize)) {
+            result.getRequirements().add(new SearchResultDto.RequirementHit(catalog.requirementId(r),
+                    catalog.areaId(catalog.requirementArea(r)), catalog.requirementText(r)));
+        }
+
+        result.setAssessments(searchRepository.findAssessments(userId, tsquery, pageSize));
+        result.getComments().addAll(searchRepository.findResponseComments(userId, tsquery, pageSize));
+        result.getComments().addAll(searchRepository.findAreaComments(userId, tsquery, pageSize));
+        return result;
+    }
+
+    private RequirementIndex requirementIndex() {
+        QuestionnaireCatalog catalog = catalogService.getCatalog();
+        RequirementIndex index = requirementIndex.get();
+        if (index == null || index.getCatalog() != catalog) {
+            // Concurrent rebuilds of the same snapshot are harmless, the last one simply wins
+            index = new RequirementIndex(catalog);
+            requirementIndex.set(index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JSON shape of an assessment_documents row: responses under "r" keyed by requirement id and area scores
+ * under "a" keyed by area id, each entry with its value "v", comment "c" and version "n". The short names
+ * keep a fully answered assessment at a few kilobytes.
+ */
+@Data
+@NoArgsConstructor
+public class AnswerDocument {
+
+    private Map<Long, Entry> r = new HashMap<>();
+    private Map<Long, Entry> a = new HashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        private String v;
+        private String c;
+        private long n;
+    }
+}
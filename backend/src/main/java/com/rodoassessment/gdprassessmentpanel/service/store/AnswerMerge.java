@@ -0,0 +1,50 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerConflict;
+import com.rodoassessment.gdprassessmentpanel.repository.StoredAnswer;
+
+/**
+ * Decisions shared by the answer stores when a change meets the stored answer.
+ */
+final class AnswerMerge {
+
+    // Rounds of re-read and compare-and-set before a change that keeps losing races is reported as a conflict
+    static final int MAX_ROUNDS = 3;
+
+    private AnswerMerge() {
+    }
+
+    // A missing answer reads as an empty one, so clearing an unanswered item is not a change
+    static boolean isUnchanged(String value, String comment, StoredAnswer current) {
+        String currentValue = current != null ? current.getValue() : "";
+        String currentComment = current != null ? current.getComment() : null;
+        return value.equals(currentValue) && emptyIfNull(comment).equals(emptyIfNull(currentComment));
+    }
+
+    static boolean isStale(Long baseVersion, StoredAnswer current) {
+        return baseVersion != null && baseVersion != (current != null ? current.getVersion() : 0L);
+    }
+
+    /**
+     * Whether the client sent the field as it read it while someone else changed it since. The client did not
+     * edit it, so the stored answer is kept and reported back instead of a conflict. Without a base value the
+     * edit cannot be told apart from a real one.
+     */
+    static boolean isLeftAsBase(String value, String comment, Long baseVersion, String baseValue,
+                                String baseComment, StoredAnswer current) {
+        return baseValue != null && isStale(baseVersion, current)
+                && value.equals(baseValue) && emptyIfNull(comment).equals(emptyIfNull(baseComment));
+    }
+
+    static AnswerConflict conflict(String kind, Long id, String value, String comment, Long baseVersion,
+                                   StoredAnswer current) {
+        return current != null
+                ? new AnswerConflict(kind, id, value, comment, baseVersion,
+                        current.getValue(), current.getComment(), current.getVersion())
+                : new AnswerConflict(kind, id, value, comment, baseVersion, "", "", 0L);
+    }
+
+    private static String emptyIfNull(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,84 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerDocumentRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves answers into the layout of the configured storage mode before the application starts serving:
+ * in document mode every assessment without a document gets one built from its rows (and the rows are
+ * deleted), in rows mode every document is written back as rows (and deleted). Switching the mode and
+ * restarting is therefore the whole migration, in either direction; each batch is its own transaction,
+ * so an interrupted run resumes where it stopped. All instances must run with the same mode.
+ */
+@Component
+public class AnswerStorageMigrator implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnswerStorageMigrator.class);
+
+    private final AnswerTables answerTables;
+
+    private final AnswerDocumentRepository answerDocumentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${app.storage.migration-batch-size:500}")
+    private int batchSize;
+
+    public AnswerStorageMigrator(AnswerTables answerTables, AnswerDocumentRepository answerDocumentRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.answerTables = answerTables;
+        this.answerDocumentRepository = answerDocumentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        long start = System.nanoTime();
+        int migrated = answerTables.isDocumentMode() ? migrateToDocuments() : migrateToRows();
+        if (migrated > 0) {
+            logger.info("Moved the answers of {} assessments to {} storage in {} ms", migrated,
+                    answerTables.getMode(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public int migrateToDocuments() {
+        int migrated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = answerDocumentRepository.findAssessmentsWithoutDocument(afterId, batchSize);
+            if (ids.isEmpty()) {
+                return migrated;
+            }
+            Integer moved = transactionTemplate.execute(tx -> answerDocumentRepository.moveRowsToDocuments(ids));
+            migrated += moved != null ? moved : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    public int migrateToRows() {
+        int migrated = 0;
+        while (true) {
+            List<Long> ids = answerDocumentRepository.findAssessmentsWithDocument(batchSize);
+            if (ids.isEmpty()) {
+                return migrated;
+            }
+            Integer moved = transactionTemplate.execute(tx -> answerDocumentRepository.moveDocumentsToRows(ids));
+            migrated += moved != null ? moved : 0;
+        }
+    }
+}
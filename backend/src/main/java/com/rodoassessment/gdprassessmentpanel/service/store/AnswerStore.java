@@ -0,0 +1,36 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchResponse;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.service.AnswerSet;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence of the answers of one assessment, in the layout selected by {@code app.storage.mode}:
+ * one row per response and area score, or one JSONB document per assessment.
+ */
+public interface AnswerStore {
+
+    AnswerSet load(Long assessmentId);
+
+    /** Loads the answers aligned with the given catalog snapshot, so several assessments can share one. */
+    AnswerSet load(Long assessmentId, QuestionnaireCatalog catalog);
+
+    /**
+     * Writes the given changes, keyed by id in ascending order, with the version checks described on
+     * {@link com.rodoassessment.gdprassessmentpanel.service.AssessmentWriter}. Applied and already up-to-date
+     * changes are added to the result with their stored version, the others as conflicts; the returned
+     * answers are the ones actually written, with the values they replaced.
+     */
+    WrittenAnswers write(Long assessmentId, Map<Long, AreaScoreChange> areaScores,
+                         Map<Long, ResponseChange> responses, AnswerPatchResponse result);
+
+    /** Stores the answers of assessments that were just inserted and have none yet. */
+    void insertNew(List<NewAnswers> assessments);
+
+    void delete(Long assessmentId);
+}
@@ -0,0 +1,250 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerConflict;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchResponse;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerDocumentRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerDocumentRepository.StoredDocument;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaScoreRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ResponseRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.StoredAnswer;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.AreaScoreView;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.ResponseView;
+import com.rodoassessment.gdprassessmentpanel.service.AnswerSet;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps all answers of an assessment in one assessment_documents row, so a full read or save touches a
+ * single row. Changes are merged into the document in memory with the per-answer version checks, and the
+ * document is written back with a compare-and-set on its own version; a writer that loses the race
+ * re-reads the document and merges again, so changes to different answers still never overwrite each other.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "document")
+public class DocumentAnswerStore implements AnswerStore {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AnswerDocumentRepository answerDocumentRepository;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private AreaScoreRepository areaScoreRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public AnswerSet load(Long assessmentId) {
+        return load(assessmentId, catalogService.getCatalog());
+    }
+
+    @Override
+    public AnswerSet load(Long assessmentId, QuestionnaireCatalog catalog) {
+        AnswerSet answers = new AnswerSet(catalog);
+        StoredDocument stored = answerDocumentRepository.find(assessmentId);
+        if (stored == null) {
+            // Not migrated yet, the answers are still rows
+            for (ResponseView response : responseRepository.findViewsByAssessmentId(assessmentId)) {
+                answers.setResponse(response.getRequirementId(), response.getValue(), response.getComment(),
+                        response.getVersion());
+            }
+            for (AreaScoreView areaScore : areaScoreRepository.findViewsByAssessmentId(assessmentId)) {
+                answers.setAreaScore(areaScore.getAreaId(), areaScore.getScore(), areaScore.getComment(),
+                        areaScore.getVersion());
+            }
+            return answers;
+        }
+        
+        try {
+            read(stored.getAnswers(), answers);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error: Unreadable answers document.", e);
+        }
+        return answers;
+    }
+
+    // Streams the document straight into the answer set, without the maps a full read would build first
+    private void read(String json, AnswerSet answers) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.getCurrentName();
+                parser.nextToken();
+                boolean responses = "r".equals(section);
+                if (!responses && !"a".equals(section)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Long id = Long.valueOf(parser.getCurrentName());
+                    parser.nextToken();
+                    String value = null;
+                    String comment = null;
+                    long version = 0;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("v".equals(field)) {
+                            value = parser.getValueAsString();
+                        } else if ("c".equals(field)) {
+                            comment = parser.getValueAsString();
+                        } else if ("n".equals(field)) {
+                            version = parser.getValueAsLong();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (responses) {
+                        answers.setResponse(id, value, comment, version);
+                    } else {
+                        answers.setAreaScore(id, value, comment, version);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public WrittenAnswers write(Long assessmentId, Map<Long, AreaScoreChange> areaScores,
+                                Map<Long, ResponseChange> responses, AnswerPatchResponse result) {
+        for (int round = 0; ; round++) {
+            StoredDocument stored = answerDocumentRepository.find(assessmentId);
+            if (stored == null && answerDocumentRepository.moveRowsToDocuments(List.of(assessmentId)) > 0) {
+                stored = answerDocumentRepository.find(assessmentId);
+            }
+            AnswerDocument document = stored != null ? parse(stored.getAnswers()) : new AnswerDocument();
+            
+            // Collected per round and only added to the result once the document is saved
+            boolean lastRound = round == AnswerMerge.MAX_ROUNDS;
+            WrittenAnswers written = new WrittenAnswers();
+            List<AreaScoreChange> currentScores = new ArrayList<>();
+            List<ResponseChange> currentResponses = new ArrayList<>();
+            List<AnswerConflict> conflicts = new ArrayList<>();
+            
+            for (AreaScoreChange change : areaScores.values()) {
+                AnswerDocument.Entry entry = document.getA().get(change.getAreaId());
+                StoredAnswer current = entry != null ? new StoredAnswer(entry.getV(), entry.getC(), entry.getN()) : null;
+                if (AnswerMerge.isUnchanged(change.getScore(), change.getComment(), current)
+                        || AnswerMerge.isLeftAsBase(change.getScore(), change.getComment(), change.getVersion(),
+                                change.getBaseScore(), change.getBaseComment(), current)) {
+                    if (current != null) {
+                        currentScores.add(new AreaScoreChange(change.getAreaId(),
+                                current.getValue(), current.getComment(), current.getVersion()));
+                    }
+                } else if (lastRound || AnswerMerge.isStale(change.getVersion(), current)) {
+                    conflicts.add(AnswerMerge.conflict(AnswerConflict.KIND_AREA, change.getAreaId(),
+                            change.getScore(), change.getComment(), change.getVersion(), current));
+                } else {
+                    long version = current != null ? current.getVersion() + 1 : 1L;
+                    document.getA().put(change.getAreaId(),
+                            new AnswerDocument.Entry(change.getScore(), change.getComment(), version));
+                    if (current != null) {
+                        written.getPreviousScores().put(change.getAreaId(), current.getValue());
+                    }
+                    written.getAreaScores().add(new AreaScoreChange(change.getAreaId(), change.getScore(),
+                            change.getComment(), version));
+                }
+            }
+            
+            for (ResponseChange change : responses.values()) {
+                AnswerDocument.Entry entry = document.getR().get(change.getRequirementId());
+                StoredAnswer current = entry != null ? new StoredAnswer(entry.getV(), entry.getC(), entry.getN()) : null;
+                if (AnswerMerge.isUnchanged(change.getValue(), change.getComment(), current)
+                        || AnswerMerge.isLeftAsBase(change.getValue(), change.getComment(), change.getVersion(),
+                                change.getBaseValue(), change.getBaseComment(), current)) {
+                    if (current != null) {
+                        currentResponses.add(new ResponseChange(change.getRequirementId(),
+                                current.getValue(), current.getComment(), current.getVersion()));
+                    }
+                } else if (lastRound || AnswerMerge.isStale(change.getVersion(), current)) {
+                    conflicts.add(AnswerMerge.conflict(AnswerConflict.KIND_RESPONSE, change.getRequirementId(),
+                            change.getValue(), change.getComment(), change.getVersion(), current));
+                } else {
+                    long version = current != null ? current.getVersion() + 1 : 1L;
+                    document.getR().put(change.getRequirementId(),
+                            new AnswerDocument.Entry(change.getValue(), change.getComment(), version));
+                    if (current != null) {
+                        written.getPreviousValues().put(change.getRequirementId(), current.getValue());
+                    }
+                    written.getResponses().add(new ResponseChange(change.getRequirementId(), change.getValue(),
+                            change.getComment(), version));
+                }
+            }
+            
+            boolean saved = written.isEmpty()
+                    || (stored == null
+                        ? answerDocumentRepository.insert(assessmentId, serialize(document), result.getUpdatedAt())
+                        : answerDocumentRepository.update(assessmentId, serialize(document), stored.getVersion(),
+                                result.getUpdatedAt()));
+            if (saved) {
+                result.getAreaScores().addAll(currentScores);
+                result.getAreaScores().addAll(written.getAreaScores());
+                result.getResponses().addAll(currentResponses);
+                result.getResponses().addAll(written.getResponses());
+                result.getConflicts().addAll(conflicts);
+                return written;
+            }
+        }
+    }
+
+    @Override
+    public void insertNew(List<NewAnswers> assessments) {
+        List<Object[]> documents = new ArrayList<>(assessments.size());
+        for (NewAnswers answers : assessments) {
+            AnswerDocument document = new AnswerDocument();
+            for (ResponseChange change : answers.getResponses()) {
+                document.getR().put(change.getRequirementId(),
+                        new AnswerDocument.Entry(change.getValue(), change.getComment(), 1L));
+            }
+            for (AreaScoreChange change : answers.getAreaScores()) {
+                document.getA().put(change.getAreaId(),
+                        new AnswerDocument.Entry(change.getScore(), change.getComment(), 1L));
+            }
+            documents.add(new Object[] {answers.getAssessmentId(), serialize(document),
+                    Timestamp.valueOf(answers.getUpdatedAt())});
+        }
+        answerDocumentRepository.insertAll(documents);
+    }
+
+    @Override
+    public void delete(Long assessmentId) {
+        answerDocumentRepository.delete(assessmentId);
+    }
+
+    private AnswerDocument parse(String json) {
+        try {
+            return objectMapper.readValue(json, AnswerDocument.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error: Unreadable answers document.", e);
+        }
+    }
+
+    private String serialize(AnswerDocument document) {
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error: Could not write answers document.", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Answers of a newly inserted assessment, each with at most one change per requirement or area.
+ */
+public class NewAnswers {
+
+    private final Long assessmentId;
+    private final LocalDateTime updatedAt;
+    private final List<AreaScoreChange> areaScores;
+    private final List<ResponseChange> responses;
+
+    public NewAnswers(Long assessmentId, LocalDateTime updatedAt, List<AreaScoreChange> areaScores,
+                      List<ResponseChange> responses) {
+        this.assessmentId = assessmentId;
+        this.updatedAt = updatedAt;
+        this.areaScores = areaScores;
+        this.responses = responses;
+    }
+
+    public Long getAssessmentId() {
+        return assessmentId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public List<AreaScoreChange> getAreaScores() {
+        return areaScores;
+    }
+
+    public List<ResponseChange> getResponses() {
+        return responses;
+    }
+}
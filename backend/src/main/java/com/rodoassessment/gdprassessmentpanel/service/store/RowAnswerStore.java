@@ -0,0 +1,220 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerConflict;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchResponse;
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerBatchRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaScoreRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentImportRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ResponseRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.StoredAnswer;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.AreaScoreView;
+import com.rodoassessment.gdprassessmentpanel.repository.projection.ResponseView;
+import com.rodoassessment.gdprassessmentpanel.service.AnswerSet;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps one row per answer in responses and area_scores. Each row is written with a compare-and-set on
+ * its own version, so concurrent writers of different answers never touch the same row.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "rows", matchIfMissing = true)
+public class RowAnswerStore implements AnswerStore {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private AreaScoreRepository areaScoreRepository;
+
+    @Autowired
+    private AnswerBatchRepository answerBatchRepository;
+
+    @Autowired
+    private AssessmentImportRepository assessmentImportRepository;
+
+    @Override
+    public AnswerSet load(Long assessmentId) {
+        return load(assessmentId, catalogService.getCatalog());
+    }
+
+    @Override
+    public AnswerSet load(Long assessmentId, QuestionnaireCatalog catalog) {
+        // Answers referring to catalog entries that no longer exist are skipped, as the tree walk never reached them
+        AnswerSet answers = new AnswerSet(catalog);
+        for (ResponseView response : responseRepository.findViewsByAssessmentId(assessmentId)) {
+            answers.setResponse(response.getRequirementId(), response.getValue(), response.getComment(),
+                    response.getVersion());
+        }
+        for (AreaScoreView areaScore : areaScoreRepository.findViewsByAssessmentId(assessmentId)) {
+            answers.setAreaScore(areaScore.getAreaId(), areaScore.getScore(), areaScore.getComment(),
+                    areaScore.getVersion());
+        }
+        return answers;
+    }
+
+    @Override
+    public WrittenAnswers write(Long assessmentId, Map<Long, AreaScoreChange> areaScores,
+                                Map<Long, ResponseChange> responses, AnswerPatchResponse result) {
+        WrittenAnswers written = new WrittenAnswers();
+        writeAreaScores(assessmentId, areaScores, result, written);
+        writeResponses(assessmentId, responses, result, written);
+        result.getAreaScores().addAll(written.getAreaScores());
+        result.getResponses().addAll(written.getResponses());
+        return written;
+    }
+
+    private void writeAreaScores(Long assessmentId, Map<Long, AreaScoreChange> changes,
+                                 AnswerPatchResponse result, WrittenAnswers written) {
+        LocalDateTime now = result.getUpdatedAt();
+        Map<Long, AreaScoreChange> pending = changes;
+        
+        for (int round = 0; !pending.isEmpty(); round++) {
+            Map<Long, StoredAnswer> stored = answerBatchRepository.findAreaScores(assessmentId, pending.keySet());
+            List<AreaScoreChange> updates = new ArrayList<>();
+            List<AreaScoreChange> inserts = new ArrayList<>();
+            
+            for (AreaScoreChange change : pending.values()) {
+                StoredAnswer current = stored.get(change.getAreaId());
+                if (AnswerMerge.isUnchanged(change.getScore(), change.getComment(), current)
+                        || AnswerMerge.isLeftAsBase(change.getScore(), change.getComment(), change.getVersion(),
+                                change.getBaseScore(), change.getBaseComment(), current)) {
+                    if (current != null) {
+                        result.getAreaScores().add(new AreaScoreChange(change.getAreaId(),
+                                current.getValue(), current.getComment(), current.getVersion()));
+                    }
+                } else if (round == AnswerMerge.MAX_ROUNDS || AnswerMerge.isStale(change.getVersion(), current)) {
+                    result.getConflicts().add(AnswerMerge.conflict(AnswerConflict.KIND_AREA, change.getAreaId(),
+                            change.getScore(), change.getComment(), change.getVersion(), current));
+                } else if (current == null) {
+                    inserts.add(change);
+                } else {
+                    updates.add(new AreaScoreChange(change.getAreaId(), change.getScore(), change.getComment(),
+                            current.getVersion()));
+                }
+            }
+            
+            Set<Long> updated = answerBatchRepository.updateAreaScores(assessmentId, updates, now);
+            Set<Long> inserted = answerBatchRepository.insertAreaScores(assessmentId, inserts, now);
+            
+            // Rows another writer changed or created since the read above go round again
+            Map<Long, AreaScoreChange> lost = new TreeMap<>();
+            for (AreaScoreChange update : updates) {
+                if (updated.contains(update.getAreaId())) {
+                    written.getPreviousScores().put(update.getAreaId(), stored.get(update.getAreaId()).getValue());
+                    written.getAreaScores().add(new AreaScoreChange(update.getAreaId(), update.getScore(),
+                            update.getComment(), update.getVersion() + 1));
+                } else {
+                    lost.put(update.getAreaId(), changes.get(update.getAreaId()));
+                }
+            }
+            for (AreaScoreChange insert : inserts) {
+                if (inserted.contains(insert.getAreaId())) {
+                    written.getAreaScores().add(new AreaScoreChange(insert.getAreaId(), insert.getScore(),
+                            insert.getComment(), 1L));
+                } else {
+                    lost.put(insert.getAreaId(), insert);
+                }
+            }
+            pending = lost;
+        }
+    }
+
+    private void writeResponses(Long assessmentId, Map<Long, ResponseChange> changes,
+                                AnswerPatchResponse result, WrittenAnswers written) {
+        LocalDateTime now = result.getUpdatedAt();
+        Map<Long, ResponseChange> pending = changes;
+        
+        for (int round = 0; !pending.isEmpty(); round++) {
+            Map<Long, StoredAnswer> stored = answerBatchRepository.findResponses(assessmentId, pending.keySet());
+            List<ResponseChange> updates = new ArrayList<>();
+            List<ResponseChange> inserts = new ArrayList<>();
+            
+            for (ResponseChange change : pending.values()) {
+                StoredAnswer current = stored.get(change.getRequirementId());
+                if (AnswerMerge.isUnchanged(change.getValue(), change.getComment(), current)
+                        || AnswerMerge.isLeftAsBase(change.getValue(), change.getComment(), change.getVersion(),
+                                change.getBaseValue(), change.getBaseComment(), current)) {
+                    if (current != null) {
+                        result.getResponses().add(new ResponseChange(change.getRequirementId(),
+                                current.getValue(), current.getComment(), current.getVersion()));
+                    }
+                } else if (round == AnswerMerge.MAX_ROUNDS || AnswerMerge.isStale(change.getVersion(), current)) {
+                    result.getConflicts().add(AnswerMerge.conflict(AnswerConflict.KIND_RESPONSE,
+                            change.getRequirementId(), change.getValue(), change.getComment(), change.getVersion(),
+                            current));
+                } else if (current == null) {
+                    inserts.add(change);
+                } else {
+                    updates.add(new ResponseChange(change.getRequirementId(), change.getValue(), change.getComment(),
+                            current.getVersion()));
+                }
+            }
+            
+            Set<Long> updated = answerBatchRepository.updateResponses(assessmentId, updates, now);
+            Set<Long> inserted = answerBatchRepository.insertResponses(assessmentId, inserts, now);
+            
+            // Rows another writer changed or created since the read above go round again
+            Map<Long, ResponseChange> lost = new TreeMap<>();
+            for (ResponseChange update : updates) {
+                if (updated.contains(update.getRequirementId())) {
+                    written.getPreviousValues().put(update.getRequirementId(),
+                            stored.get(update.getRequirementId()).getValue());
+                    written.getResponses().add(new ResponseChange(update.getRequirementId(), update.getValue(),
+                            update.getComment(), update.getVersion() + 1));
+                } else {
+                    lost.put(update.getRequirementId(), changes.get(update.getRequirementId()));
+                }
+            }
+            for (ResponseChange insert : inserts) {
+                if (inserted.contains(insert.getRequirementId())) {
+                    written.getResponses().add(new ResponseChange(insert.getRequirementId(), insert.getValue(),
+                            insert.getComment(), 1L));
+                } else {
+                    lost.put(insert.getRequirementId(), insert);
+                }
+            }
+            pending = lost;
+        }
+    }
+
+    @Override
+    public void insertNew(List<NewAnswers> assessments) {
+        List<Object[]> responses = new ArrayList<>();
+        List<Object[]> areaScores = new ArrayList<>();
+        for (NewAnswers answers : assessments) {
+            Timestamp updatedAt = Timestamp.valueOf(answers.getUpdatedAt());
+            for (ResponseChange change : answers.getResponses()) {
+                responses.add(new Object[] {answers.getAssessmentId(), change.getRequirementId(), change.getValue(),
+                        change.getComment(), updatedAt, updatedAt});
+            }
+            for (AreaScoreChange change : answers.getAreaScores()) {
+                areaScores.add(new Object[] {answers.getAssessmentId(), change.getAreaId(), change.getScore(),
+                        change.getComment(), updatedAt, updatedAt});
+            }
+        }
+        assessmentImportRepository.insertResponses(responses);
+        assessmentImportRepository.insertAreaScores(areaScores);
+    }
+
+    @Override
+    public void delete(Long assessmentId) {
+        // Rows go with the assessment through the JPA cascade and the foreign keys
+    }
+}
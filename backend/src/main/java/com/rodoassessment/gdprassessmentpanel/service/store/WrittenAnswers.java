@@ -0,0 +1,41 @@
+package com.rodoassessment.gdprassessmentpanel.service.store;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AreaScoreChange;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers written by one {@link AnswerStore#write} call with their new versions, and the values they
+ * replaced (absent for answers that did not exist), for the summary count deltas.
+ */
+public class WrittenAnswers {
+
+    private final List<AreaScoreChange> areaScores = new ArrayList<>();
+    private final Map<Long, String> previousScores = new HashMap<>();
+    private final List<ResponseChange> responses = new ArrayList<>();
+    private final Map<Long, String> previousValues = new HashMap<>();
+
+    public List<AreaScoreChange> getAreaScores() {
+        return areaScores;
+    }
+
+    public Map<Long, String> getPreviousScores() {
+        return previousScores;
+    }
+
+    public List<ResponseChange> getResponses() {
+        return responses;
+    }
+
+    public Map<Long, String> getPreviousValues() {
+        return previousValues;
+    }
+
+    public boolean isEmpty() {
+        return areaScores.isEmpty() && responses.isEmpty();
+    }
+}
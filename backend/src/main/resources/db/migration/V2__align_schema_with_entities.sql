@@ -0,0 +1,126 @@
+-- Everything added to the schema since the baseline (database/init.sql), and the changes that match it to the
+-- entity mappings checked by ddl-auto=validate. Databases created from init.sql before migrations existed are
+-- baselined at version 1 and may already have some of these objects, created by ddl-auto=update or at
+-- application startup, so every statement is idempotent.
+
+-- Optimistic versions of assessments and of every answer; header fields have versions of their own, so that
+-- concurrent changes of different fields merge instead of conflicting (see AssessmentWriter)
+ALTER TABLE assessments
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS name_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS description_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS status_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE responses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE area_scores ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+
+-- All answers of an assessment in one document (app.storage.mode=document)
+CREATE TABLE IF NOT EXISTS assessment_documents (
+    assessment_id BIGINT PRIMARY KEY,
+    answers JSONB NOT NULL DEFAULT '{}',
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (assessment_id) REFERENCES assessments(id) ON DELETE CASCADE
+);
+
+-- SHA-256 hashes of rotating refresh tokens, grouped in families per sign-in
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Answer counts per assessment, chapter and value
+CREATE TABLE IF NOT EXISTS assessment_summary_counts (
+    id BIGSERIAL PRIMARY KEY,
+    assessment_id BIGINT NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    chapter_id BIGINT NOT NULL,
+    value VARCHAR(50) NOT NULL,
+    count INT NOT NULL,
+    FOREIGN KEY (assessment_id) REFERENCES assessments(id) ON DELETE CASCADE,
+    UNIQUE (assessment_id, kind, chapter_id, value)
+);
+
+-- Columns mapped by the entities but missing from init.sql, and the other way round
+ALTER TABLE users ADD COLUMN IF NOT EXISTS enabled BOOLEAN;
+UPDATE users SET enabled = TRUE WHERE enabled IS NULL;
+ALTER TABLE users ALTER COLUMN enabled SET DEFAULT TRUE, ALTER COLUMN enabled SET NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS organization VARCHAR(200);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS position VARCHAR(100);
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS description VARCHAR(255);
+
+-- Identifiers are Long in the entities; one ALTER TABLE per table, so each table is rewritten at most once.
+-- The tables above are created with BIGINT keys and only change where an older startup created them with INT.
+ALTER TABLE roles ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE users ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE user_roles ALTER COLUMN user_id TYPE BIGINT, ALTER COLUMN role_id TYPE BIGINT;
+ALTER TABLE assessments ALTER COLUMN id TYPE BIGINT, ALTER COLUMN user_id TYPE BIGINT;
+ALTER TABLE chapters ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE areas ALTER COLUMN id TYPE BIGINT, ALTER COLUMN chapter_id TYPE BIGINT;
+ALTER TABLE requirements ALTER COLUMN id TYPE BIGINT, ALTER COLUMN area_id TYPE BIGINT;
+ALTER TABLE responses ALTER COLUMN id TYPE BIGINT, ALTER COLUMN assessment_id TYPE BIGINT,
+    ALTER COLUMN requirement_id TYPE BIGINT;
+ALTER TABLE area_scores ALTER COLUMN id TYPE BIGINT, ALTER COLUMN assessment_id TYPE BIGINT,
+    ALTER COLUMN area_id TYPE BIGINT;
+ALTER TABLE assessment_documents ALTER COLUMN assessment_id TYPE BIGINT;
+ALTER TABLE refresh_tokens ALTER COLUMN user_id TYPE BIGINT;
+ALTER TABLE assessment_summary_counts ALTER COLUMN id TYPE BIGINT, ALTER COLUMN assessment_id TYPE BIGINT,
+    ALTER COLUMN chapter_id TYPE BIGINT;
+
+-- SERIAL sequences are integer even once their column is not; identity sequences already follow the column
+DO $$
+DECLARE
+    seq regclass;
+BEGIN
+    FOR seq IN
+        SELECT s.seqrelid::regclass FROM pg_sequence s
+        WHERE s.seqtypid = 'integer'::regtype
+        AND s.seqrelid IN (SELECT pg_get_serial_sequence(t, 'id')::regclass FROM unnest(ARRAY[
+            'roles', 'users', 'assessments', 'chapters', 'areas', 'requirements', 'responses', 'area_scores',
+            'assessment_summary_counts']) AS t)
+    LOOP
+        EXECUTE format('ALTER SEQUENCE %s AS BIGINT', seq);
+    END LOOP;
+END $$;
+
+-- Indexes come after the key changes, so the table rewrites above do not rebuild them.
+-- Documents are always read by assessment_id and no query filters them by containment (@>), so an older
+-- GIN index on the whole answers column was only kept up to date on every autosave.
+DROP INDEX IF EXISTS idx_assessment_documents_answers;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- Full-text search over stems: text is folded (lower-case, no Polish diacritics) and every word loses its longest
+-- common inflectional ending, leaving at least three letters; PolishText stems query words the same way
+CREATE OR REPLACE FUNCTION rodo_fold(text) RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$ SELECT lower(translate($1, 'ąćęłńóśźżĄĆĘŁŃÓŚŹŻ', 'acelnoszzacelnoszz')) $$;
+
+CREATE OR REPLACE FUNCTION rodo_stem(text) RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$ SELECT coalesce(string_agg(regexp_replace(w, '^(.{3,}?)(' ||
+    'osciami|owaniem|osciach|owania|owanie|owaniu|aniem|eniem|owych|osci|ania|anie|aniu|enia|enie|eniu|' ||
+    'owym|owej|owie|owa|owe|owy|ach|ami|ych|ymi|ich|imi|ego|emu|owi|iej|cie|' ||
+    'om|ow|em|ie|ia|iu|ej|ym|im|mi|y|a|e|u|i|o)$', '\1'), ' '), '')
+FROM regexp_split_to_table(rodo_fold($1), '[^[:alnum:]]+') AS w WHERE w <> '' $$;
+
+CREATE OR REPLACE FUNCTION rodo_answer_comments(jsonb) RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$ SELECT rodo_stem(regexp_replace(jsonb_path_query_array($1, '$.*.*.c')::text, '\\.', ' ', 'g')) $$;
+
+-- Older databases may have indexes of folded whole words under the previous names
+DROP INDEX IF EXISTS idx_assessments_search;
+DROP INDEX IF EXISTS idx_responses_comment_search;
+DROP INDEX IF EXISTS idx_area_scores_comment_search;
+DROP INDEX IF EXISTS idx_assessment_documents_comment_search;
+
+CREATE INDEX IF NOT EXISTS idx_assessments_stem_search ON assessments USING GIN
+    (to_tsvector('simple', rodo_stem(coalesce(name, '') || ' ' || coalesce(description, ''))));
+CREATE INDEX IF NOT EXISTS idx_responses_comment_stem_search ON responses USING GIN
+    (to_tsvector('simple', rodo_stem(comment)));
+CREATE INDEX IF NOT EXISTS idx_area_scores_comment_stem_search ON area_scores USING GIN
+    (to_tsvector('simple', rodo_stem(comment)));
+CREATE INDEX IF NOT EXISTS idx_assessment_documents_comment_stem_search ON assessment_documents USING GIN
+    (to_tsvector('simple', rodo_answer_comments(answers)));
@@ -0,0 +1,8 @@
+-- Indexes for the access paths of the application, checked by SchemaQueryPlanTest.
+
+-- Assessment list of a user, paginated by (created_at, id) descending; also serves ON DELETE CASCADE from users
+CREATE INDEX IF NOT EXISTS idx_assessments_user_created ON assessments (user_id, created_at, id);
+
+-- Answers are always read and written per assessment. The unique keys of responses (assessment_id,
+-- requirement_id), area_scores (assessment_id, area_id) and assessment_summary_counts (assessment_id, ...)
+-- lead with assessment_id and serve those lookups, so separate assessment_id indexes would only slow writes.
@@ -0,0 +1,66 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    private final BulkheadDataSource bulkhead = new BulkheadDataSource(pool, 2, Duration.ofMillis(50));
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void connectionsBeyondThePermitsWaitAndTimeOut() throws SQLException {
+        bulkhead.getConnection();
+        bulkhead.getConnection();
+
+        assertEquals(0, bulkhead.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+    }
+
+    @Test
+    void closingAConnectionReleasesItsPermitOnce() throws SQLException {
+        Connection connection = bulkhead.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertEquals(2, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void closeReachesThePooledConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        bulkhead.getConnection().close();
+
+        verify(pooled).close();
+    }
+
+    @Test
+    void failedConnectionReturnsItsPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+
+        assertEquals(2, bulkhead.getAvailablePermits());
+    }
+}
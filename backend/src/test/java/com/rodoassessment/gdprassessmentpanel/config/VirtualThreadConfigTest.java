@@ -0,0 +1,94 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import com.rodoassessment.gdprassessmentpanel.monitoring.StatementMetricsDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class VirtualThreadConfigTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    @Test
+    void bulkheadIsOffByDefault() {
+        assertSame(pool, wrap(new MockEnvironment()));
+    }
+
+    @Test
+    void bulkheadDefaultsToThePoolSize() {
+        Object wrapped = wrap(new MockEnvironment()
+                .withProperty("app.db-bulkhead.enabled", "true")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7"));
+
+        assertEquals(7, assertInstanceOf(BulkheadDataSource.class, wrapped).getMaxPermits());
+    }
+
+    @Test
+    void bulkheadIsFoundBehindTheStatementMetrics() {
+        DataSource bulkhead = (DataSource) wrap(new MockEnvironment()
+                .withProperty("app.db-bulkhead.enabled", "true")
+                .withProperty("app.db-bulkhead.permits", "3"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        new VirtualThreadConfig().databaseBulkheadMetrics(new StatementMetricsDataSource(bulkhead)).bindTo(registry);
+
+        assertEquals(3.0, registry.get("db.bulkhead.permits.available").gauge().value());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualThreadsAreIgnoredBeforeJava21() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("app.virtual-threads.enabled", "true");
+
+        assertSame(pool, wrap(environment));
+        assertFalse(isVirtual(workerThread(environment)));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadsRunWorkersBehindTheBulkhead() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("app.virtual-threads.enabled", "true");
+
+        assertInstanceOf(BulkheadDataSource.class, wrap(environment));
+        assertTrue(isVirtual(workerThread(environment)));
+    }
+
+    private Object wrap(MockEnvironment environment) {
+        return VirtualThreadConfig.databaseBulkheadPostProcessor(environment)
+                .postProcessAfterInitialization(pool, "dataSource");
+    }
+
+    private Thread workerThread(MockEnvironment environment) throws Exception {
+        ExecutorConfig config = new ExecutorConfig();
+        ReflectionTestUtils.setField(config, "workerPoolSize", 1);
+        ReflectionTestUtils.setField(config, "workerQueueCapacity", 1);
+        ThreadPoolTaskExecutor executor = config.workerExecutor(environment);
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertNotNull(thread);
+            return thread;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean isVirtual(Thread thread) throws Exception {
+        return VirtualThreads.isSupported() && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
@@ -0,0 +1,58 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminControllerTest extends DatabaseTest {
+
+    private UserDetailsImpl admin;
+
+    private Long assessmentId;
+
+    @BeforeEach
+    void createAssessment() {
+        admin = createUser("ROLE_ADMIN");
+        UserDetailsImpl owner = createUser("ROLE_USER");
+        assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', 'W TRAKCIE', ?, now(), now()) RETURNING id", Long.class, owner.getId());
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "SELECT ?, id, 'TAK', '' FROM requirements ORDER BY id LIMIT 3", assessmentId);
+        jdbcTemplate.update("INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+                "SELECT ?, id, 'POZYTYWNA', '' FROM areas ORDER BY id LIMIT 2", assessmentId);
+        // Counts that drifted from the answers
+        jdbcTemplate.update("INSERT INTO assessment_summary_counts (assessment_id, kind, chapter_id, value, count) " +
+                "SELECT ?, 'RESPONSE', id, 'NIE', 7 FROM chapters ORDER BY id LIMIT 1", assessmentId);
+    }
+
+    @Test
+    void summaryIsRebuiltFromAnswers() throws Exception {
+        mockMvc.perform(post("/api/admin/assessments/" + assessmentId + "/summary/rebuild")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses.TAK").value(3))
+                .andExpect(jsonPath("$.responses.NIE").doesNotExist())
+                .andExpect(jsonPath("$.areaScores.POZYTYWNA").value(2));
+    }
+
+    @Test
+    void rebuildRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/assessments/" + assessmentId + "/summary/rebuild")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(createUser("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rebuildOfUnknownAssessmentIsRejected() throws Exception {
+        mockMvc.perform(post("/api/admin/assessments/" + Long.MAX_VALUE + "/summary/rebuild")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isBadRequest());
+    }
+}
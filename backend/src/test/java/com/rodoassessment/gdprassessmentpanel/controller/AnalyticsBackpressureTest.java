@@ -0,0 +1,33 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AnalyticsBackpressureTest {
+
+    @Test
+    void saturatedWorkerPoolAnswersServiceUnavailable() throws Exception {
+        AnalyticsService analyticsService = mock(AnalyticsService.class);
+        when(analyticsService.getDistributions(any(), any(), any()))
+                .thenThrow(new TaskRejectedException("Executor is saturated"));
+        AdminController controller = new AdminController();
+        ReflectionTestUtils.setField(controller, "analyticsService", analyticsService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/api/admin/analytics"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+}
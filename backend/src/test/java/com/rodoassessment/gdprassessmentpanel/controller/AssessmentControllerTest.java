@@ -0,0 +1,90 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentLoader;
+import com.rodoassessment.gdprassessmentpanel.service.TemplateRenderer;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web layer of the assessment endpoints with the services mocked; security is covered elsewhere.
+ */
+class AssessmentControllerTest {
+
+    private final AssessmentController controller = new AssessmentController();
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final AssessmentLoader assessmentLoader = mock(AssessmentLoader.class);
+
+    private MockMvc mockMvc;
+
+    private TemplateRenderer.RenderedTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        TemplateRenderer templateRenderer = new TemplateRenderer();
+        ReflectionTestUtils.setField(templateRenderer, "catalogService", catalogService);
+        ReflectionTestUtils.setField(templateRenderer, "assessmentLoader", assessmentLoader);
+        ReflectionTestUtils.setField(templateRenderer, "objectMapper", new ObjectMapper());
+        when(catalogService.getCatalog()).thenReturn(QuestionnaireCatalog.of(1L, List.of(), List.of(), List.of()));
+        when(assessmentLoader.loadTemplate(any())).thenReturn(new AssessmentDto());
+        template = templateRenderer.getTemplate();
+
+        ReflectionTestUtils.setField(controller, "templateRenderer", templateRenderer);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void templateIsServedWithETag() throws Exception {
+        mockMvc.perform(get("/api/assessments/template"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, template.getIdentityETag()))
+                .andExpect(header().string(CompactAssessmentDto.CATALOG_VERSION_HEADER,
+                        catalogService.getCatalog().getContentHash()))
+                .andExpect(content().bytes(template.getIdentity()));
+
+        mockMvc.perform(get("/api/assessments/template").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, template.getGzipETag()))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(template.getGzip()));
+    }
+
+    @Test
+    void templateIsNotModifiedForMatchingTag() throws Exception {
+        mockMvc.perform(get("/api/assessments/template")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\", W/" + template.getGzipETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, template.getIdentityETag()))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/assessments/template").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void templateIsSentForStaleTag() throws Exception {
+        mockMvc.perform(get("/api/assessments/template").header(HttpHeaders.IF_NONE_MATCH, "W/\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(template.getIdentity()));
+    }
+}
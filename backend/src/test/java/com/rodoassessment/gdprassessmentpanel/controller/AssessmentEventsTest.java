@@ -0,0 +1,142 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AnswerPatchRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.ResponseChange;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Subscribes to assessment event streams with a pool smaller than the number of open streams, so a stream
+ * holding on to its connection would leave none for the other requests.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+class AssessmentEventsTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UserDetailsImpl user;
+
+    private long assessmentId;
+
+    private long requirementId;
+
+    @BeforeEach
+    void createAssessment() {
+        user = createUser("ROLE_USER");
+        assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', 'Opis', 'W TRAKCIE', ?, now(), now()) RETURNING id", Long.class, user.getId());
+        requirementId = jdbcTemplate.queryForObject("SELECT min(id) FROM requirements", Long.class);
+    }
+
+    @Test
+    void openStreamsDoNotHoldPooledConnections() throws Exception {
+        List<MvcResult> streams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            streams.add(subscribe());
+        }
+
+        assertEquals(0, dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections());
+        mockMvc.perform(get("/api/assessments/" + assessmentId).header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk());
+        assertEquals(3, streams.size());
+    }
+
+    @Test
+    void committedChangesAreStreamed() throws Exception {
+        MvcResult stream = subscribe();
+
+        AnswerPatchRequest change = new AnswerPatchRequest();
+        change.getResponses().add(new ResponseChange(requirementId, "NIE", "Uwagi", null));
+        mockMvc.perform(patch("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(change)))
+                .andExpect(status().isOk());
+
+        awaitContent(stream, "event:change");
+        String content = content(stream);
+        assertTrue(content.contains("\"requirementId\":" + requirementId), content);
+        assertTrue(content.contains("\"value\":\"NIE\""), content);
+    }
+
+    @Test
+    void deletionIsStreamed() throws Exception {
+        MvcResult stream = subscribe();
+
+        mockMvc.perform(delete("/api/assessments/" + assessmentId).header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk());
+
+        awaitContent(stream, "event:deleted");
+    }
+
+    @Test
+    void othersCannotSubscribe() throws Exception {
+        UserDetailsImpl other = createUser("ROLE_USER");
+
+        mockMvc.perform(get("/api/assessments/" + assessmentId + "/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(other)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult subscribe() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/assessments/" + assessmentId + "/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The first heartbeat is written by the request thread as the stream starts, not by the event executor
+        assertTrue(stream.getResponse().isCommitted());
+        return stream;
+    }
+
+    private void awaitContent(MvcResult stream, String expected) throws Exception {
+        await(() -> content(stream).contains(expected));
+    }
+
+    private String content(MvcResult stream) {
+        try {
+            return stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the event stream");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports JSON Lines and CSV streams through the endpoint, with chunks of two records so that a stream of a
+ * few lines already spans several chunk transactions.
+ */
+@TestPropertySource(properties = {"app.import.chunk-size=2", "app.import.max-errors=3"})
+class AssessmentImportTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserDetailsImpl user;
+
+    private long areaId;
+
+    private long chapterId;
+
+    private List<Long> requirementIds;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("ROLE_USER");
+        Map<String, Object> area = jdbcTemplate.queryForMap(
+                "SELECT a.id, a.chapter_id FROM areas a WHERE (SELECT count(*) FROM requirements q " +
+                "WHERE q.area_id = a.id) >= 3 ORDER BY a.id LIMIT 1");
+        areaId = ((Number) area.get("id")).longValue();
+        chapterId = ((Number) area.get("chapter_id")).longValue();
+        requirementIds = jdbcTemplate.queryForList(
+                "SELECT id FROM requirements WHERE area_id = ? ORDER BY id LIMIT 3", Long.class, areaId);
+    }
+
+    @Test
+    void validJsonLinesAreImportedAndInvalidOnesReported() throws Exception {
+        String stream = assessment("Import A", "POZYTYWNA", "TAK", "NIE") + "\n"
+                + "\n"
+                + "{\"name\": \"Urwany\n"
+                + "{\"name\": \"Import B\"}\n"
+                + "{\"name\": \"Import C\", \"chapters\": [{\"areas\": [{\"id\": " + areaId + ", \"score\": \"ZGODNY\", "
+                + "\"requirements\": [{\"id\": 999999999, \"value\": \"TAK\"}]}]}]}\n";
+
+        JsonNode report = importStream("jsonl", stream);
+
+        assertEquals(4, report.get("received").asInt());
+        assertEquals(2, report.get("imported").asInt());
+        assertEquals(2, report.get("failed").asInt());
+        assertEquals(2, report.get("responses").asInt());
+        assertEquals(1, report.get("areaScores").asInt());
+        assertFalse(report.get("errorsTruncated").asBoolean());
+
+        JsonNode errors = report.get("errors");
+        assertEquals(2, errors.size());
+        assertEquals(2, errors.get(0).get("record").asInt());
+        assertEquals(3, errors.get(0).get("line").asLong());
+        assertTrue(errors.get(0).get("messages").get(0).asText().startsWith("Error: Malformed JSON"));
+        assertEquals(4, errors.get(1).get("record").asInt());
+        assertEquals(5, errors.get(1).get("line").asLong());
+        assertEquals("Import C", errors.get(1).get("name").asText());
+        assertEquals(List.of("Error: Invalid score 'ZGODNY' for area " + areaId + ".",
+                "Error: Unknown requirement 999999999."), texts(errors.get(1).get("messages")));
+
+        assertEquals(List.of("Import A", "Import B"), assessmentNames());
+        Long imported = assessmentId("Import A");
+        assertEquals(List.of(requirementIds.get(0) + " TAK", requirementIds.get(1) + " NIE"),
+                jdbcTemplate.queryForList("SELECT requirement_id || ' ' || value FROM responses " +
+                        "WHERE assessment_id = ? ORDER BY requirement_id", String.class, imported));
+        assertEquals(List.of(areaId + " POZYTYWNA"), jdbcTemplate.queryForList(
+                "SELECT area_id || ' ' || score FROM area_scores WHERE assessment_id = ?", String.class, imported));
+        assertEquals(List.of("AREA " + chapterId + " POZYTYWNA 1", "RESPONSE " + chapterId + " NIE 1",
+                        "RESPONSE " + chapterId + " TAK 1"), summaryCounts(imported));
+        assertEquals(List.of(), summaryCounts(assessmentId("Import B")));
+    }
+
+    @Test
+    void csvRowsOfOneAssessmentAreImportedTogether() throws Exception {
+        String stream = "assessment_id,assessment_name,assessment_status,kind,item_id,value,comment\r\n"
+                + "7,Import CSV,ZAKOŃCZONA,AREA," + areaId + ",ZASTRZEŻENIA,\r\n"
+                + "7,Import CSV,ZAKOŃCZONA,REQUIREMENT," + requirementIds.get(0) + ",TAK,\"Uwagi, z przecinkiem\"\r\n"
+                + "7,Import CSV,ZAKOŃCZONA,REQUIREMENT," + requirementIds.get(1) + ",,\r\n"
+                + "8,Druga CSV,,REQUIREMENT," + requirementIds.get(2) + ",NIE DOTYCZY,\r\n";
+
+        JsonNode report = importStream("csv", stream);
+
+        assertEquals(2, report.get("imported").asInt());
+        assertEquals(0, report.get("failed").asInt());
+        assertEquals(2, report.get("responses").asInt());
+        assertEquals(1, report.get("areaScores").asInt());
+
+        assertEquals(List.of("Druga CSV", "Import CSV"), assessmentNames());
+        Long first = assessmentId("Import CSV");
+        assertEquals("ZAKOŃCZONA", jdbcTemplate.queryForObject(
+                "SELECT status FROM assessments WHERE id = ?", String.class, first));
+        assertEquals("Uwagi, z przecinkiem", jdbcTemplate.queryForObject(
+                "SELECT comment FROM responses WHERE assessment_id = ?", String.class, first));
+        assertEquals(List.of("AREA " + chapterId + " ZASTRZEŻENIA 1", "RESPONSE " + chapterId + " TAK 1"),
+                summaryCounts(first));
+        assertEquals(List.of("RESPONSE " + chapterId + " NIE DOTYCZY 1"), summaryCounts(assessmentId("Druga CSV")));
+    }
+
+    @Test
+    void chunkThatCannotBeWrittenIsRolledBackAsAWhole() throws Exception {
+        // PostgreSQL rejects the NUL character in text, so the second record fails after the first was inserted
+        String stream = assessment("Pierwsza", "POZYTYWNA", "TAK") + "\n"
+                + assessment("Z bajtem zerowym", null, "TAK").replace("\"TAK\"", "\"TAK\", \"comment\": \"a\\u0000b\"")
+                + "\n"
+                + assessment("Trzecia", null, "NIE") + "\n";
+
+        JsonNode report = importStream("jsonl", stream);
+
+        assertEquals(3, report.get("received").asInt());
+        assertEquals(1, report.get("imported").asInt());
+        assertEquals(2, report.get("failed").asInt());
+        assertEquals(1, report.get("responses").asInt());
+        assertEquals(0, report.get("areaScores").asInt());
+        for (JsonNode error : report.get("errors")) {
+            assertTrue(error.get("messages").get(0).asText().startsWith("Error: Chunk could not be written"));
+        }
+        assertEquals(List.of(1, 2), List.of(report.get("errors").get(0).get("record").asInt(),
+                report.get("errors").get(1).get("record").asInt()));
+
+        assertEquals(List.of("Trzecia"), assessmentNames());
+        assertEquals(List.of("RESPONSE " + chapterId + " NIE 1"), summaryCounts(assessmentId("Trzecia")));
+    }
+
+    @Test
+    void errorsBeyondTheLimitAreCountedButNotListed() throws Exception {
+        JsonNode report = importStream("jsonl", "{\n[\n{\"name\": \"\"}\n{\"name\": \"  \"}\n{\"name\": 5\n");
+
+        assertEquals(5, report.get("received").asInt());
+        assertEquals(0, report.get("imported").asInt());
+        assertEquals(5, report.get("failed").asInt());
+        assertEquals(3, report.get("errors").size());
+        assertTrue(report.get("errorsTruncated").asBoolean());
+        assertEquals(List.of(), assessmentNames());
+    }
+
+    @Test
+    void unsupportedFormatIsRejected() throws Exception {
+        String body = mockMvc.perform(post("/api/assessments/import").param("format", "xml")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .content("<assessment/>"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals("Error: Unsupported import format.", objectMapper.readTree(body).get("message").asText());
+        assertEquals(List.of(), assessmentNames());
+    }
+
+    private String assessment(String name, String score, String... values) throws Exception {
+        Map<String, Object> areaNode = new LinkedHashMap<>();
+        areaNode.put("id", areaId);
+        if (score != null) {
+            areaNode.put("score", score);
+        }
+        List<Map<String, Object>> requirements = new ArrayList<>();
+        for (int i = 0; i < requirementIds.size(); i++) {
+            // Requirements without a value are unanswered and must not be imported
+            requirements.add(i < values.length
+                    ? Map.of("id", requirementIds.get(i), "value", values[i])
+                    : Map.of("id", requirementIds.get(i)));
+        }
+        areaNode.put("requirements", requirements);
+        return objectMapper.writeValueAsString(Map.of("name", name,
+                "chapters", List.of(Map.of("id", chapterId, "areas", List.of(areaNode)))));
+    }
+
+    private JsonNode importStream(String format, String stream) throws Exception {
+        String body = mockMvc.perform(post("/api/assessments/import").param("format", format)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .content(stream.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    private List<String> assessmentNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT name FROM assessments WHERE user_id = ? ORDER BY name", String.class, user.getId());
+    }
+
+    private Long assessmentId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM assessments WHERE user_id = ? AND name = ?",
+                Long.class, user.getId(), name);
+    }
+
+    private List<String> summaryCounts(Long assessmentId) {
+        return jdbcTemplate.queryForList("SELECT kind || ' ' || chapter_id || ' ' || value || ' ' || count " +
+                "FROM assessment_summary_counts WHERE assessment_id = ? ORDER BY kind, value", String.class,
+                assessmentId);
+    }
+
+    private List<String> texts(JsonNode array) {
+        List<String> texts = new ArrayList<>();
+        array.forEach(node -> texts.add(node.asText()));
+        return texts;
+    }
+}
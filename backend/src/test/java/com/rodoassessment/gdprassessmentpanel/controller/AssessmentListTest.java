@@ -0,0 +1,95 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AssessmentListTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserDetailsImpl user;
+
+    // Ids in list order: newest first, ties on created_at broken by the higher id
+    private final List<Long> expectedIds = new ArrayList<>();
+
+    @BeforeEach
+    void createAssessments() {
+        user = createUser("ROLE_USER");
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0);
+        LocalDateTime[] createdAt = {base, base.plusDays(1), base.plusDays(1), base.plusDays(2), base.plusDays(3)};
+        List<Long> ids = new ArrayList<>();
+        for (LocalDateTime time : createdAt) {
+            ids.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                    "VALUES ('Ocena', 'W TRAKCIE', ?, ?, ?) RETURNING id",
+                    Long.class, user.getId(), Timestamp.valueOf(time), Timestamp.valueOf(time)));
+        }
+        expectedIds.addAll(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)));
+
+        UserDetailsImpl other = createUser("ROLE_USER");
+        jdbcTemplate.update("INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                "VALUES ('Cudza ocena', 'W TRAKCIE', ?, now(), now())", other.getId());
+    }
+
+    @Test
+    void listWithoutParametersIsAnArrayOfAllAssessments() throws Exception {
+        JsonNode body = list("/api/assessments");
+
+        assertTrue(body.isArray());
+        assertEquals(expectedIds, ids(body));
+    }
+
+    @Test
+    void pagesFollowTheCursorWithoutGapsOrRepeats() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        JsonNode page = list("/api/assessments?limit=2");
+        int pages = 1;
+        while (page.hasNonNull("nextCursor")) {
+            assertEquals(2, page.get("items").size());
+            seen.addAll(ids(page.get("items")));
+            page = list("/api/assessments?limit=2&after=" + page.get("nextCursor").asText());
+            pages++;
+        }
+        seen.addAll(ids(page.get("items")));
+
+        assertEquals(3, pages);
+        assertEquals(expectedIds, seen);
+    }
+
+    @Test
+    void invalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/assessments?after=bm90LWEtY3Vyc29y")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode list(String uri) throws Exception {
+        String json = mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private List<Long> ids(JsonNode items) {
+        List<Long> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+}
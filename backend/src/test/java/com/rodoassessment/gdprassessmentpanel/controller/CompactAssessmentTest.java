@@ -0,0 +1,139 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rodoassessment.gdprassessmentpanel.dto.CompactAssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompactAssessmentTest extends DatabaseTest {
+
+    private static final MediaType COMPACT = MediaType.parseMediaType(CompactAssessmentDto.MEDIA_TYPE);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    private UserDetailsImpl user;
+
+    private long assessmentId;
+
+    private long requirementId;
+
+    @BeforeEach
+    void createAssessment() {
+        user = createUser("ROLE_USER");
+        assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', 'Opis', 'W TRAKCIE', ?, now(), now()) RETURNING id", Long.class, user.getId());
+        requirementId = jdbcTemplate.queryForObject("SELECT min(id) FROM requirements", Long.class);
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "VALUES (?, ?, 'TAK', 'Uwagi')", assessmentId, requirementId);
+    }
+
+    @Test
+    void compactMediaTypeSelectsTheCompactRepresentation() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .accept(COMPACT))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(COMPACT))
+                .andReturn();
+
+        JsonNode body = json(result);
+        assertFalse(body.has("chapters"));
+        JsonNode response = body.get("responses").get(String.valueOf(requirementId));
+        assertEquals("TAK", response.get("value").asText());
+        assertEquals("Uwagi", response.get("comment").asText());
+        assertTrue(result.getResponse().getHeaderValues(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void otherMediaTypesGetTheFullAssessment() throws Exception {
+        for (String accept : new String[] {MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE, null}) {
+            MvcResult result = mockMvc.perform(get("/api/assessments/" + assessmentId)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                            .headers(acceptHeader(accept)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andReturn();
+
+            assertTrue(json(result).has("chapters"), "Accept: " + accept);
+        }
+    }
+
+    @Test
+    void compactAssessmentRefersToTheTemplateCatalogVersion() throws Exception {
+        String templateVersion = mockMvc.perform(get("/api/assessments/template")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(CompactAssessmentDto.CATALOG_VERSION_HEADER);
+
+        JsonNode body = json(mockMvc.perform(get("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .accept(COMPACT))
+                .andReturn());
+
+        assertEquals(catalogService.getCatalog().getContentHash(), templateVersion);
+        assertEquals(templateVersion, body.get("catalogVersion").asText());
+    }
+
+    @Test
+    void compactPutSavesChangedAnswers() throws Exception {
+        ObjectNode compact = (ObjectNode) json(mockMvc.perform(get("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .accept(COMPACT))
+                .andReturn());
+        ObjectNode response = (ObjectNode) compact.get("responses").get(String.valueOf(requirementId));
+        response.put("baseValue", response.get("value").asText());
+        response.put("baseComment", response.get("comment").asText());
+        response.put("value", "NIE");
+
+        MvcResult result = mockMvc.perform(put("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .contentType(COMPACT)
+                        .content(objectMapper.writeValueAsBytes(compact)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(COMPACT))
+                .andReturn();
+
+        JsonNode saved = json(result).get("responses").get(String.valueOf(requirementId));
+        assertEquals("NIE", saved.get("value").asText());
+        assertEquals(2, saved.get("version").asLong());
+        assertEquals("NIE", jdbcTemplate.queryForObject(
+                "SELECT value FROM responses WHERE assessment_id = ? AND requirement_id = ?",
+                String.class, assessmentId, requirementId));
+    }
+
+    private HttpHeaders acceptHeader(String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (accept != null) {
+            headers.set(HttpHeaders.ACCEPT, accept);
+        }
+        return headers;
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+}
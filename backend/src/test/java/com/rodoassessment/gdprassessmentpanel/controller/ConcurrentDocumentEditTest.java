@@ -0,0 +1,11 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The same edits with the answers kept as one JSONB document per assessment. Rows of other tests in the
+ * shared database are left where they are.
+ */
+@TestPropertySource(properties = {"app.storage.mode=document", "app.storage.migrate-on-startup=false"})
+class ConcurrentDocumentEditTest extends ConcurrentEditTest {
+}
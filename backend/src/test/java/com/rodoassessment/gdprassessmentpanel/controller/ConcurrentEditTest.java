@@ -0,0 +1,208 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two editors load the same assessment and save the whole document (PUT) one after the other, the way the
+ * client does: every field with the version and the value it was read with.
+ */
+class ConcurrentEditTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserDetailsImpl user;
+
+    private long assessmentId;
+
+    private long first;
+
+    private long second;
+
+    @BeforeEach
+    void createAssessment() {
+        user = createUser("ROLE_USER");
+        assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', 'Opis', 'W TRAKCIE', ?, now(), now()) RETURNING id", Long.class, user.getId());
+        List<Long> requirements = jdbcTemplate.queryForList(
+                "SELECT id FROM requirements ORDER BY id LIMIT 2", Long.class);
+        first = requirements.get(0);
+        second = requirements.get(1);
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "VALUES (?, ?, 'TAK', ''), (?, ?, 'TAK', '')", assessmentId, first, assessmentId, second);
+    }
+
+    @Test
+    void editorsChangingDifferentRequirementsMerge() throws Exception {
+        ObjectNode editorA = edit(load());
+        ObjectNode editorB = edit(load());
+
+        requirement(editorA, first).put("value", "NIE");
+        save(editorA).andExpect(status().isOk());
+        requirement(editorB, second).put("value", "W REALIZACJI");
+        save(editorB).andExpect(status().isOk());
+
+        JsonNode stored = load();
+        assertEquals("NIE", requirement(stored, first).get("value").asText());
+        assertEquals("W REALIZACJI", requirement(stored, second).get("value").asText());
+    }
+
+    @Test
+    void editorsChangingTheSameRequirementConflict() throws Exception {
+        ObjectNode editorA = edit(load());
+        ObjectNode editorB = edit(load());
+
+        requirement(editorA, first).put("value", "NIE");
+        save(editorA).andExpect(status().isOk());
+        requirement(editorB, first).put("value", "W REALIZACJI");
+        requirement(editorB, second).put("comment", "Uwagi B");
+        save(editorB)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflicts.length()").value(1))
+                .andExpect(jsonPath("$.conflicts[0].kind").value("RESPONSE"))
+                .andExpect(jsonPath("$.conflicts[0].id").value(first))
+                .andExpect(jsonPath("$.conflicts[0].currentValue").value("NIE"))
+                .andExpect(jsonPath("$.conflicts[0].currentVersion").value(2));
+
+        JsonNode stored = load();
+        assertEquals("NIE", requirement(stored, first).get("value").asText());
+        assertEquals("Uwagi B", requirement(stored, second).get("comment").asText());
+    }
+
+    @Test
+    void editorsChangingDifferentHeaderFieldsMerge() throws Exception {
+        ObjectNode editorA = edit(load());
+        ObjectNode editorB = edit(load());
+        ObjectNode editorC = edit(load());
+
+        editorA.put("name", "Ocena A");
+        save(editorA).andExpect(status().isOk());
+        editorB.put("status", "ZAKOŃCZONA");
+        save(editorB).andExpect(status().isOk());
+        editorC.put("name", "Ocena C");
+        save(editorC)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflicts.length()").value(1))
+                .andExpect(jsonPath("$.conflicts[0].kind").value("NAME"))
+                .andExpect(jsonPath("$.conflicts[0].currentValue").value("Ocena A"));
+
+        JsonNode stored = load();
+        assertEquals("Ocena A", stored.get("name").asText());
+        assertEquals("ZAKOŃCZONA", stored.get("status").asText());
+        assertEquals(1, stored.get("nameVersion").asLong());
+        assertEquals(1, stored.get("statusVersion").asLong());
+        assertEquals(0, stored.get("descriptionVersion").asLong());
+    }
+
+    @Test
+    void putWithoutVersionsDoesNotOverwriteOtherEditors() throws Exception {
+        ObjectNode stale = load();
+        ObjectNode editor = edit(load());
+        requirement(editor, first).put("value", "NIE");
+        editor.put("name", "Ocena A");
+        save(editor).andExpect(status().isOk());
+
+        // A client that knows nothing about versions sends back what it read earlier
+        strip(stale);
+        requirement(stale, second).put("value", "NIE");
+        save(stale)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflicts.length()").value(3));
+
+        JsonNode stored = load();
+        assertEquals("NIE", requirement(stored, first).get("value").asText());
+        assertEquals("TAK", requirement(stored, second).get("value").asText());
+        assertEquals("Ocena A", stored.get("name").asText());
+    }
+
+    @Test
+    void putWithoutVersionsAnswersUnansweredRequirements() throws Exception {
+        long third = jdbcTemplate.queryForObject("SELECT id FROM requirements ORDER BY id OFFSET 2 LIMIT 1",
+                Long.class);
+        ObjectNode client = load();
+        strip(client);
+        requirement(client, third).put("value", "NIE");
+
+        save(client).andExpect(status().isOk());
+
+        assertEquals("NIE", requirement(load(), third).get("value").asText());
+    }
+
+    private ObjectNode load() throws Exception {
+        String body = mockMvc.perform(get("/api/assessments/" + assessmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return (ObjectNode) objectMapper.readTree(body);
+    }
+
+    private ResultActions save(JsonNode document) throws Exception {
+        return mockMvc.perform(put("/api/assessments/" + assessmentId)
+                .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(document)));
+    }
+
+    // What the client keeps of a loaded document: every field's value as read, next to the edited value
+    private ObjectNode edit(ObjectNode document) {
+        document.put("baseName", document.path("name").asText(""));
+        document.put("baseDescription", document.path("description").asText(""));
+        document.put("baseStatus", document.path("status").asText(""));
+        for (JsonNode chapter : document.get("chapters")) {
+            for (JsonNode area : chapter.get("areas")) {
+                ((ObjectNode) area).put("baseScore", area.path("score").asText(""));
+                ((ObjectNode) area).put("baseComment", area.path("comment").asText(""));
+                for (JsonNode requirement : area.get("requirements")) {
+                    ((ObjectNode) requirement).put("baseValue", requirement.path("value").asText(""));
+                    ((ObjectNode) requirement).put("baseComment", requirement.path("comment").asText(""));
+                }
+            }
+        }
+        return document;
+    }
+
+    private void strip(ObjectNode document) {
+        document.remove(List.of("version", "nameVersion", "descriptionVersion", "statusVersion"));
+        for (JsonNode chapter : document.get("chapters")) {
+            for (JsonNode area : chapter.get("areas")) {
+                ((ObjectNode) area).remove("version");
+                for (JsonNode requirement : area.get("requirements")) {
+                    ((ObjectNode) requirement).remove("version");
+                }
+            }
+        }
+    }
+
+    private ObjectNode requirement(JsonNode document, long id) {
+        for (JsonNode chapter : document.get("chapters")) {
+            for (JsonNode area : chapter.get("areas")) {
+                for (JsonNode requirement : area.get("requirements")) {
+                    if (requirement.get("id").asLong() == id) {
+                        return (ObjectNode) requirement;
+                    }
+                }
+            }
+        }
+        throw new AssertionError("No requirement " + id);
+    }
+}
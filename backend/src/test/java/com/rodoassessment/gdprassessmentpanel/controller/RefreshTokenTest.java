@@ -0,0 +1,124 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.security.services.RefreshTokenService;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rotates refresh tokens through the auth endpoints; replaying a token that was already rotated revokes every
+ * token issued from the same sign-in.
+ */
+class RefreshTokenTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private UserDetailsImpl user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("ROLE_USER");
+    }
+
+    @Test
+    void rotationIssuesANewTokenAndRetiresTheOldOne() throws Exception {
+        String issued = refreshTokenService.issue(user.getId());
+
+        String rotated = rotate(issued);
+
+        assertNotEquals(issued, rotated);
+        assertEquals(2, familySize(issued));
+        rotate(rotated);
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() throws Exception {
+        String issued = refreshTokenService.issue(user.getId());
+        String rotated = rotate(issued);
+
+        refresh(issued).andExpect(status().isUnauthorized());
+
+        refresh(rotated).andExpect(status().isUnauthorized());
+        assertEquals(0, tokensOf(user));
+    }
+
+    @Test
+    void reuseLeavesOtherSignInsAlone() throws Exception {
+        String issued = refreshTokenService.issue(user.getId());
+        String otherDevice = refreshTokenService.issue(user.getId());
+        rotate(issued);
+
+        refresh(issued).andExpect(status().isUnauthorized());
+
+        rotate(otherDevice);
+    }
+
+    @Test
+    void signOutRevokesTheFamily() throws Exception {
+        String issued = refreshTokenService.issue(user.getId());
+        String rotated = rotate(issued);
+
+        mockMvc.perform(post("/api/auth/signout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(rotated)))
+                .andExpect(status().isOk());
+
+        refresh(rotated).andExpect(status().isUnauthorized());
+        assertEquals(0, tokensOf(user));
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() throws Exception {
+        String issued = refreshTokenService.issue(user.getId());
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = now() - interval '1 minute' WHERE user_id = ?",
+                user.getId());
+
+        refresh(issued).andExpect(status().isUnauthorized());
+        refresh("unknown").andExpect(status().isUnauthorized());
+    }
+
+    private String rotate(String token) throws Exception {
+        String body = refresh(token)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body).get("refreshToken").asText();
+    }
+
+    private ResultActions refresh(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(token)));
+    }
+
+    private byte[] body(String token) throws Exception {
+        return objectMapper.writeValueAsBytes(Map.of("refreshToken", token));
+    }
+
+    private int familySize(String token) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE family_id = (SELECT family_id FROM refresh_tokens " +
+                "WHERE token_hash = encode(sha256(convert_to(?, 'UTF8')), 'hex'))",
+                Integer.class, token);
+    }
+
+    private int tokensOf(UserDetailsImpl owner) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE user_id = ?",
+                Integer.class, owner.getId());
+    }
+}
@@ -0,0 +1,129 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.search.PolishText;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Searches the assessments and comments of one user, and checks that the database stems text the same way
+ * as {@link PolishText}, which stems the queries and the in-memory requirement index.
+ */
+class SearchTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserDetailsImpl user;
+
+    private Long rodoAssessment;
+
+    private Long rodzajAssessment;
+
+    private Long retentionAssessment;
+
+    @BeforeEach
+    void createAssessments() {
+        user = createUser("ROLE_USER");
+        rodoAssessment = insertAssessment("Zgodność z RODO", "Ocena roczna");
+        rodzajAssessment = insertAssessment("Rodzaje danych", "Przegląd monitoringu wizyjnego");
+
+        Long requirementId = jdbcTemplate.queryForObject("SELECT min(id) FROM requirements", Long.class);
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "VALUES (?, ?, 'TAK', 'Rodzaj danych opisany w rejestrze')", rodzajAssessment, requirementId);
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "VALUES (?, ?, 'TAK', 'Zgodne z RODO')", rodoAssessment, requirementId);
+
+        retentionAssessment = insertAssessment("Okresy retencji", "Przechowywanie danych kadrowych");
+        Long areaId = jdbcTemplate.queryForObject("SELECT min(id) FROM areas", Long.class);
+        jdbcTemplate.update("INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+                "VALUES (?, ?, 'POZYTYWNA', 'Zasady przechowywania opisano w polityce')", retentionAssessment, areaId);
+    }
+
+    @Test
+    void queryWordIsNotCutToAShorterStem() throws Exception {
+        JsonNode result = search("rodo");
+
+        assertEquals(List.of(rodoAssessment), ids(result.get("assessments"), "id"));
+        assertEquals(List.of(rodoAssessment), ids(result.get("comments"), "assessmentId"));
+    }
+
+    @Test
+    void inflectedQueryFindsOtherForms() throws Exception {
+        JsonNode dane = search("dane");
+        assertEquals(List.of(rodzajAssessment, retentionAssessment), sorted(ids(dane.get("assessments"), "id")));
+        assertEquals(List.of(rodzajAssessment), ids(dane.get("comments"), "assessmentId"));
+
+        JsonNode przechowywania = search("przechowywania");
+        assertEquals(List.of(retentionAssessment), ids(przechowywania.get("assessments"), "id"));
+        assertEquals(List.of(retentionAssessment), ids(przechowywania.get("comments"), "assessmentId"));
+
+        assertEquals(List.of(rodzajAssessment), ids(search("monitoring wizyjny").get("assessments"), "id"));
+    }
+
+    @Test
+    void stemsAreMatchedWhole() throws Exception {
+        assertEquals(List.of(), ids(search("monitor").get("assessments"), "id"));
+        assertEquals(List.of(), ids(search("przechowywanie monitoringu").get("assessments"), "id"));
+    }
+
+    @Test
+    void diacriticsAreIgnored() throws Exception {
+        assertEquals(List.of(rodoAssessment), ids(search("ZGODNOSC").get("assessments"), "id"));
+        assertEquals(List.of(rodzajAssessment), ids(search("przegląd").get("assessments"), "id"));
+    }
+
+    @Test
+    void databaseStemsLikePolishText() {
+        List<String> texts = new ArrayList<>(jdbcTemplate.queryForList("SELECT text FROM requirements", String.class));
+        texts.add("Zgodność z RODO; przechowywanie danych osobowych, monitoringu wizyjnego i kopii zapasowych.");
+        texts.add("Oceną objęto 12 systemów - w tym CRM-y i e-mail.");
+        for (String text : texts) {
+            assertEquals(String.join(" ", PolishText.stems(text)),
+                    jdbcTemplate.queryForObject("SELECT rodo_stem(?)", String.class, text), text);
+        }
+
+        String comment = "Okres przechowywania danych";
+        String answers = "{\"r\": {\"1\": {\"v\": \"TAK\", \"c\": \"" + comment + "\", \"n\": 0}}}";
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rodo_answer_comments(?::jsonb) AS stored, rodo_stem(?) AS expected", answers, comment);
+        assertEquals(row.get("expected"), row.get("stored"));
+    }
+
+    private Long insertAssessment(String name, String description) {
+        return jdbcTemplate.queryForObject("INSERT INTO assessments (name, description, status, user_id) " +
+                "VALUES (?, ?, 'W TRAKCIE', ?) RETURNING id", Long.class, name, description, user.getId());
+    }
+
+    private JsonNode search(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/search").param("q", query)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    private List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private List<Long> ids(JsonNode hits, String field) {
+        List<Long> ids = new ArrayList<>();
+        hits.forEach(hit -> ids.add(hit.get(field).asLong()));
+        return ids;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The same writes with the answers kept as one JSONB document per assessment.
+ */
+@TestPropertySource(properties = {"app.storage.mode=document", "app.storage.migrate-on-startup=false"})
+class SummaryCountDocumentTest extends SummaryCountTest {
+}
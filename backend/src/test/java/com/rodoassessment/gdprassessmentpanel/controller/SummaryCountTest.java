@@ -0,0 +1,183 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every kind of write through the endpoints and checks after each one that the incrementally maintained
+ * summary counts equal a count of the stored answers.
+ */
+class SummaryCountTest extends DatabaseTest {
+
+    private static final String RECOUNT =
+            "SELECT kind || ' ' || chapter_id || ' ' || value || ' ' || n FROM (" +
+            "SELECT 'RESPONSE' AS kind, a.chapter_id, r.value, count(*) AS n FROM %s r " +
+            "JOIN requirements q ON q.id = r.requirement_id JOIN areas a ON a.id = q.area_id " +
+            "WHERE r.assessment_id = ? AND r.value <> '' GROUP BY a.chapter_id, r.value " +
+            "UNION ALL SELECT 'AREA', a.chapter_id, s.score, count(*) FROM %s s JOIN areas a ON a.id = s.area_id " +
+            "WHERE s.assessment_id = ? AND s.score <> '' GROUP BY a.chapter_id, s.score) counts";
+
+    private static final String STORED =
+            "SELECT kind || ' ' || chapter_id || ' ' || value || ' ' || count FROM assessment_summary_counts " +
+            "WHERE assessment_id = ?";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    private UserDetailsImpl user;
+
+    private long chapter;
+
+    private long area;
+
+    private long otherChapter;
+
+    private long otherArea;
+
+    private long first;
+
+    private long second;
+
+    private long other;
+
+    @BeforeEach
+    void pickItems() {
+        user = createUser("ROLE_USER");
+        List<Map<String, Object>> areas = jdbcTemplate.queryForList(
+                "SELECT DISTINCT ON (a.chapter_id) a.id, a.chapter_id FROM areas a " +
+                "WHERE (SELECT count(*) FROM requirements q WHERE q.area_id = a.id) >= 2 " +
+                "ORDER BY a.chapter_id, a.id LIMIT 2");
+        area = ((Number) areas.get(0).get("id")).longValue();
+        chapter = ((Number) areas.get(0).get("chapter_id")).longValue();
+        otherArea = ((Number) areas.get(1).get("id")).longValue();
+        otherChapter = ((Number) areas.get(1).get("chapter_id")).longValue();
+        List<Long> requirements = jdbcTemplate.queryForList(
+                "SELECT id FROM requirements WHERE area_id = ? ORDER BY id LIMIT 2", Long.class, area);
+        first = requirements.get(0);
+        second = requirements.get(1);
+        other = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM requirements WHERE area_id = ?", Long.class, otherArea);
+    }
+
+    @Test
+    void countsFollowEveryWrite() throws Exception {
+        String created = assessment("Liczniki", chapter, area, "POZYTYWNA",
+                Map.of("id", first, "value", "TAK"), Map.of("id", second, "value", "TAK"));
+        JsonNode assessment = send(post("/api/assessments").contentType(MediaType.APPLICATION_JSON).content(created));
+        long id = assessment.get("id").asLong();
+        assertCounts(id, "AREA " + chapter + " POZYTYWNA 1", "RESPONSE " + chapter + " TAK 2");
+
+        // A whole document with one value changed, one unchanged, a new answer in another chapter and a new score
+        ObjectNode document = (ObjectNode) send(get("/api/assessments/" + id));
+        item(document, "requirements", first).put("value", "NIE");
+        item(document, "requirements", other).put("value", "W REALIZACJI");
+        item(document, "areas", otherArea).put("score", "ZASTRZEŻENIA");
+        send(put("/api/assessments/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(document)));
+        assertCounts(id, "AREA " + chapter + " POZYTYWNA 1", "AREA " + otherChapter + " ZASTRZEŻENIA 1",
+                "RESPONSE " + chapter + " NIE 1", "RESPONSE " + chapter + " TAK 1",
+                "RESPONSE " + otherChapter + " W REALIZACJI 1");
+
+        // Saving the same document again changes nothing
+        document = (ObjectNode) send(get("/api/assessments/" + id));
+        send(put("/api/assessments/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(document)));
+        assertCounts(id, "AREA " + chapter + " POZYTYWNA 1", "AREA " + otherChapter + " ZASTRZEŻENIA 1",
+                "RESPONSE " + chapter + " NIE 1", "RESPONSE " + chapter + " TAK 1",
+                "RESPONSE " + otherChapter + " W REALIZACJI 1");
+
+        send(patch("/api/assessments/" + id).contentType(MediaType.APPLICATION_JSON).content(
+                "{\"responses\": [{\"requirementId\": " + second + ", \"value\": \"NIE\"}], " +
+                "\"areaScores\": [{\"areaId\": " + area + ", \"score\": \"NEGATYWNA\"}]}"));
+        assertCounts(id, "AREA " + chapter + " NEGATYWNA 1", "AREA " + otherChapter + " ZASTRZEŻENIA 1",
+                "RESPONSE " + chapter + " NIE 2", "RESPONSE " + otherChapter + " W REALIZACJI 1");
+
+        send(patch("/api/assessments/" + id).contentType(MediaType.APPLICATION_JSON).content(
+                "{\"responses\": [{\"requirementId\": " + first + ", \"value\": \"\"}, " +
+                "{\"requirementId\": " + other + ", \"value\": \"\"}], " +
+                "\"areaScores\": [{\"areaId\": " + otherArea + ", \"score\": \"\"}]}"));
+        assertCounts(id, "AREA " + chapter + " NEGATYWNA 1", "RESPONSE " + chapter + " NIE 1");
+
+        String line = assessment("Import liczników", otherChapter, otherArea, "NIE DOTYCZY",
+                Map.of("id", other, "value", "NIE DOTYCZY"));
+        send(post("/api/assessments/import").param("format", "jsonl").content(line + "\n"));
+        long imported = jdbcTemplate.queryForObject("SELECT id FROM assessments WHERE user_id = ? AND name = ?",
+                Long.class, user.getId(), "Import liczników");
+        assertCounts(imported, "AREA " + otherChapter + " NIE DOTYCZY 1",
+                "RESPONSE " + otherChapter + " NIE DOTYCZY 1");
+
+        send(delete("/api/assessments/" + id));
+        assertCounts(id);
+        assertCounts(imported, "AREA " + otherChapter + " NIE DOTYCZY 1",
+                "RESPONSE " + otherChapter + " NIE DOTYCZY 1");
+    }
+
+    @SafeVarargs
+    private String assessment(String name, long chapterId, long areaId, String score,
+                              Map<String, Object>... requirements) throws Exception {
+        Map<String, Object> areaNode = Map.of("id", areaId, "score", score, "requirements", List.of(requirements));
+        return objectMapper.writeValueAsString(Map.of("name", name,
+                "chapters", List.of(Map.of("id", chapterId, "areas", List.of(areaNode)))));
+    }
+
+    private void assertCounts(long assessmentId, String... expected) {
+        List<String> stored = sorted(jdbcTemplate.queryForList(STORED, String.class, assessmentId));
+        List<String> recount = sorted(jdbcTemplate.queryForList(
+                String.format(RECOUNT, answerTables.responses(), answerTables.areaScores()), String.class,
+                assessmentId, assessmentId));
+        assertEquals(recount, stored);
+        assertEquals(sorted(List.of(expected)), stored);
+    }
+
+    private List<String> sorted(List<String> rows) {
+        return rows.stream().sorted().toList();
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    private ObjectNode item(JsonNode document, String kind, long id) {
+        for (JsonNode chapterNode : document.get("chapters")) {
+            for (JsonNode areaNode : chapterNode.get("areas")) {
+                if ("areas".equals(kind) && areaNode.get("id").asLong() == id) {
+                    return (ObjectNode) areaNode;
+                }
+                for (JsonNode requirement : areaNode.get("requirements")) {
+                    if ("requirements".equals(kind) && requirement.get("id").asLong() == id) {
+                        return (ObjectNode) requirement;
+                    }
+                }
+            }
+        }
+        throw new AssertionError("No " + kind + " " + id);
+    }
+}
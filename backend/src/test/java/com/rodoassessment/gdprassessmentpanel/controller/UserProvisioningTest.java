@@ -0,0 +1,172 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.BulkUserRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.SignupRequest;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Provisions users in chunks smaller than the request, with a worker pool small enough to be saturated by
+ * the test itself.
+ */
+@TestPropertySource(properties = {
+        "app.provisioning.chunk-size=2",
+        "app.provisioning.parallelism=2",
+        "app.provisioning.max-users=5",
+        "app.worker.pool-size=1",
+        "app.worker.queue-capacity=1"
+})
+class UserProvisioningTest extends DatabaseTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("workerExecutor")
+    private ThreadPoolTaskExecutor workerExecutor;
+
+    private UserDetailsImpl admin;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        admin = createUser("ROLE_ADMIN");
+        prefix = "p" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void createsUsersWithHashedPasswordsAndRoles() throws Exception {
+        JsonNode report = json(provision(user("a", null), user("b", Set.of("admin")), user("c", Set.of("user")))
+                .andExpect(status().isOk()));
+
+        assertEquals(3, report.get("created").asInt());
+        assertEquals(0, report.get("failed").asInt());
+        for (JsonNode result : report.get("results")) {
+            assertEquals("CREATED", result.get("status").asText());
+            String hash = jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class,
+                    result.get("id").asLong());
+            assertTrue(passwordEncoder.matches("password-" + result.get("username").asText(), hash));
+        }
+        assertEquals(List.of("ROLE_USER"), roles(prefix + "a"));
+        assertEquals(List.of("ROLE_ADMIN"), roles(prefix + "b"));
+        assertEquals(List.of("ROLE_USER"), roles(prefix + "c"));
+    }
+
+    @Test
+    void invalidAndDuplicateEntriesDoNotStopTheRest() throws Exception {
+        SignupRequest invalid = user("d", null);
+        invalid.setEmail("not an email");
+        SignupRequest taken = user("e", null);
+        taken.setUsername(admin.getUsername());
+
+        JsonNode report = json(provision(user("a", null), invalid, user("a", null), taken, user("b", null))
+                .andExpect(status().isOk()));
+
+        assertEquals(List.of("CREATED", "FAILED", "FAILED", "FAILED", "CREATED"), statuses(report));
+        assertEquals("Error: Username is repeated in the request.",
+                report.get("results").get(2).get("messages").get(0).asText());
+        assertEquals("Error: Username is already taken!",
+                report.get("results").get(3).get("messages").get(0).asText());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE username LIKE ?",
+                Integer.class, prefix + "%"));
+    }
+
+    @Test
+    void hashingDoesNotNeedTheWorkerPool() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // One task runs and one waits in the queue, so the worker pool takes no more work
+        for (int i = 0; i < 2; i++) {
+            workerExecutor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            provision(user("a", null), user("b", null), user("c", null))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(3));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void tooManyUsersAreRejected() throws Exception {
+        List<SignupRequest> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(user(String.valueOf(i), null));
+        }
+
+        provision(users.toArray(new SignupRequest[0]))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: At most 5 users can be created at once."));
+    }
+
+    @Test
+    void provisioningRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/users/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(createUser("ROLE_USER")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new BulkUserRequest(List.of(user("a", null))))))
+                .andExpect(status().isForbidden());
+    }
+
+    private SignupRequest user(String suffix, Set<String> roles) {
+        String username = prefix + suffix;
+        return new SignupRequest(username, username + "@example.com", roles, "password-" + username);
+    }
+
+    private ResultActions provision(SignupRequest... users) throws Exception {
+        return mockMvc.perform(post("/api/admin/users/bulk")
+                .header(HttpHeaders.AUTHORIZATION, bearer(admin))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new BulkUserRequest(List.of(users)))));
+    }
+
+    private List<String> roles(String username) {
+        return jdbcTemplate.queryForList("SELECT r.name FROM users u JOIN user_roles ur ON ur.user_id = u.id " +
+                "JOIN roles r ON r.id = ur.role_id WHERE u.username = ? ORDER BY r.name", String.class, username);
+    }
+
+    private List<String> statuses(JsonNode report) {
+        List<String> statuses = new ArrayList<>();
+        report.get("results").forEach(result -> statuses.add(result.get("status").asText()));
+        return statuses;
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,97 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import com.rodoassessment.gdprassessmentpanel.config.SqlBudgetProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlStatementBudgetFilterTest {
+
+    private static final String ENDPOINT = "GET /api/assessments/{id}";
+
+    private final SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SqlBudgetProperties budget = new SqlBudgetProperties();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assessments/1");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        budget.getEndpoints().put(ENDPOINT, 2);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "budget", budget);
+    }
+
+    @Test
+    void overBudgetFailsBeforeTheResponseIsWritten() throws Exception {
+        budget.setFailOnExceed(true);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, response, handler(3)));
+
+        assertEquals("Error: " + ENDPOINT + " ran 3 SQL statements, budget is 2.", failure.getMessage());
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.counter("http.server.requests.sql.budget.exceeded",
+                "endpoint", ENDPOINT).count());
+    }
+
+    @Test
+    void statementsBeforeTheHandlerIsMappedCountTowardsTheBudget() {
+        budget.setFailOnExceed(true);
+
+        FilterChain chain = (req, res) -> {
+            SqlStatementStats.record(1);
+            SqlStatementStats.record(1);
+            handler(1).doFilter(req, res);
+        };
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, response, chain));
+    }
+
+    @Test
+    void withinBudgetIsRecordedPerEndpoint() throws Exception {
+        budget.setFailOnExceed(true);
+
+        filter.doFilter(request, response, handler(2));
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(2.0, meterRegistry.find("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", "/api/assessments/{id}").summary().totalAmount());
+    }
+
+    @Test
+    void overBudgetOnlyWarnsByDefault() throws Exception {
+        filter.doFilter(request, response, handler(3));
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.counter("http.server.requests.sql.budget.exceeded",
+                "endpoint", ENDPOINT).count());
+    }
+
+    // A mapped handler that runs its statements and then writes and commits the response
+    private FilterChain handler(int statements) {
+        return (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/assessments/{id}");
+            for (int i = 0; i < statements; i++) {
+                SqlStatementStats.record(1);
+            }
+            res.getWriter().write("ok");
+            res.flushBuffer();
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.rodoassessment.gdprassessmentpanel.monitoring;
+
+import com.rodoassessment.gdprassessmentpanel.config.SqlBudgetProperties;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counts of the assessment endpoints, with the budget failing the request as in CI. The counts
+ * must not grow with the number of answers or assessments, which is what an N+1 regression looks like.
+ */
+@TestPropertySource(properties = "app.sql-budget.fail-on-exceed=true")
+class SqlStatementBudgetTest extends DatabaseTest {
+
+    private static final String DETAIL = "/api/assessments/{id}";
+
+    private static final String LIST = "/api/assessments";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlBudgetProperties budget;
+
+    private UserDetailsImpl user;
+
+    @BeforeEach
+    void createUser() {
+        user = createUser("ROLE_USER");
+    }
+
+    @Test
+    void assessmentDetailRunsAFixedNumberOfStatements() throws Exception {
+        long small = createAssessment(2, 1);
+        long large = createAssessment(40, 20);
+
+        int statements = statements(DETAIL, "/api/assessments/" + small);
+
+        assertEquals(statements, statements(DETAIL, "/api/assessments/" + large));
+        assertTrue(statements <= budget.getEndpoints().get("GET " + DETAIL));
+    }
+
+    @Test
+    void assessmentListRunsAFixedNumberOfStatements() throws Exception {
+        createAssessment(2, 1);
+        int statements = statements(LIST, LIST);
+        int page = statements(LIST, LIST + "?limit=20");
+
+        for (int i = 0; i < 5; i++) {
+            createAssessment(5, 2);
+        }
+
+        assertEquals(statements, statements(LIST, LIST));
+        assertEquals(page, statements(LIST, LIST + "?limit=20"));
+        assertTrue(Math.max(statements, page) <= budget.getEndpoints().get("GET " + LIST));
+    }
+
+    @Test
+    void statementOverBudgetFailsTheRequest() {
+        long id = createAssessment(2, 1);
+        Integer limit = budget.getEndpoints().put("GET " + DETAIL, 1);
+        try {
+            Exception failure = assertThrows(Exception.class, () -> mockMvc.perform(get("/api/assessments/" + id)
+                    .header(HttpHeaders.AUTHORIZATION, bearer(user))));
+            assertTrue(rootCause(failure).getMessage().contains("budget is 1"), rootCause(failure).getMessage());
+        } finally {
+            budget.getEndpoints().put("GET " + DETAIL, limit);
+        }
+    }
+
+    private long createAssessment(int responses, int areaScores) {
+        long id = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', 'W TRAKCIE', ?, now(), now()) RETURNING id", Long.class, user.getId());
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                "SELECT ?, id, 'TAK', 'Uwagi' FROM requirements ORDER BY id LIMIT ?", id, responses);
+        jdbcTemplate.update("INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+                "SELECT ?, id, 'POZYTYWNA', '' FROM areas ORDER BY id LIMIT ?", id, areaScores);
+        return id;
+    }
+
+    // Statements of one request, read from the per-endpoint metric the filter records
+    private int statements(String pattern, String url) throws Exception {
+        DistributionSummary before = summary(pattern);
+        double total = before != null ? before.totalAmount() : 0;
+        long count = before != null ? before.count() : 0;
+
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk());
+
+        DistributionSummary after = summary(pattern);
+        assertEquals(count + 1, after.count());
+        return (int) (after.totalAmount() - total);
+    }
+
+    private DistributionSummary summary(String pattern) {
+        return meterRegistry.find("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", pattern)
+                .summary();
+    }
+
+    private Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
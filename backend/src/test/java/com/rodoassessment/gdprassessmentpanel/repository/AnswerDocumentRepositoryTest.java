@@ -0,0 +1,81 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the SQL that expands answer documents against catalog identifiers beyond the integer range. Every
+ * test is rolled back, so the catalog rows it adds are never seen by other tests.
+ */
+@Transactional
+class AnswerDocumentRepositoryTest extends DatabaseTest {
+
+    private static final long CHAPTER_ID = 3_000_000_001L;
+
+    private static final long AREA_ID = 3_000_000_002L;
+
+    private static final long REQUIREMENT_ID = 3_000_000_003L;
+
+    @Autowired
+    private AnswerDocumentRepository answerDocumentRepository;
+
+    private Long assessmentId;
+
+    @BeforeEach
+    void insertDocument() {
+        UserDetailsImpl user = createUser("ROLE_USER");
+        jdbcTemplate.update("INSERT INTO chapters (id, name, order_number) VALUES (?, 'Rozdział', 1)", CHAPTER_ID);
+        jdbcTemplate.update("INSERT INTO areas (id, name, chapter_id, order_number) VALUES (?, 'Obszar', ?, 1)",
+                AREA_ID, CHAPTER_ID);
+        jdbcTemplate.update("INSERT INTO requirements (id, text, area_id, order_number) VALUES (?, 'Wymaganie', ?, 1)",
+                REQUIREMENT_ID, AREA_ID);
+        assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, status, user_id) VALUES ('Ocena', 'DRAFT', ?) RETURNING id",
+                Long.class, user.getId());
+        jdbcTemplate.update("INSERT INTO assessment_documents (assessment_id, answers) VALUES (?, ?::jsonb)",
+                assessmentId, "{\"r\": {\"" + REQUIREMENT_ID + "\": {\"v\": \"TAK\", \"c\": \"uwagi\", \"n\": 2}}, " +
+                        "\"a\": {\"" + AREA_ID + "\": {\"v\": \"POZYTYWNA\", \"c\": \"\", \"n\": 3}}}");
+    }
+
+    @Test
+    void documentAnswersExpandWithBigintKeys() {
+        AnswerTables answerTables = new AnswerTables();
+        ReflectionTestUtils.setField(answerTables, "mode", AnswerTables.MODE_DOCUMENT);
+
+        assertEquals(List.of(REQUIREMENT_ID), jdbcTemplate.queryForList(
+                "SELECT requirement_id FROM " + answerTables.responses() + " r WHERE r.assessment_id = ?",
+                Long.class, assessmentId));
+        assertEquals(List.of(AREA_ID), jdbcTemplate.queryForList(
+                "SELECT area_id FROM " + answerTables.areaScores() + " s WHERE s.assessment_id = ?",
+                Long.class, assessmentId));
+    }
+
+    @Test
+    void documentsMoveToRowsWithBigintKeys() {
+        assertEquals(1, answerDocumentRepository.moveDocumentsToRows(List.of(assessmentId)));
+
+        Map<String, Object> response = jdbcTemplate.queryForMap(
+                "SELECT requirement_id, value, version FROM responses WHERE assessment_id = ?", assessmentId);
+        assertEquals(REQUIREMENT_ID, response.get("requirement_id"));
+        assertEquals("TAK", response.get("value"));
+        assertEquals(2L, response.get("version"));
+        assertEquals(AREA_ID, jdbcTemplate.queryForObject(
+                "SELECT area_id FROM area_scores WHERE assessment_id = ?", Long.class, assessmentId));
+    }
+
+    @Test
+    void answersHaveNoContainmentIndex() {
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_assessment_documents_answers'", Integer.class));
+    }
+}
@@ -0,0 +1,141 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.support.EnabledWithDatabase;
+import com.rodoassessment.gdprassessmentpanel.support.TestDatabase;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates an empty schema and one created the way databases were set up before the migrations (init.sql,
+ * then objects added by ddl-auto=update or at application startup), and checks that both end up the same.
+ * Each run uses schemas of its own in the {@link TestDatabase}.
+ */
+@EnabledWithDatabase
+class SchemaMigrationTest {
+
+    private static final String SUFFIX = UUID.randomUUID().toString().substring(0, 8);
+
+    private static final String FRESH = "fresh_" + SUFFIX;
+
+    private static final String LEGACY = "legacy_" + SUFFIX;
+
+    // What an older startup left behind: INT keys in a new table and indexes the migrations no longer create
+    private static final String[] LEGACY_ADDITIONS = {
+            "ALTER TABLE assessments ADD COLUMN version BIGINT NOT NULL DEFAULT 0",
+            "ALTER TABLE users ADD COLUMN enabled BOOLEAN",
+            "CREATE TABLE assessment_documents (assessment_id INT PRIMARY KEY, answers JSONB NOT NULL DEFAULT '{}', " +
+            "version BIGINT NOT NULL DEFAULT 0, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (assessment_id) REFERENCES assessments(id) ON DELETE CASCADE)",
+            "CREATE INDEX idx_assessment_documents_answers ON assessment_documents USING GIN (answers jsonb_path_ops)",
+            "CREATE INDEX idx_assessments_search ON assessments USING GIN (to_tsvector('simple', lower(name)))"
+    };
+
+    private static final String COLUMNS =
+            "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable || ' ' || " +
+            "coalesce(replace(column_default, table_schema || '.', ''), '') " +
+            "FROM information_schema.columns WHERE table_schema = ? AND table_name <> 'flyway_schema_history' " +
+            "ORDER BY table_name, column_name";
+
+    private static final String INDEXES =
+            "SELECT replace(indexdef, schemaname || '.', '') FROM pg_indexes " +
+            "WHERE schemaname = ? AND tablename <> 'flyway_schema_history' ORDER BY indexname";
+
+    private static final String SEQUENCES =
+            "SELECT c.relname || ' ' || format_type(s.seqtypid, NULL) FROM pg_sequence s " +
+            "JOIN pg_class c ON c.oid = s.seqrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? ORDER BY c.relname";
+
+    @AfterAll
+    static void dropSchemas() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + FRESH + " CASCADE");
+            statement.execute("DROP SCHEMA IF EXISTS " + LEGACY + " CASCADE");
+        }
+    }
+
+    @Test
+    void legacyDatabaseConvergesToTheMigratedSchema() throws Exception {
+        flyway(FRESH).migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA " + LEGACY);
+            statement.execute("SET search_path TO " + LEGACY);
+            // The baseline migration is init.sql unchanged
+            statement.execute(baseline());
+            for (String sql : LEGACY_ADDITIONS) {
+                statement.execute(sql);
+            }
+        }
+        flyway(LEGACY).migrate();
+
+        assertEquals(list(COLUMNS, FRESH), list(COLUMNS, LEGACY));
+        assertEquals(list(INDEXES, FRESH), list(INDEXES, LEGACY));
+        assertEquals(list(SEQUENCES, FRESH), list(SEQUENCES, LEGACY));
+    }
+
+    @Test
+    void keysAreBigintAndTheAnswersIndexIsGone() throws Exception {
+        flyway(FRESH).migrate();
+
+        for (String column : list(COLUMNS, FRESH)) {
+            String name = column.substring(0, column.indexOf(' '));
+            if (name.endsWith(".id") || (name.endsWith("_id") && !name.endsWith(".family_id"))) {
+                assertTrue(column.startsWith(name + " bigint "), column);
+            }
+        }
+        for (String sequence : list(SEQUENCES, FRESH)) {
+            assertTrue(sequence.endsWith(" bigint"), sequence);
+        }
+        assertFalse(String.join("\n", list(INDEXES, FRESH)).contains("idx_assessment_documents_answers"));
+    }
+
+    private static Flyway flyway(String schema) {
+        return Flyway.configure()
+                .dataSource(TestDatabase.url(), TestDatabase.username(), TestDatabase.password())
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(TestDatabase.url(), TestDatabase.username(), TestDatabase.password());
+    }
+
+    private String baseline() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V1__baseline.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<String> list(String sql, String schema) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = connect(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(rs.getString(1));
+                }
+            }
+        }
+        return rows;
+    }
+}
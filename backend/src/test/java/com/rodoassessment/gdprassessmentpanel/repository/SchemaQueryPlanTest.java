@@ -0,0 +1,187 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.support.EnabledWithDatabase;
+import com.rodoassessment.gdprassessmentpanel.support.TestDatabase;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the migrations on the {@link TestDatabase}, seeds it with enough rows for the planner to prefer indexes
+ * and checks with EXPLAIN that the key queries of the repositories never read a whole table. The queries
+ * are the repositories' own SQL constants, so a changed query is checked as it is run.
+ */
+@EnabledWithDatabase
+class SchemaQueryPlanTest {
+
+    // Reference data of a few hundred rows, where a sequential scan is the right plan
+    private static final Set<String> SMALL_TABLES = Set.of("roles", "chapters", "areas", "requirements");
+
+    // The database may be shared with other tests, so the seeded rows belong to users of this run
+    private static final String PREFIX = "plan-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+    private static final String SEEDED_ASSESSMENTS =
+            "(SELECT a.id FROM assessments a JOIN users u ON u.id = a.user_id WHERE u.username LIKE '" + PREFIX + "%')";
+
+    private static final String[] SEED = {
+            "INSERT INTO users (username, email, password) " +
+            "SELECT '" + PREFIX + "' || g, '" + PREFIX + "' || g || '@example.com', 'x' " +
+            "FROM generate_series(1, 1000) g",
+            "INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+            "SELECT 'Ocena ' || g, 'Ocena zgodności', 'DRAFT', u.id, " +
+            "now() - make_interval(hours => g), now() - make_interval(hours => g) " +
+            "FROM users u CROSS JOIN generate_series(1, 10) g WHERE u.username LIKE '" + PREFIX + "%'",
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+            "SELECT a.id, q.id, 'TAK', 'Uwagi ' || q.id " +
+            "FROM " + SEEDED_ASSESSMENTS + " a CROSS JOIN (SELECT id FROM requirements ORDER BY id LIMIT 10) q",
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+            "SELECT a.id, r.id, 'POZYTYWNA', 'Podsumowanie ' || r.id " +
+            "FROM " + SEEDED_ASSESSMENTS + " a CROSS JOIN (SELECT id FROM areas ORDER BY id LIMIT 5) r",
+            "INSERT INTO assessment_documents (assessment_id, answers) " +
+            "SELECT id, '{\"r\": {}, \"a\": {}}' FROM " + SEEDED_ASSESSMENTS + " a",
+            "INSERT INTO assessment_summary_counts (assessment_id, kind, chapter_id, value, count) " +
+            "SELECT a.id, 'RESPONSE', c.id, 'TAK', 1 " +
+            "FROM " + SEEDED_ASSESSMENTS + " a CROSS JOIN (SELECT id FROM chapters LIMIT 3) c",
+            "INSERT INTO refresh_tokens (user_id, token_hash, family_id, created_at, expires_at) " +
+            "SELECT u.id, md5(u.username || '-' || g) || md5(g || '-' || u.username), gen_random_uuid(), now(), " +
+            "now() + interval '14 days' FROM users u CROSS JOIN generate_series(1, 5) g " +
+            "WHERE u.username LIKE '" + PREFIX + "%'",
+            "ANALYZE"
+    };
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Connection connection;
+
+    private static long userId;
+
+    private static long assessmentId;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(TestDatabase.url(), TestDatabase.username(), TestDatabase.password())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(TestDatabase.url(), TestDatabase.username(), TestDatabase.password());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : SEED) {
+                statement.execute(sql);
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT a.user_id, a.id FROM assessments a JOIN users u ON u.id = a.user_id " +
+                    "WHERE u.username = '" + PREFIX + "500' ORDER BY a.id LIMIT 1")) {
+                rs.next();
+                userId = rs.getLong(1);
+                assessmentId = rs.getLong(2);
+            }
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void assessmentListUsesIndexes() throws Exception {
+        assertNoFullScan(String.format(AssessmentSummaryRepository.FIRST_PAGE, "responses", "area_scores"),
+                userId, 20);
+        assertNoFullScan(String.format(AssessmentSummaryRepository.NEXT_PAGE, "responses", "area_scores"),
+                userId, Timestamp.valueOf(LocalDateTime.now().minusHours(3)), assessmentId, 20);
+        assertNoFullScan(String.format(AssessmentSummaryRepository.ALL_ROWS, "responses", "area_scores"), userId);
+    }
+
+    @Test
+    void answerReadsUseIndexes() throws Exception {
+        // SQL of ResponseRepository and AreaScoreRepository.findViewsByAssessmentId
+        assertNoFullScan("SELECT requirement_id, value, comment, version FROM responses WHERE assessment_id = ?",
+                assessmentId);
+        assertNoFullScan("SELECT area_id, score, comment, version FROM area_scores WHERE assessment_id = ?",
+                assessmentId);
+        assertNoFullScan(AnswerBatchRepository.SELECT_RESPONSES, assessmentId, longs(1L, 2L, 3L));
+        assertNoFullScan(AnswerBatchRepository.SELECT_AREA_SCORES, assessmentId, longs(1L, 2L));
+        assertNoFullScan(AnswerBatchRepository.SELECT_METADATA, assessmentId);
+        assertNoFullScan(AnswerDocumentRepository.SELECT_DOCUMENT, assessmentId);
+        assertNoFullScan(SummaryCountRepository.SELECT_BY_ASSESSMENT, assessmentId);
+    }
+
+    @Test
+    void answerWritesUseIndexes() throws Exception {
+        assertNoFullScan(AnswerBatchRepository.UPDATE_RESPONSE,
+                "NIE", "", Timestamp.valueOf(LocalDateTime.now()), assessmentId, 1L, 1L);
+    }
+
+    @Test
+    void searchUsesIndexes() throws Exception {
+        assertNoFullScan(SearchRepository.SEARCH_ASSESSMENTS, userId, "ocen", 20);
+    }
+
+    @Test
+    void authQueriesUseIndexes() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        assertNoFullScan(RefreshTokenRepository.CONSUME_TOKEN, now, "0".repeat(64), now);
+        assertNoFullScan(RefreshTokenRepository.DELETE_FAMILY, UUID.randomUUID());
+        assertNoFullScan(RefreshTokenRepository.DELETE_EXPIRED_FOR_USER, userId, now);
+        assertNoFullScan(UserProvisioningRepository.SELECT_TAKEN,
+                strings(PREFIX + "1", "nobody"), strings(PREFIX + "2@example.com", "nobody@example.com"));
+    }
+
+    // EXPLAIN without ANALYZE only plans the statement, so updates and deletes are not executed
+    private void assertNoFullScan(String sql, Object... params) throws Exception {
+        String plan;
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                plan = rs.getString(1);
+            }
+        }
+
+        List<String> scanned = new ArrayList<>();
+        collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), scanned);
+        assertTrue(scanned.isEmpty(), "Sequential scan of " + scanned + " in plan of: " + sql + "\n" + plan);
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> scanned) {
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && !SMALL_TABLES.contains(relation)) {
+            scanned.add(relation);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scanned);
+        }
+    }
+
+    private Array longs(Long... values) throws SQLException {
+        return connection.createArrayOf("bigint", values);
+    }
+
+    private Array strings(String... values) throws SQLException {
+        return connection.createArrayOf("varchar", values);
+    }
+}
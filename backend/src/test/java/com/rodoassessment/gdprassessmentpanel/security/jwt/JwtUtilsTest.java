@@ -0,0 +1,112 @@
+package com.rodoassessment.gdprassessmentpanel.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class JwtUtilsTest {
+
+    private final JwtUtils jwtUtils = new JwtUtils();
+
+    private final UserDetailsImpl user = new UserDetailsImpl(7L, "jan", "jan@example.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "gdprAssessmentSecretKey123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900000);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", mock(ObjectProvider.class));
+        jwtUtils.init();
+    }
+
+    @Test
+    void principalIsRebuiltFromClaims() {
+        Claims claims = jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(user));
+
+        UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(claims);
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getId());
+        assertEquals("jan", principal.getUsername());
+        assertEquals(user.getAuthorities(), principal.getAuthorities());
+    }
+
+    @Test
+    void claimsIssuedBeforeAChangeAreNotTrusted() {
+        Claims claims = jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(user));
+
+        jwtUtils.invalidateClaims("jan");
+
+        assertNull(jwtUtils.getPrincipalFromClaims(claims));
+        assertNotNull(jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(user)), "the token itself stays valid");
+    }
+
+    @Test
+    void claimsIssuedAfterAChangeAreTrusted() {
+        jwtUtils.invalidateClaims("jan");
+
+        Claims later = Jwts.claims()
+                .setSubject("jan")
+                .setIssuedAt(new Date(System.currentTimeMillis() + 1000));
+        later.put("uid", 7L);
+        later.put("roles", List.of("ROLE_USER"));
+
+        assertNotNull(jwtUtils.getPrincipalFromClaims(later));
+    }
+
+    @Test
+    void changesOfOtherUsersDoNotMatter() {
+        Claims claims = jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(user));
+
+        jwtUtils.invalidateClaims("anna");
+
+        assertNotNull(jwtUtils.getPrincipalFromClaims(claims));
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromTheCache() {
+        String token = jwtUtils.generateJwtToken(user);
+        assertNotNull(jwtUtils.verifyJwtToken(token));
+
+        // Same header and claims, signature of another token
+        UserDetailsImpl other = new UserDetailsImpl(8L, "anna", "anna@example.com", null, List.of());
+        String otherToken = jwtUtils.generateJwtToken(other);
+        String tampered = token.substring(0, token.lastIndexOf('.'))
+                + otherToken.substring(otherToken.lastIndexOf('.'));
+
+        assertNull(jwtUtils.verifyJwtToken(tampered));
+        assertNotNull(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheDoesNotHoldRawTokens() {
+        String token = jwtUtils.generateJwtToken(user);
+        jwtUtils.verifyJwtToken(token);
+
+        Cache<String, Claims> verifiedTokens = (Cache<String, Claims>) ReflectionTestUtils.getField(jwtUtils,
+                "verifiedTokens");
+        assertEquals(1, verifiedTokens.asMap().size());
+        assertFalse(verifiedTokens.asMap().containsKey(token));
+        assertFalse(verifiedTokens.asMap().keySet().stream().anyMatch(key -> key.contains(token.substring(0, 20))));
+    }
+}
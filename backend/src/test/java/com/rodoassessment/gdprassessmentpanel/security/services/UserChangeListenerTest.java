@@ -0,0 +1,96 @@
+package com.rodoassessment.gdprassessmentpanel.security.services;
+
+import com.rodoassessment.gdprassessmentpanel.model.Role;
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.repository.RoleRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A change of roles only writes the user_roles join table; it must still reach tokens and cached users.
+ */
+class UserChangeListenerTest extends DatabaseTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CaffeineUserCache userCache;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void revokedRoleTakesEffectForIssuedTokens() throws Exception {
+        UserDetailsImpl admin = createUser("ROLE_ADMIN");
+        String token = bearer(admin);
+        mockMvc.perform(get("/api/admin/analytics").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        replaceRole(admin.getUsername(), "ROLE_USER");
+
+        mockMvc.perform(get("/api/admin/analytics").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/assessments").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void roleChangeEvictsCachedUser() {
+        UserDetailsImpl user = createUser("ROLE_USER");
+        userCache.putUserInCache(user);
+
+        replaceRole(user.getUsername(), "ROLE_ADMIN");
+
+        assertNull(userCache.getUserFromCache(user.getUsername()));
+    }
+
+    @Test
+    void replacedRoleCollectionEvictsCachedUser() {
+        UserDetailsImpl user = createUser("ROLE_USER");
+        userCache.putUserInCache(user);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User stored = userRepository.findByUsername(user.getUsername()).orElseThrow();
+            stored.setRoles(new HashSet<>(Set.of(roleRepository.findByName("ROLE_ADMIN").orElseThrow())));
+        });
+
+        assertNull(userCache.getUserFromCache(user.getUsername()));
+    }
+
+    @Test
+    void newUserKeepsTrustedClaims() {
+        // Issued within the same second as the insert, which a recorded change would distrust
+        UserDetailsImpl user = createUser("ROLE_USER");
+
+        assertNotNull(jwtUtils.getPrincipalFromClaims(jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(user))));
+    }
+
+    private void replaceRole(String username, String roleName) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(username).orElseThrow();
+            Role role = roleRepository.findByName(roleName).orElseThrow();
+            user.getRoles().clear();
+            user.getRoles().add(role);
+        });
+    }
+}
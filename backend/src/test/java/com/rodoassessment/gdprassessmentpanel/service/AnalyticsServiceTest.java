@@ -0,0 +1,87 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsDto;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalyticsServiceTest extends DatabaseTest {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    @Qualifier("workerExecutor")
+    private TaskExecutor workerExecutor;
+
+    // A status of its own keeps the assessments of other tests out of the distributions
+    private final String status = "TEST-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private UserDetailsImpl user;
+
+    private Long requirementId;
+
+    @BeforeEach
+    void createAssessments() {
+        user = createUser("ROLE_USER");
+        requirementId = jdbcTemplate.queryForObject("SELECT min(id) FROM requirements", Long.class);
+        for (int i = 0; i < 6; i++) {
+            insertAnsweredAssessment(i % 2 == 0 ? "TAK" : "NIE");
+        }
+    }
+
+    @Test
+    void distributionsCountEverySlice() {
+        AnalyticsDto analytics = analyticsService.getDistributions(status, null, null);
+
+        assertEquals(6, analytics.getAssessments());
+        assertEquals(3, values(analytics).get("TAK"));
+        assertEquals(3, values(analytics).get("NIE"));
+    }
+
+    @Test
+    void slicesStartedLaterSeeTheSameSnapshot() {
+        // The answers change and commit after the snapshot was taken but before any worker starts
+        TaskExecutor committingExecutor = task -> {
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE responses SET value = 'TAK' WHERE value = 'NIE' AND assessment_id IN " +
+                    "(SELECT id FROM assessments WHERE status = ?)", status)).join();
+            workerExecutor.execute(task);
+        };
+        ReflectionTestUtils.setField(analyticsService, "workerExecutor", committingExecutor);
+        try {
+            AnalyticsDto analytics = analyticsService.getDistributions(status, null, null);
+
+            assertEquals(6, analytics.getAssessments());
+            assertEquals(3, values(analytics).get("TAK"));
+            assertEquals(3, values(analytics).get("NIE"));
+        } finally {
+            ReflectionTestUtils.setField(analyticsService, "workerExecutor", workerExecutor);
+        }
+    }
+
+    private void insertAnsweredAssessment(String value) {
+        Long assessmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                "VALUES ('Ocena', ?, ?, now(), now()) RETURNING id", Long.class, status, user.getId());
+        jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) VALUES (?, ?, ?, '')",
+                assessmentId, requirementId, value);
+    }
+
+    private Map<String, Integer> values(AnalyticsDto analytics) {
+        return analytics.getRequirements().stream()
+                .filter(requirement -> requirement.getRequirementId().equals(requirementId))
+                .findFirst().orElseThrow().getValues();
+    }
+}
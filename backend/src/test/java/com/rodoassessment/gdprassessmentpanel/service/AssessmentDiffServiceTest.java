@@ -0,0 +1,89 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDiffDto;
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.area;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.chapter;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.requirement;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AssessmentDiffServiceTest {
+
+    private static final Chapter CHAPTER = chapter(1L, 1);
+
+    private static final Area AREA = area(10L, CHAPTER, 1);
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final AssessmentLoader assessmentLoader = mock(AssessmentLoader.class);
+
+    private final AssessmentDiffService diffService = new AssessmentDiffService();
+
+    private final QuestionnaireCatalog catalog = QuestionnaireCatalog.of(1L, List.of(CHAPTER), List.of(AREA),
+            List.of(requirement(100L, AREA, 1), requirement(101L, AREA, 2)));
+
+    // A requirement inserted in front shifts the positions of all the others
+    private final QuestionnaireCatalog reloaded = QuestionnaireCatalog.of(2L, List.of(CHAPTER), List.of(AREA),
+            List.of(requirement(99L, AREA, 0), requirement(100L, AREA, 1), requirement(101L, AREA, 2)));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(diffService, "catalogService", catalogService);
+        ReflectionTestUtils.setField(diffService, "assessmentLoader", assessmentLoader);
+        when(catalogService.getCatalog()).thenReturn(catalog);
+    }
+
+    @Test
+    void listsOnlyDifferingRequirements() {
+        answers(1L, Map.of(100L, "TAK", 101L, "NIE"));
+        answers(2L, Map.of(100L, "TAK", 101L, "TAK"));
+
+        AssessmentDiffDto diff = diffService.diff(1L, 2L);
+
+        assertEquals(1, diff.getRequirements().size());
+        assertEquals(101L, diff.getRequirements().get(0).getId());
+        assertEquals("NIE", diff.getRequirements().get(0).getBaseValue());
+        assertEquals("TAK", diff.getRequirements().get(0).getValue());
+    }
+
+    @Test
+    void bothSidesUseTheSnapshotTakenFirst() {
+        // The catalog is reloaded while the base assessment is read
+        when(assessmentLoader.loadAnswers(eq(1L), any())).thenAnswer(invocation -> {
+            when(catalogService.getCatalog()).thenReturn(reloaded);
+            return answerSet(invocation.getArgument(1), Map.of(100L, "TAK", 101L, "NIE"));
+        });
+        answers(2L, Map.of(100L, "TAK", 101L, "TAK"));
+
+        AssessmentDiffDto diff = diffService.diff(1L, 2L);
+
+        assertEquals(catalog.getContentHash(), diff.getCatalogVersion());
+        assertEquals(1, diff.getRequirements().size());
+        assertEquals(101L, diff.getRequirements().get(0).getId());
+    }
+
+    private void answers(Long assessmentId, Map<Long, String> values) {
+        when(assessmentLoader.loadAnswers(eq(assessmentId), any()))
+                .thenAnswer(invocation -> answerSet(invocation.getArgument(1), values));
+    }
+
+    private AnswerSet answerSet(QuestionnaireCatalog snapshot, Map<Long, String> values) {
+        AnswerSet answers = new AnswerSet(snapshot);
+        values.forEach((requirementId, value) -> answers.setResponse(requirementId, value, null));
+        return answers;
+    }
+}
@@ -0,0 +1,122 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.repository.AnswerTables;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportServiceTest extends DatabaseTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AnswerTables answerTables;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // A status of its own keeps the assessments of other tests out of the export
+    private final String status = "TEST-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final List<Long> assessmentIds = new ArrayList<>();
+
+    @BeforeEach
+    void createAssessments() {
+        UserDetailsImpl user = createUser("ROLE_USER");
+        List<Long> requirements = jdbcTemplate.queryForList(
+                "SELECT id FROM requirements ORDER BY id LIMIT 2", Long.class);
+        Long areaId = jdbcTemplate.queryForObject("SELECT min(id) FROM areas", Long.class);
+
+        for (int i = 0; i < 3; i++) {
+            // The middle assessment is outside the filter, its answers must be skipped
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO assessments (name, status, user_id, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, now(), now()) RETURNING id",
+                    Long.class, "=HYPERLINK(\"x\")", i == 1 ? "OTHER" : status, user.getId());
+            for (Long requirementId : requirements) {
+                jdbcTemplate.update("INSERT INTO responses (assessment_id, requirement_id, value, comment) " +
+                        "VALUES (?, ?, 'TAK', '-uwagi')", id, requirementId);
+            }
+            jdbcTemplate.update("INSERT INTO area_scores (assessment_id, area_id, score, comment) " +
+                    "VALUES (?, ?, 'POZYTYWNA', '')", id, areaId);
+            if (i != 1) {
+                assessmentIds.add(id);
+            }
+        }
+    }
+
+    @Test
+    void csvHasOneRowPerAnswerOfFilteredAssessments() throws Exception {
+        List<String> lines = export(ExportService.FORMAT_CSV).lines().toList();
+
+        assertEquals(String.join(",", ExportService.CSV_COLUMNS), lines.get(0));
+        assertEquals(1 + 2 * 3, lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            long id = Long.parseLong(line.substring(0, line.indexOf(',')));
+            assertTrue(assessmentIds.contains(id), line);
+            assertTrue(line.contains(",\"'=HYPERLINK(\"\"x\"\")\","), line);
+            assertFalse(line.contains(",-uwagi"), line);
+        }
+    }
+
+    @Test
+    void jsonLinesHaveOneAssessmentPerLine() throws Exception {
+        List<String> lines = export(ExportService.FORMAT_JSONL).lines().toList();
+
+        assertEquals(2, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode assessment = objectMapper.readTree(lines.get(i));
+            assertEquals(assessmentIds.get(i), assessment.get("id").asLong());
+            assertEquals("=HYPERLINK(\"x\")", assessment.get("name").asText());
+            JsonNode area = assessment.get("chapters").get(0).get("areas").get(0);
+            assertEquals("POZYTYWNA", area.get("score").asText());
+        }
+    }
+
+    @Test
+    void exportQueriesReadInIndexOrder() throws Exception {
+        assertNoSort(String.format(ExportService.SELECT_ASSESSMENTS, "WHERE a.status = 'DRAFT'"));
+        assertNoSort(String.format(ExportService.SELECT_AREA_SCORES, answerTables.areaScores()));
+        assertNoSort(String.format(ExportService.SELECT_RESPONSES, answerTables.responses()));
+    }
+
+    private String export(String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, status, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // The test tables are tiny, so sorting is made prohibitively expensive to ask whether an ordered plan exists
+    private void assertNoSort(String sql) {
+        String plan = jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET enable_sort = off");
+            StringBuilder lines = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+            } finally {
+                statement.execute("RESET enable_sort");
+            }
+            return lines.toString();
+        });
+        assertFalse(plan.contains("Sort"), plan);
+    }
+}
@@ -0,0 +1,89 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TemplateRendererTest {
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final AssessmentLoader assessmentLoader = mock(AssessmentLoader.class);
+
+    private final TemplateRenderer renderer = new TemplateRenderer();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(renderer, "catalogService", catalogService);
+        ReflectionTestUtils.setField(renderer, "assessmentLoader", assessmentLoader);
+        ReflectionTestUtils.setField(renderer, "objectMapper", new ObjectMapper());
+        when(assessmentLoader.loadTemplate(any())).thenReturn(new AssessmentDto());
+        when(catalogService.getCatalog()).thenReturn(catalog(1L));
+    }
+
+    @Test
+    void rendersOncePerCatalogVersion() {
+        TemplateRenderer.RenderedTemplate first = renderer.getTemplate();
+        assertSame(first, renderer.getTemplate());
+
+        when(catalogService.getCatalog()).thenReturn(catalog(2L));
+        assertNotSame(first, renderer.getTemplate());
+        verify(assessmentLoader, times(2)).loadTemplate(any());
+    }
+
+    @Test
+    void matchesStrongAndWeakTagsOfEitherVariant() {
+        TemplateRenderer.RenderedTemplate template = renderer.getTemplate();
+        String identity = template.getIdentityETag();
+        String gzip = template.getGzipETag();
+
+        assertTrue(template.matches(identity));
+        assertTrue(template.matches(gzip));
+        assertTrue(template.matches("W/" + identity));
+        assertTrue(template.matches("W/" + gzip));
+    }
+
+    @Test
+    void matchesListsAndWildcard() {
+        TemplateRenderer.RenderedTemplate template = renderer.getTemplate();
+        String identity = template.getIdentityETag();
+
+        assertTrue(template.matches("*"));
+        assertTrue(template.matches("\"a,b\", W/\"other\" ,W/" + identity));
+        assertTrue(template.matches("\"other\",\t" + identity));
+        assertTrue(template.matches("bogus, " + identity));
+    }
+
+    @Test
+    void rejectsOtherTags() {
+        TemplateRenderer.RenderedTemplate template = renderer.getTemplate();
+        String identity = template.getIdentityETag();
+
+        assertFalse(template.matches(null));
+        assertFalse(template.matches(""));
+        assertFalse(template.matches("\"other\", W/\"another\""));
+        assertFalse(template.matches(identity.substring(1, identity.length() - 1)));
+        assertFalse(template.matches("\"" + identity));
+        assertFalse(template.matches("\"x\", *"));
+    }
+
+    private QuestionnaireCatalog catalog(long version) {
+        return QuestionnaireCatalog.of(version, List.of(), List.of(), List.of());
+    }
+}
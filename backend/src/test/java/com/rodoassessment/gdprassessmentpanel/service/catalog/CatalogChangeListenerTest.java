@@ -0,0 +1,67 @@
+package com.rodoassessment.gdprassessmentpanel.service.catalog;
+
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.chapter;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CatalogChangeListenerTest {
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+
+    private final CatalogChangeListener listener = new CatalogChangeListener();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listener, "catalogService", catalogService);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+    }
+
+    @Test
+    void ignoresOtherEntities() {
+        listener.onChange(new Assessment());
+
+        verify(catalogService, never()).reload();
+    }
+
+    @Test
+    void reloadsOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(chapter(1L, 1));
+        listener.onChange(chapter(2L, 2));
+        verify(catalogService, never()).reload();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(catalogService, times(1)).reload();
+    }
+
+    @Test
+    void doesNotReloadAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(chapter(1L, 1));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        verify(catalogService, never()).reload();
+    }
+}
@@ -0,0 +1,87 @@
+package com.rodoassessment.gdprassessmentpanel.service.catalog;
+
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.area;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.chapter;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.requirement;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuestionnaireCatalogTest {
+
+    @Test
+    void ordersEveryLevelByOrderNumber() {
+        Chapter second = chapter(1L, 2);
+        Chapter first = chapter(2L, 1);
+        Area secondArea = area(10L, first, 2);
+        Area firstArea = area(11L, first, 1);
+        Area otherArea = area(12L, second, 1);
+        Requirement secondRequirement = requirement(100L, firstArea, 2);
+        Requirement firstRequirement = requirement(101L, firstArea, 1);
+
+        QuestionnaireCatalog catalog = QuestionnaireCatalog.of(1L, List.of(second, first),
+                List.of(secondArea, firstArea, otherArea), List.of(secondRequirement, firstRequirement));
+
+        assertEquals(2L, catalog.chapterId(0));
+        assertEquals(1L, catalog.chapterId(1));
+        assertEquals(11L, catalog.areaId(catalog.firstArea(0)));
+        assertEquals(10L, catalog.areaId(catalog.firstArea(0) + 1));
+        assertEquals(12L, catalog.areaId(catalog.firstArea(1)));
+        assertEquals(101L, catalog.requirementId(catalog.firstRequirement(0)));
+        assertEquals(100L, catalog.requirementId(catalog.firstRequirement(0) + 1));
+    }
+
+    @Test
+    void mapsSparseIdsToPositions() {
+        Chapter chapter = chapter(9_000_000_000L, 1);
+        Area area = area(7_000_000_000L, chapter, 1);
+        Requirement requirement = requirement(Long.MAX_VALUE, area, 1);
+
+        QuestionnaireCatalog catalog = QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area),
+                List.of(requirement));
+
+        assertEquals(0, catalog.chapterPosition(9_000_000_000L));
+        assertEquals(0, catalog.areaPosition(7_000_000_000L));
+        assertEquals(0, catalog.requirementPosition(Long.MAX_VALUE));
+        assertEquals(-1, catalog.requirementPosition(1L));
+        assertEquals(-1, catalog.requirementPosition(null));
+    }
+
+    @Test
+    void rejectsItemsWithoutOrderNumber() {
+        Chapter chapter = chapter(1L, 1);
+        Area area = area(10L, chapter, null);
+
+        assertThrows(IllegalStateException.class,
+                () -> QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area), List.of()));
+    }
+
+    @Test
+    void contentHashIdentifiesTheContentNotTheSnapshot() {
+        Chapter chapter = chapter(1L, 1);
+        Area area = area(10L, chapter, 1);
+        Requirement first = requirement(100L, area, 1);
+        Requirement second = requirement(101L, area, 2);
+        QuestionnaireCatalog catalog = QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area),
+                List.of(first, second));
+
+        assertEquals(catalog.getContentHash(), QuestionnaireCatalog.of(7L, List.of(chapter), List.of(area),
+                List.of(second, first)).getContentHash());
+
+        second.setOrderNumber(0);
+        assertNotEquals(catalog.getContentHash(), QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area),
+                List.of(first, second)).getContentHash());
+
+        second.setOrderNumber(2);
+        second.setText("Wymaganie zmienione");
+        assertNotEquals(catalog.getContentHash(), QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area),
+                List.of(first, second)).getContentHash());
+    }
+}
@@ -0,0 +1,50 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsConsecutiveRowsAsOneAssessment() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "assessment_id,assessment_name,kind,item_id,value,comment\r\n" +
+                "1,Ocena,AREA,10,POZYTYWNA,\r\n" +
+                "1,Ocena,REQUIREMENT,100,TAK,\"Uwagi, z przecinkiem\"\r\n" +
+                "2,Druga,,,,\r\n"));
+
+        ImportRecord first = reader.next();
+        assertEquals("Ocena", first.getName());
+        assertEquals(1, first.getAreaScores().size());
+        assertEquals("Uwagi, z przecinkiem", first.getResponses().get(0).getComment());
+
+        ImportRecord second = reader.next();
+        assertEquals("Druga", second.getName());
+        assertEquals(0, second.getResponses().size());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void formulaCellsAreEscapedOnExportAndRestoredOnImport() throws Exception {
+        String[] values = {"=SUM(A1:A9)", "+48 123", "-brak", "@user", "\tx", "'=już z apostrofem", "'zwykły", "zwykły"};
+        StringBuilder csv = new StringBuilder("assessment_id,kind,item_id,value,comment\r\n");
+        for (int i = 0; i < values.length; i++) {
+            String cell = ExportService.escapeCell(values[i]);
+            csv.append("1,REQUIREMENT,").append(i + 1).append(",TAK,\"").append(cell).append("\"\r\n");
+        }
+
+        ImportRecord record = new CsvRecordReader(new StringReader(csv.toString())).next();
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], record.getResponses().get(i).getComment());
+        }
+        assertEquals("'=SUM(A1:A9)", ExportService.escapeCell("=SUM(A1:A9)"));
+        assertEquals("''=już z apostrofem", ExportService.escapeCell("'=już z apostrofem"));
+        assertEquals("'zwykły", ExportService.escapeCell("'zwykły"));
+    }
+}
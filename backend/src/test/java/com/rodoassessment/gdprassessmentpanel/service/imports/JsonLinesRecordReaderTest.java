@@ -0,0 +1,75 @@
+package com.rodoassessment.gdprassessmentpanel.service.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLinesRecordReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void blankLinesAreSkippedButCounted() throws Exception {
+        JsonLinesRecordReader reader = reader("\n{\"name\": \"Pierwsza\"}\n   \n\n{\"name\": \"Druga\"}\n\n");
+
+        ImportRecord first = reader.next();
+        assertEquals("Pierwsza", first.getName());
+        assertEquals(1, first.getRecord());
+        assertEquals(2, first.getLine());
+
+        ImportRecord second = reader.next();
+        assertEquals("Druga", second.getName());
+        assertEquals(2, second.getRecord());
+        assertEquals(5, second.getLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void malformedLineIsReportedAndReadingContinues() throws Exception {
+        JsonLinesRecordReader reader = reader("{\"name\": \"Urwana\n{\"name\": \"Cała\"}\n");
+
+        ImportRecord broken = reader.next();
+        assertNull(broken.getName());
+        assertEquals(1, broken.getErrors().size());
+        assertTrue(broken.getErrors().get(0).startsWith("Error: Malformed JSON: "));
+
+        ImportRecord next = reader.next();
+        assertEquals("Cała", next.getName());
+        assertEquals(2, next.getLine());
+        assertTrue(next.getErrors().isEmpty());
+    }
+
+    @Test
+    void onlyAnsweredItemsAreTaken() throws Exception {
+        ImportRecord record = reader("{\"name\": \"Ocena\", \"status\": \"W TRAKCIE\", "
+                + "\"createdAt\": \"2024-03-01T10:15:00\", \"chapters\": ["
+                + "{\"id\": 1, \"areas\": [{\"id\": 10, \"score\": \"POZYTYWNA\", \"comment\": \"Dobrze\", \"requirements\": ["
+                + "{\"id\": 100, \"value\": \"TAK\", \"comment\": \"Uwagi\"}, {\"id\": 101, \"value\": \"\"}, {\"id\": 102}]}, "
+                + "{\"id\": 11, \"score\": \"\", \"requirements\": [{\"id\": 110, \"value\": \"NIE\"}]}, "
+                + "{\"id\": 12}]}, {\"id\": 2}]}").next();
+
+        assertEquals("W TRAKCIE", record.getStatus());
+        assertEquals("2024-03-01T10:15", record.getCreatedAt());
+        assertNull(record.getUpdatedAt());
+        assertEquals(1, record.getAreaScores().size());
+        assertEquals(10L, record.getAreaScores().get(0).getAreaId());
+        assertEquals("Dobrze", record.getAreaScores().get(0).getComment());
+        assertEquals(2, record.getResponses().size());
+        assertEquals(100L, record.getResponses().get(0).getRequirementId());
+        assertEquals("Uwagi", record.getResponses().get(0).getComment());
+        assertEquals(110L, record.getResponses().get(1).getRequirementId());
+        assertEquals("NIE", record.getResponses().get(1).getValue());
+        assertTrue(record.getErrors().isEmpty());
+    }
+
+    private JsonLinesRecordReader reader(String text) {
+        return new JsonLinesRecordReader(new BufferedReader(new StringReader(text)), objectMapper);
+    }
+}
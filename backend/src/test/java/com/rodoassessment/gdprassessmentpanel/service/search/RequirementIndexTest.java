@@ -0,0 +1,79 @@
+package com.rodoassessment.gdprassessmentpanel.service.search;
+
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import com.rodoassessment.gdprassessmentpanel.service.catalog.QuestionnaireCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.area;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.chapter;
+import static com.rodoassessment.gdprassessmentpanel.support.TestCatalogs.requirement;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequirementIndexTest {
+
+    private final RequirementIndex index = index(
+            "Czy organizacja stosuje się do zasad RODO?",
+            "Czy określono rodzaj przetwarzanych danych?",
+            "Czy prowadzony jest monitoring wizyjny?",
+            "Czy zakres monitoringu został udokumentowany?",
+            "Czy dane są chronione przed utratą?",
+            "Czy określono okres przechowywania danych?");
+
+    @Test
+    void inflectedQueryFindsOtherForms() {
+        assertEquals(List.of(1, 4, 5), find("dane"));
+        assertEquals(List.of(5), find("przechowywanie"));
+        assertEquals(List.of(2, 3), find("monitoringu"));
+        assertEquals(List.of(2), find("monitoring wizyjnego"));
+    }
+
+    @Test
+    void stemsAreMatchedWhole() {
+        assertEquals(List.of(0), find("RODO"));
+        assertEquals(List.of(), find("monitor"));
+        assertEquals(List.of(), find("przechowywanie utrata"));
+    }
+
+    @Test
+    void diacriticsAndCaseAreIgnored() {
+        assertEquals(List.of(1, 5), find("OKRESLONO"));
+        assertEquals(List.of(4), find("utrata"));
+        assertEquals(List.of(3), find("Zostal udokumentowany"));
+    }
+
+    @Test
+    void longestEndingIsRemovedLeavingThreeLetters() {
+        assertEquals("dan", PolishText.stem("danych"));
+        assertEquals("dan", PolishText.stem("dane"));
+        assertEquals("przechowyw", PolishText.stem("przechowywania"));
+        assertEquals("przechowyw", PolishText.stem("przechowywanie"));
+        assertEquals("rod", PolishText.stem("rodo"));
+        assertEquals("rodzaj", PolishText.stem("rodzaj"));
+        assertEquals("oko", PolishText.stem("oko"));
+    }
+
+    @Test
+    void queryTermsAreStemsWithoutDuplicates() {
+        assertEquals(List.of("rod", "zgodnosc"), PolishText.queryTerms("RODO, zgodność; rodu!"));
+    }
+
+    private List<Integer> find(String query) {
+        return index.find(PolishText.queryTerms(query), 10);
+    }
+
+    private static RequirementIndex index(String... texts) {
+        Chapter chapter = chapter(1L, 1);
+        Area area = area(10L, chapter, 1);
+        Requirement[] requirements = new Requirement[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            requirements[i] = requirement(100L + i, area, i + 1);
+            requirements[i].setText(texts[i]);
+        }
+        return new RequirementIndex(QuestionnaireCatalog.of(1L, List.of(chapter), List.of(area),
+                List.of(requirements)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.rodoassessment.gdprassessmentpanel.support;
+
+import com.rodoassessment.gdprassessmentpanel.model.Role;
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.repository.RoleRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Base of tests that run the whole application against {@link TestDatabase}. The database is shared by all
+ * such tests, so every test works with users of its own.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledWithDatabase
+public abstract class DatabaseTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::url);
+        registry.add("spring.datasource.username", TestDatabase::username);
+        registry.add("spring.datasource.password", TestDatabase::password);
+    }
+
+    protected UserDetailsImpl createUser(String role) {
+        String username = "test_" + UUID.randomUUID().toString().substring(0, 8);
+        Role userRole = roleRepository.findByName(role)
+                .orElseThrow(() -> new IllegalStateException("Missing role " + role));
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("{noop}secret");
+        user.setRoles(new HashSet<>(Set.of(userRole)));
+        return UserDetailsImpl.build(userRepository.save(user));
+    }
+
+    protected String bearer(UserDetailsImpl user) {
+        return "Bearer " + jwtUtils.generateJwtToken(user);
+    }
+}
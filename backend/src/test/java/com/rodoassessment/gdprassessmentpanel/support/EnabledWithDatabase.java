@@ -0,0 +1,20 @@
+package com.rodoassessment.gdprassessmentpanel.support;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Skips a test class when no {@link TestDatabase} can be provided. Inherited, unlike {@link EnabledIf}
+ * itself, so it also applies to subclasses of {@link DatabaseTest}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@EnabledIf("com.rodoassessment.gdprassessmentpanel.support.TestDatabase#isAvailable")
+public @interface EnabledWithDatabase {
+}
@@ -0,0 +1,40 @@
+package com.rodoassessment.gdprassessmentpanel.support;
+
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+
+/**
+ * Catalog entities for tests that build a {@code QuestionnaireCatalog} without a database.
+ */
+public final class TestCatalogs {
+
+    private TestCatalogs() {
+    }
+
+    public static Chapter chapter(long id, Integer orderNumber) {
+        Chapter chapter = new Chapter();
+        chapter.setId(id);
+        chapter.setName("Rozdział " + id);
+        chapter.setOrderNumber(orderNumber);
+        return chapter;
+    }
+
+    public static Area area(long id, Chapter chapter, Integer orderNumber) {
+        Area area = new Area();
+        area.setId(id);
+        area.setName("Obszar " + id);
+        area.setChapter(chapter);
+        area.setOrderNumber(orderNumber);
+        return area;
+    }
+
+    public static Requirement requirement(long id, Area area, Integer orderNumber) {
+        Requirement requirement = new Requirement();
+        requirement.setId(id);
+        requirement.setText("Wymaganie " + id);
+        requirement.setArea(area);
+        requirement.setOrderNumber(orderNumber);
+        return requirement;
+    }
+}
@@ -0,0 +1,49 @@
+package com.rodoassessment.gdprassessmentpanel.support;
+
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL for tests that need a database: a container started once per test run, or an existing empty
+ * database given with {@code -Dtest.database.url=...} (and optionally {@code test.database.username} and
+ * {@code test.database.password}) where Docker is not available.
+ */
+public final class TestDatabase {
+
+    private static final String URL_PROPERTY = "test.database.url";
+
+    private static PostgreSQLContainer<?> container;
+
+    private TestDatabase() {
+    }
+
+    public static boolean isAvailable() {
+        return System.getProperty(URL_PROPERTY) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static String url() {
+        String url = System.getProperty(URL_PROPERTY);
+        return url != null ? url : container().getJdbcUrl();
+    }
+
+    public static String username() {
+        return System.getProperty(URL_PROPERTY) != null
+                ? System.getProperty("test.database.username", "postgres")
+                : container().getUsername();
+    }
+
+    public static String password() {
+        return System.getProperty(URL_PROPERTY) != null
+                ? System.getProperty("test.database.password", "")
+                : container().getPassword();
+    }
+
+    // Stopped by the Testcontainers resource reaper when the test JVM exits
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+        }
+        return container;
+    }
+}